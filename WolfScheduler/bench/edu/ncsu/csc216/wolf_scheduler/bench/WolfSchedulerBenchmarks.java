@@ -0,0 +1,437 @@
+package edu.ncsu.csc216.wolf_scheduler.bench;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.regex.Pattern;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.ConflictException;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+import edu.ncsu.csc216.wolf_scheduler.io.ActivityRecordIO;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+import edu.ncsu.csc216.wolf_scheduler.load.CatalogGenerator;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.WolfScheduler;
+
+/**
+ * Benchmarks for the course, io, and scheduler packages.
+ * 
+ * Each benchmark is run in batches that take at least BATCH_NANOS. The first batches warm
+ * up the JIT and are thrown away, and the average time per operation of the rest is
+ * reported with its standard deviation. Results are kept alive in a volatile sink so the
+ * JIT cannot remove the work being measured. All test data comes from fixed seeds, so
+ * every run measures the same inputs, and it is only generated for the benchmarks that
+ * are run.
+ * 
+ * A run can be saved as a baseline and later runs compared against it:
+ * <pre>
+ * WolfSchedulerBenchmarks [-wi warmups] [-i iterations] [-save file] [-compare file] [pattern]
+ * </pre>
+ * where pattern is a regular expression picking the benchmarks to run by name. Comparing
+ * prints each benchmark's time as a ratio of the baseline and marks the ones more than
+ * REGRESSION_RATIO slower.
+ * 
+ * @author William Krajcovic
+ *
+ */
+public class WolfSchedulerBenchmarks {
+	
+	/** Shortest time for a batch of operations */
+	private static final long BATCH_NANOS = 100_000_000L;
+	/** Ratio of the baseline above which a benchmark is marked as a regression */
+	private static final double REGRESSION_RATIO = 1.10;
+	/** Seed for the generated test data */
+	private static final long SEED = 216;
+	/** Share of generated course records lines that repeat an earlier section */
+	private static final double DUPLICATE_RATIO = 0.05;
+	/** Share of generated course records lines that are invalid */
+	private static final double INVALID_RATIO = 0.03;
+	/** Sizes of the course records files read */
+	private static final int[] RECORD_FILE_LINES = {1_000, 100_000, 1_000_000};
+	/** Schedule sizes that a course is added to */
+	private static final int[] SCHEDULE_SIZES = {0, 5, 20};
+	/** Number of sections in the catalog searched */
+	private static final int SEARCH_CATALOG_SIZE = 500_000;
+	/** Most courses found by each search */
+	private static final int SEARCH_LIMIT = 20;
+	/** Number of activities in the schedule that is written */
+	private static final int EXPORT_SIZE = 20;
+	/** Days that generated courses meet on, one day each so courses only conflict by day and hour */
+	private static final String[] DAYS = {"M", "T", "W", "H", "F"};
+	
+	/** Keeps benchmark results alive so the work cannot be optimized away */
+	private static volatile Object sink;
+	
+	/**
+	 * An operation to time
+	 */
+	private interface Benchmark {
+		/**
+		 * Runs the operation once
+		 * @return the result of the operation, which is kept alive
+		 * @throws Exception if the operation fails
+		 */
+		Object run() throws Exception;
+	}
+	
+	/**
+	 * Sets up an operation to time when it is picked to run
+	 */
+	private interface Fixture {
+		/**
+		 * Generates the test data for the operation
+		 * @return the operation to time
+		 * @throws Exception if the test data cannot be generated
+		 */
+		Benchmark setUp() throws Exception;
+	}
+	
+	/** The benchmarks by name, in the order they run */
+	private final LinkedHashMap<String, Fixture> benchmarks;
+	/** Directory holding the generated files */
+	private final Path workDir;
+	/** The schedule whose catalog is searched, or null if it has not been loaded yet */
+	private WolfScheduler searchScheduler;
+	
+	/**
+	 * Sets up the benchmarks. Their test data is generated when they are first run.
+	 * @throws IOException if the directory for the test data cannot be made
+	 */
+	private WolfSchedulerBenchmarks() throws IOException {
+		benchmarks = new LinkedHashMap<String, Fixture>();
+		workDir = Files.createTempDirectory("wolf_scheduler_bench");
+		
+		addConflictBenchmarks();
+		addCourseBenchmarks();
+		addIoBenchmarks();
+		addSchedulerBenchmarks();
+		addSearchBenchmarks();
+	}
+	
+	/**
+	 * Adds a benchmark that needs no test data
+	 * @param name the name of the benchmark
+	 * @param benchmark the operation to time
+	 */
+	private void add(String name, Benchmark benchmark) {
+		benchmarks.put(name, () -> benchmark);
+	}
+	
+	/**
+	 * Adds the Activity.checkConflict benchmarks
+	 */
+	private void addConflictBenchmarks() {
+		Course course = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445);
+		Course apart = new Course("CSC 226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes", "MWF", 935, 1025);
+		Course overlapping = new Course("CSC 116", "Intro to Programming - Java", "003", 3, "tbdimitr", "TH", 1400, 1515);
+		Event event = new Event("Exercise", "TH", 800, 900, "Gym");
+		Course arranged = new Course("CSC 217", "Software Development Fundamentals Lab", "601", 1, "sesmith5", "A");
+		Course arrangedToo = new Course("CSC 492", "Senior Design Project", "001", 3, "dbsturgi", "A");
+		
+		add("checkConflict.courseVsCourse", () -> checkConflict(course, apart));
+		add("checkConflict.courseVsCourseConflicting", () -> checkConflict(course, overlapping));
+		add("checkConflict.courseVsEvent", () -> checkConflict(course, event));
+		add("checkConflict.arranged", () -> checkConflict(arranged, arrangedToo));
+	}
+	
+	/**
+	 * Adds the Course construction and validation benchmarks
+	 */
+	private void addCourseBenchmarks() {
+		add("course.construct", () ->
+				new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445));
+		add("course.constructArranged", () ->
+				new Course("CSC 217", "Software Development Fundamentals Lab", "601", 1, "sesmith5", "A"));
+		add("course.isValid", () ->
+				Course.isValid("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445));
+		add("course.isValidRejected", () ->
+				Course.isValid("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TX", 1330, 1445));
+	}
+	
+	/**
+	 * Adds the CourseRecordIO and ActivityRecordIO benchmarks
+	 */
+	private void addIoBenchmarks() {
+		for (int lines : RECORD_FILE_LINES)	{
+			benchmarks.put("readCourseRecords." + lines, () -> {
+				String fileName = writeCourseRecords(lines).toString();
+				return () -> CourseRecordIO.readCourseRecords(fileName);
+			});
+		}
+		
+		ArrayList<Activity> schedule = new ArrayList<Activity>();
+		for (int i = 0; i < EXPORT_SIZE; i++)	{
+			schedule.add(i % 4 == 3 ? new Event("Event " + i, "U", 800, 900, "Details")
+					: generatedCourse(i));
+		}
+		String exportFile = workDir.resolve("schedule_export.txt").toString();
+		add("writeActivityRecords." + EXPORT_SIZE, () -> {
+			ActivityRecordIO.writeActivityRecords(exportFile, schedule);
+			return exportFile;
+		});
+	}
+	
+	/**
+	 * Adds the WolfScheduler.addCourseToSchedule benchmarks. Each operation adds a course
+	 * to a schedule already holding the given number of courses and then removes it again,
+	 * so the schedule stays the same size.
+	 */
+	private void addSchedulerBenchmarks() {
+		for (int size : SCHEDULE_SIZES)	{
+			benchmarks.put("addCourseToSchedule." + size, () -> {
+				WolfScheduler ws = new WolfScheduler(writeSchedulerCatalog().toString());
+				for (int i = 0; i < size; i++)	{
+					ws.addCourseToSchedule(generatedCourse(i).getName(), generatedCourse(i).getSection());
+				}
+				Course extra = generatedCourse(size);
+				return () -> {
+					Boolean added = ws.addCourseToSchedule(extra.getName(), extra.getSection());
+					ws.removeActivityFromSchedule(size);
+					return added;
+				};
+			});
+		}
+	}
+	
+	/**
+	 * Writes the catalog file for the addCourseToSchedule benchmarks, which has one more
+	 * course than the largest schedule
+	 * @return the file
+	 * @throws IOException if the file cannot be written
+	 */
+	private Path writeSchedulerCatalog() throws IOException {
+		Path catalogFile = workDir.resolve("catalog.txt");
+		try (PrintStream out = new PrintStream(catalogFile.toFile()))	{
+			for (int i = 0; i <= SCHEDULE_SIZES[SCHEDULE_SIZES.length - 1]; i++)	{
+				out.println(generatedCourse(i).toString());
+			}
+		}
+		return catalogFile;
+	}
+	
+	/**
+	 * Adds the WolfScheduler.searchCatalog benchmarks, searching by name prefix, by one
+	 * title word, and by two title words whose posting lists must be intersected. The
+	 * catalog is loaded from a generated course records file, so its sections meet at
+	 * real times like a real catalog's rather than all being arranged.
+	 */
+	private void addSearchBenchmarks() {
+		benchmarks.put("search.namePrefix." + SEARCH_CATALOG_SIZE, () -> {
+			WolfScheduler ws = searchScheduler();
+			return () -> ws.searchCatalog("CSC 2", SEARCH_LIMIT);
+		});
+		benchmarks.put("search.titleWord." + SEARCH_CATALOG_SIZE, () -> {
+			WolfScheduler ws = searchScheduler();
+			return () -> ws.searchCatalog("networks", SEARCH_LIMIT);
+		});
+		benchmarks.put("search.titleWords." + SEARCH_CATALOG_SIZE, () -> {
+			WolfScheduler ws = searchScheduler();
+			return () -> ws.searchCatalog("software lab", SEARCH_LIMIT);
+		});
+	}
+	
+	/**
+	 * Gets the schedule whose catalog is searched, loading it the first time so the
+	 * search benchmarks share one catalog
+	 * @return the schedule
+	 * @throws IOException if the catalog file cannot be written
+	 */
+	private WolfScheduler searchScheduler() throws IOException {
+		if (searchScheduler == null)	{
+			searchScheduler = new WolfScheduler(writeCourseRecords(SEARCH_CATALOG_SIZE).toString());
+		}
+		return searchScheduler;
+	}
+	
+	/**
+	 * Checks two activities for a conflict
+	 * @param a one activity
+	 * @param b the other activity
+	 * @return true if they conflict
+	 */
+	private static Boolean checkConflict(Activity a, Activity b) {
+		try	{
+			a.checkConflict(b);
+			return false;
+		} catch (ConflictException e)	{
+			return true;
+		}
+	}
+	
+	/**
+	 * Creates a course that does not conflict with any other generated course with a
+	 * different number under 65
+	 * @param i the number of the course
+	 * @return the course
+	 */
+	private static Course generatedCourse(int i) {
+		int hour = 8 + i / DAYS.length % 13;
+		return new Course("CSC " + (100 + i % 900), "Generated Course", String.format("%03d", i / 900 % 1000 + 1),
+				3, "instr", DAYS[i % DAYS.length], hour * 100, hour * 100 + 50);
+	}
+	
+	/**
+	 * Writes a course records file with the given number of lines, including some
+	 * duplicate and invalid lines
+	 * @param lines the number of lines
+	 * @return the file
+	 * @throws IOException if the file cannot be written
+	 */
+	private Path writeCourseRecords(int lines) throws IOException {
+		Path file = workDir.resolve("course_records_" + lines + ".txt");
+		new CatalogGenerator(SEED, DUPLICATE_RATIO, INVALID_RATIO).write(file.toString(), lines);
+		return file;
+	}
+	
+	/**
+	 * Times one benchmark
+	 * @param benchmark the benchmark to time
+	 * @param warmups the number of batches to throw away
+	 * @param iterations the number of batches to measure
+	 * @return the mean and standard deviation of the nanoseconds per operation
+	 * @throws Exception if the benchmark fails
+	 */
+	private static double[] measure(Benchmark benchmark, int warmups, int iterations) throws Exception {
+		//Find how many operations make a batch
+		long ops = 1;
+		while (true)	{
+			long begin = System.nanoTime();
+			for (long k = 0; k < ops; k++)	{
+				sink = benchmark.run();
+			}
+			long elapsed = System.nanoTime() - begin;
+			if (elapsed >= BATCH_NANOS || ops >= Long.MAX_VALUE / 2)	{
+				break;
+			}
+			ops = elapsed == 0 ? ops * 10 : Math.max(ops * 2, (long) Math.ceil((double) ops * BATCH_NANOS / elapsed));
+		}
+		
+		double[] perOp = new double[iterations];
+		for (int batch = -warmups; batch < iterations; batch++)	{
+			long begin = System.nanoTime();
+			for (long k = 0; k < ops; k++)	{
+				sink = benchmark.run();
+			}
+			if (batch >= 0)	{
+				perOp[batch] = (double) (System.nanoTime() - begin) / ops;
+			}
+		}
+		
+		double mean = 0;
+		for (double t : perOp)	{
+			mean += t / iterations;
+		}
+		double variance = 0;
+		for (double t : perOp)	{
+			variance += (t - mean) * (t - mean) / Math.max(1, iterations - 1);
+		}
+		return new double[] {mean, Math.sqrt(variance)};
+	}
+	
+	/**
+	 * Reads a baseline saved with -save
+	 * @param fileName the baseline file
+	 * @return nanoseconds per operation by benchmark name
+	 * @throws FileNotFoundException if the file cannot be found
+	 */
+	private static Map<String, Double> readBaseline(String fileName) throws FileNotFoundException {
+		LinkedHashMap<String, Double> baseline = new LinkedHashMap<String, Double>();
+		try (Scanner in = new Scanner(new File(fileName)))	{
+			while (in.hasNextLine())	{
+				String[] fields = in.nextLine().split(",");
+				if (fields.length >= 2 && !fields[0].startsWith("#"))	{
+					baseline.put(fields[0], Double.parseDouble(fields[1]));
+				}
+			}
+		}
+		return baseline;
+	}
+	
+	/**
+	 * Deletes the generated files
+	 * @throws IOException if a file cannot be deleted
+	 */
+	private void cleanUp() throws IOException {
+		File[] files = workDir.toFile().listFiles();
+		if (files != null)	{
+			for (File f : files)	{
+				Files.deleteIfExists(f.toPath());
+			}
+		}
+		Files.deleteIfExists(workDir);
+	}
+	
+	/**
+	 * Runs the benchmarks and prints the results
+	 * @param args options and a pattern picking the benchmarks to run
+	 * @throws Exception if a benchmark fails or a file cannot be read or written
+	 */
+	public static void main(String[] args) throws Exception {
+		int warmups = 3;
+		int iterations = 5;
+		String saveFile = null;
+		String compareFile = null;
+		Pattern filter = Pattern.compile(".*");
+		for (int i = 0; i < args.length; i++)	{
+			switch (args[i])	{
+				case "-wi":
+					warmups = Integer.parseInt(args[++i]);
+					break;
+				case "-i":
+					iterations = Integer.parseInt(args[++i]);
+					break;
+				case "-save":
+					saveFile = args[++i];
+					break;
+				case "-compare":
+					compareFile = args[++i];
+					break;
+				default:
+					filter = Pattern.compile(args[i]);
+			}
+		}
+		Map<String, Double> baseline = compareFile == null ? null : readBaseline(compareFile);
+		
+		WolfSchedulerBenchmarks suite = null;
+		LinkedHashMap<String, Double> results = new LinkedHashMap<String, Double>();
+		try	{
+			suite = new WolfSchedulerBenchmarks();
+			System.out.printf("%-42s %16s %12s%s%n", "benchmark", "ns/op", "+/-", baseline == null ? "" : "   vs baseline");
+			for (Map.Entry<String, Fixture> entry : suite.benchmarks.entrySet())	{
+				if (!filter.matcher(entry.getKey()).find())	{
+					continue;
+				}
+				double[] result = measure(entry.getValue().setUp(), warmups, iterations);
+				results.put(entry.getKey(), result[0]);
+				String comparison = "";
+				if (baseline != null && baseline.containsKey(entry.getKey()))	{
+					double ratio = result[0] / baseline.get(entry.getKey());
+					comparison = String.format("   %.2fx%s", ratio, ratio > REGRESSION_RATIO ? " REGRESSION" : "");
+				}
+				System.out.printf("%-42s %16.1f %12.1f%s%n", entry.getKey(), result[0], result[1], comparison);
+			}
+		} finally	{
+			if (suite != null)	{
+				suite.cleanUp();
+			}
+		}
+		
+		if (saveFile != null)	{
+			try (PrintStream out = new PrintStream(new File(saveFile)))	{
+				out.printf("# benchmark,ns/op (java %s, %s)%n", System.getProperty("java.version"), System.getProperty("os.arch"));
+				for (Map.Entry<String, Double> entry : results.entrySet())	{
+					out.printf("%s,%.3f%n", entry.getKey(), entry.getValue());
+				}
+			}
+		}
+	}
+
+}
@@ -1,5 +1,7 @@
 package edu.ncsu.csc216.wolf_scheduler.course;
 
+import java.io.IOException;
+
 /**
  * This is activity class which will act as the parent class to event and course
  * allowing the creation for an activity in a schedule
@@ -15,8 +17,14 @@ public abstract class Activity implements Conflict {
 	private static final int UPPER_MINUTE = 60;
 	/** Course's title. */
 	private String title;
+	/** Letters for the days of the week. The letter at index i is bit i of a meeting days mask */
+	public static final String WEEK_DAYS = "UMTWHFS";
+	/** Returned by toMeetingDaysMask when the meeting days repeat a day or have an unknown letter */
+	static final int INVALID_DAYS = -1;
 	/** Course's meeting days */
 	private String meetingDays;
+	/** Course's meeting days as a mask with a bit set for each day in WEEK_DAYS the activity meets */
+	private int meetingDaysMask;
 	/** Course's starting time */
 	private int startTime;
 	/** Course's ending time */
@@ -106,6 +114,14 @@ public abstract class Activity implements Conflict {
 	 * @return String array of the long version of an activity
 	 */
 	public abstract String[] getLongDisplayArray();
+	
+	/**
+	 * Appends the same comma separated record as toString to out, one field at a time,
+	 * so that writing many activities does not build a String for each one
+	 * @param out where to append the record
+	 * @throws IOException if out cannot be appended to
+	 */
+	public abstract void appendRecord(Appendable out) throws IOException;
 
 	/**
 	 * Gets the Course's title
@@ -121,11 +137,20 @@ public abstract class Activity implements Conflict {
 	 * @throws IllegalArgumentException if title is not valid
 	 */
 	public void setTitle(String title) {
-		if (title == null || "".equals(title)) {
+		if (!isValidTitle(title)) {
 			throw new IllegalArgumentException("Invalid title.");
 		}
 		this.title = title;
 	}
+	
+	/**
+	 * Checks that a title is not null or an empty string
+	 * @param title the title to check
+	 * @return true if the title is valid
+	 */
+	static boolean isValidTitle(String title) {
+		return title != null && !"".equals(title);
+	}
 
 	/**
 	 * Gets the Course's meeting days
@@ -135,6 +160,36 @@ public abstract class Activity implements Conflict {
 		return meetingDays;
 	}
 
+	/**
+	 * Gets the meeting days as a mask with bit i set if the activity meets on the
+	 * day WEEK_DAYS.charAt(i). Arranged activities have no days set.
+	 * @return the meeting days mask
+	 */
+	public int getMeetingDaysMask() {
+		return meetingDaysMask;
+	}
+	
+	/**
+	 * Converts meeting days to a mask with a bit set for each day in WEEK_DAYS. Meeting days
+	 * starting with A are arranged and have no days set.
+	 * @param meetingDays the meeting days to convert
+	 * @return the meeting days mask, or INVALID_DAYS if a day repeats or a letter is not a day
+	 */
+	static int toMeetingDaysMask(String meetingDays) {
+		if (meetingDays.length() > 0 && meetingDays.charAt(0) == 'A')	{
+			return 0;
+		}
+		int mask = 0;
+		for (int i = 0; i < meetingDays.length(); i++)	{
+			int day = WEEK_DAYS.indexOf(meetingDays.charAt(i));
+			if (day == -1 || (mask & (1 << day)) != 0)	{
+				return INVALID_DAYS;
+			}
+			mask |= 1 << day;
+		}
+		return mask;
+	}
+	
 	/**
 	 * This method gets the string showing the days of the class, and the start and end time,
 	 * given in traditional time taken from military time. And returning Arranged
@@ -234,36 +289,50 @@ public abstract class Activity implements Conflict {
 	 * @throws IllegalArgumentException if the parameters listed above are not followed
 	 */
 	public void setMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
-		if (meetingDays == null || " ".equals(meetingDays))	{
+		if (!isValidMeetingDaysAndTime(meetingDays, startTime, endTime))	{
 			throw new IllegalArgumentException("Invalid meeting days and times.");
 		}
-			int startHour = startTime / 100;
-			int startMinute = startTime % 100;
-			int endHour = endTime / 100;
-			int endMinute = endTime % 100;
-			
-			if (startHour < 0 || startHour >= UPPER_HOUR) 	{
-				throw new IllegalArgumentException ("Invalid meeting days and times.");
-			}
-			if (endHour < 0 || endHour >= UPPER_HOUR) 	{
-				throw new IllegalArgumentException ("Invalid meeting days and times.");
-			}
-			
-			if (endMinute < 0 || endMinute >= UPPER_MINUTE) 	{
-				throw new IllegalArgumentException ("Invalid meeting days and times.");
-			}
-			if (startMinute < 0 || startMinute >= UPPER_MINUTE) 	{
-				throw new IllegalArgumentException ("Invalid meeting days and times.");
-			}
-			if (endTime < startTime)	{
-				throw new IllegalArgumentException ("Invalid meeting days and times.");
-			}
 			
 		this.meetingDays = meetingDays;
+		this.meetingDaysMask = Math.max(0, toMeetingDaysMask(meetingDays));
 		this.startTime = startTime; 
 		this.endTime = endTime;
 	}
 	
+	/**
+	 * Checks the meeting day and time rules shared by every activity without throwing.
+	 * The meeting days cannot be null, the times must be proper military times, and the end
+	 * time cannot be before the start time.
+	 * @param meetingDays the meeting days to check
+	 * @param startTime the start time to check
+	 * @param endTime the end time to check
+	 * @return true if the meeting days and times are valid
+	 */
+	static boolean isValidMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
+		if (meetingDays == null || " ".equals(meetingDays))	{
+			return false;
+		}
+		int startHour = startTime / 100;
+		int startMinute = startTime % 100;
+		int endHour = endTime / 100;
+		int endMinute = endTime % 100;
+		
+		if (startHour < 0 || startHour >= UPPER_HOUR) 	{
+			return false;
+		}
+		if (endHour < 0 || endHour >= UPPER_HOUR) 	{
+			return false;
+		}
+		
+		if (endMinute < 0 || endMinute >= UPPER_MINUTE) 	{
+			return false;
+		}
+		if (startMinute < 0 || startMinute >= UPPER_MINUTE) 	{
+			return false;
+		}
+		return endTime >= startTime;
+	}
+	
 	/**
 	 * This is the overridden method that is used to check if the activity that is initialized through this is overlapping
 	 * with the parameter activity possibleConflictingActivity and throws a ConflictException if it is overlapping
@@ -273,28 +342,23 @@ public abstract class Activity implements Conflict {
 	 */
 	@Override
 	public void checkConflict(Activity possibleConflictingActivity) throws ConflictException {
-		for (int i = 0; i < this.meetingDays.length(); i++) {
-			if (meetingDays.charAt(i) == 'A')	{
-				break;
-			}
-			if (possibleConflictingActivity.getMeetingDays().indexOf(this.meetingDays.charAt(i)) != -1)	{
-				if (this.endTime >= possibleConflictingActivity.startTime && possibleConflictingActivity.endTime >= this.startTime)	{
-					throw new ConflictException();
-				}
-				if (possibleConflictingActivity.endTime >= this.startTime && this.endTime >= possibleConflictingActivity.startTime)	{
-					throw new ConflictException();
-				}
-				if (this.startTime >= possibleConflictingActivity.startTime && this.endTime <= possibleConflictingActivity.endTime)	{
-					throw new ConflictException();
-				}
-				if (possibleConflictingActivity.startTime >= this.startTime && possibleConflictingActivity.endTime <= this.endTime)	{
-					throw new ConflictException();
-				}
-				
-			}
-			
+		if (conflictsWith(possibleConflictingActivity))	{
+			throw new ConflictException();
 		}
-		
+	}
+	
+	/**
+	 * Checks if the activity overlaps with possibleConflictingActivity without throwing. Two
+	 * activities are overlapping if they share at least one day and the time overlaps at all
+	 * even it is just one minute
+	 * @param possibleConflictingActivity the activity that is being checked against the initialized activity for an overlapping time
+	 * @return true if the times are overlapping
+	 */
+	@Override
+	public boolean conflictsWith(Activity possibleConflictingActivity) {
+		return (meetingDaysMask & possibleConflictingActivity.meetingDaysMask) != 0
+				&& this.endTime >= possibleConflictingActivity.startTime
+				&& possibleConflictingActivity.endTime >= this.startTime;
 	}
 
 }
\ No newline at end of file
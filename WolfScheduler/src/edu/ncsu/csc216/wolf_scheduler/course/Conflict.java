@@ -20,5 +20,13 @@ public interface Conflict {
 	 * a conflicting schedule
 	 */
 	void checkConflict(Activity possibleConflictingActivity) throws ConflictException;
+	
+	/**
+	 * Checks for the same conflicting times as checkConflict, but reports the result
+	 * instead of throwing, so checks that are expected to find conflicts stay cheap
+	 * @param possibleConflictingActivity An activity that may have conflicting times
+	 * @return true if the two activities conflict
+	 */
+	boolean conflictsWith(Activity possibleConflictingActivity);
 
 }
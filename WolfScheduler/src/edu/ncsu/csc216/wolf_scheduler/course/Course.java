@@ -1,5 +1,7 @@
 package edu.ncsu.csc216.wolf_scheduler.course;
 
+import java.io.IOException;
+
 /**
  * This Course program will allow the scheduling of different
  * NCSU Course's based on name, title, section, credits, instructor ID,
@@ -25,6 +27,8 @@ public class Course extends Activity {
 	private static final int MAX_CREDITS = 5;
 	/** Creates a final int for the min number of credits a class can have*/
 	private static final int MIN_CREDITS = 1;
+	/** Meeting days mask of the days a course can meet, Monday through Friday */
+	private static final int WEEKDAYS_MASK = toMeetingDaysMask("MTWHF");
 	/** Course's name. */
 	private String name;
 	/** Course's section. */
@@ -82,12 +86,24 @@ public class Course extends Activity {
 	 * @throws IllegalArgumentException if the name is considered invalid.
 	 */
 	private void setName(String name) {
-		if (name == null)	{
+		if (!isValidName(name))	{
 			throw new IllegalArgumentException("Invalid course name.");
 		}
+		this.name = name;
+	}
+	
+	/**
+	 * Checks the rules for a Course's name listed in setName without throwing
+	 * @param name the name to check
+	 * @return true if the name is valid
+	 */
+	private static boolean isValidName(String name) {
+		if (name == null)	{
+			return false;
+		}
 		
 		if (name.length() < MIN_NAME_LENGTH || name.length() > MAX_NAME_LENGTH)	{
-			throw new IllegalArgumentException("Invalid course name.");
+			return false;
 		}
 		
 		int countLetters = 0;
@@ -105,7 +121,7 @@ public class Course extends Activity {
 					spaceFlag = true;
 				}
 				else	{
-					throw new IllegalArgumentException ("Invalid course name.");
+					return false;
 					
 				}
 			}
@@ -114,22 +130,16 @@ public class Course extends Activity {
 					countDigits += 1;
 				}
 				else	{
-					throw new IllegalArgumentException ("Invalid course name.");
+					return false;
 				}
 			}
 		}
 		
 		if (countLetters < MIN_LETTER_COUNT || countLetters > MAX_LETTER_COUNT)	{
-			throw new IllegalArgumentException("Invalid course name.");
-		}
-		
-		if (countDigits != DIGIT_COUNT)	{
-			throw new IllegalArgumentException("Invalid course name.");
+			return false;
 		}
 		
-		this.name = name;
-		
-		
+		return countDigits == DIGIT_COUNT;
 	}
 	/**
 	 * Gets the Course's section
@@ -145,15 +155,27 @@ public class Course extends Activity {
 	 * @throws IllegalArgumentException if section is not valid
 	 */
 	public void setSection(String section) {
-		if (section == null || section.length() != SECTION_LENGTH)	{
+		if (!isValidSection(section))	{
 			throw new IllegalArgumentException("Invalid section.");
 		}
+		this.section = section;
+	}
+	
+	/**
+	 * Checks the rules for a Course's section listed in setSection without throwing
+	 * @param section the section to check
+	 * @return true if the section is valid
+	 */
+	private static boolean isValidSection(String section) {
+		if (section == null || section.length() != SECTION_LENGTH)	{
+			return false;
+		}
 		for (int i = 0; i < section.length(); i++) {
 			if (!Character.isDigit(section.charAt(i)))	{
-				throw new IllegalArgumentException("Invalid section.");
+				return false;
 			}
 		}
-		this.section = section;
+		return true;
 	}
 	/**
 	 * Gets the Course's credits
@@ -167,12 +189,21 @@ public class Course extends Activity {
 	 * @param credits the credits to set
 	 */
 	public void setCredits(int credits) {
-		if (credits < MIN_CREDITS || credits > MAX_CREDITS)	{
+		if (!isValidCredits(credits))	{
 			throw new IllegalArgumentException("Invalid credits.");
 		}
 	
 		this.credits = credits;
 	}
+	
+	/**
+	 * Checks that the credits are between MIN_CREDITS and MAX_CREDITS
+	 * @param credits the credits to check
+	 * @return true if the credits are valid
+	 */
+	private static boolean isValidCredits(int credits) {
+		return credits >= MIN_CREDITS && credits <= MAX_CREDITS;
+	}
 	/**
 	 * Gets the Course's instructor ID
 	 * @return the instructorId
@@ -186,11 +217,20 @@ public class Course extends Activity {
 	 */
 	public void setInstructorId(String instructorId) {
 		
-		if (instructorId == null || "".equals(instructorId))	{
+		if (!isValidInstructorId(instructorId))	{
 			throw new IllegalArgumentException("Invalid instructor id.");
 		}
 		this.instructorId = instructorId;
 	}
+	
+	/**
+	 * Checks that the instructor ID is not null or an empty string
+	 * @param instructorId the instructorId to check
+	 * @return true if the instructorId is valid
+	 */
+	private static boolean isValidInstructorId(String instructorId) {
+		return instructorId != null && !"".equals(instructorId);
+	}
 	/**
 	 * Returns a comma separated value String of all Course fields.
 	 * @return String representation of Course
@@ -202,6 +242,20 @@ public class Course extends Activity {
 	    }
 	    return name + "," + getTitle() + "," + section + "," + credits + "," + instructorId + "," + getMeetingDays() + "," + getStartTime() + "," + getEndTime(); 
 	}
+	
+	/**
+	 * Appends the same record as toString, leaving off the times of arranged courses
+	 * @param out where to append the record
+	 * @throws IOException if out cannot be appended to
+	 */
+	@Override
+	public void appendRecord(Appendable out) throws IOException {
+		out.append(name).append(',').append(getTitle()).append(',').append(section).append(',');
+		out.append(Integer.toString(credits)).append(',').append(instructorId).append(',').append(getMeetingDays());
+		if (!"A".equals(getMeetingDays()))	{
+			out.append(',').append(Integer.toString(getStartTime())).append(',').append(Integer.toString(getEndTime()));
+		}
+	}
 
 
 	/**
@@ -303,61 +357,52 @@ public class Course extends Activity {
 	 */
 	@Override
 	public void setMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
-		if (meetingDays.charAt(0) == 'A')	{
-			if (startTime != 0 || endTime != 0) {
-				throw new IllegalArgumentException("Invalid meeting days and times.");
-			}
-		}
-		else {
-			int mCounter = 0;
-			int tCounter = 0;
-			int wCounter = 0;
-			int hCounter = 0;
-			int fCounter = 0;
-			
-			for (int i = 0; i < meetingDays.length(); i++)	{
-				
-				if (meetingDays.charAt(i) == 'M')	{
-					mCounter++;
-				}
-				else if (meetingDays.charAt(i) == 'T')	{
-					tCounter++;
-				}
-				else if (meetingDays.charAt(i) == 'W')	{
-					wCounter++;
-				}
-				else if (meetingDays.charAt(i) == 'H')	{
-					hCounter++;
-				}
-				else if (meetingDays.charAt(i) == 'F')	{
-					fCounter++;
-				}
-				
-				else	{
-					throw new IllegalArgumentException ("Invalid meeting days and times.");
-				}			
-			}
-			if (mCounter > 1)	{
-				throw new IllegalArgumentException ("Invalid meeting days and times.");
-			}
-			
-			if (tCounter > 1)	{
-				throw new IllegalArgumentException ("Invalid meeting days and times.");
-			}
-			if (wCounter > 1)	{
-				throw new IllegalArgumentException ("Invalid meeting days and times.");
-			}
-			if (hCounter > 1)	{
-				throw new IllegalArgumentException ("Invalid meeting days and times.");
-			}
-			if (fCounter > 1)	{
-				throw new IllegalArgumentException ("Invalid meeting days and times.");
-			}
-			
+		if (!isValidCourseMeetingDays(meetingDays, startTime, endTime))	{
+			throw new IllegalArgumentException ("Invalid meeting days and times.");
 		}
 		
 		super.setMeetingDaysAndTime(meetingDays, startTime, endTime);
 	}
+	
+	/**
+	 * Checks the course specific meeting day rules listed in setMeetingDaysAndTime without
+	 * throwing. The rules shared with events are checked by Activity.
+	 * @param meetingDays meetingDays M, T, W, H, F or A for the days of week or A for arranged
+	 * @param startTime the time class will start in military time
+	 * @param endTime the time class will end in military time.
+	 * @return true if the meeting days and times are valid for a course
+	 */
+	private static boolean isValidCourseMeetingDays(String meetingDays, int startTime, int endTime) {
+		if (meetingDays == null || "".equals(meetingDays))	{
+			return false;
+		}
+		if (meetingDays.charAt(0) == 'A')	{
+			return startTime == 0 && endTime == 0;
+		}
+		int mask = toMeetingDaysMask(meetingDays);
+		return mask != INVALID_DAYS && (mask & ~WEEKDAYS_MASK) == 0;
+	}
+	
+	/**
+	 * Checks whether a Course could be constructed from the given values without
+	 * throwing an IllegalArgumentException. This lets callers such as file readers
+	 * reject bad records cheaply instead of relying on the exception.
+	 * @param name name of Course
+	 * @param title title of Course
+	 * @param section section of Course
+	 * @param credits credit hours for Course
+	 * @param instructorId instructor's unity id
+	 * @param meetingDays meeting days for Course as series of chars
+	 * @param startTime start time for Course
+	 * @param endTime end time for Course
+	 * @return true if the values make a valid Course
+	 */
+	public static boolean isValid(String name, String title, String section, int credits, String instructorId,
+			String meetingDays, int startTime, int endTime) {
+		return isValidTitle(title) && isValidCourseMeetingDays(meetingDays, startTime, endTime)
+				&& isValidMeetingDaysAndTime(meetingDays, startTime, endTime) && isValidName(name)
+				&& isValidSection(section) && isValidCredits(credits) && isValidInstructorId(instructorId);
+	}
 
 	/**
 	 * This is overriding the isDuplicate method from activity, to check if a course
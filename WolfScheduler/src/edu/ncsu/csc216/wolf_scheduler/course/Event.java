@@ -3,6 +3,8 @@
  */
 package edu.ncsu.csc216.wolf_scheduler.course;
 
+import java.io.IOException;
+
 /**
  * The event class is a sub class of activity, which will allow for more than just
  * courses to be added to ones schedule
@@ -111,6 +113,19 @@ public class Event extends Activity {
 		
 		return result;
 	}
+	
+	/**
+	 * Appends the same record as toString: title, meetingDays, startTime, endTime,
+	 * and event details
+	 * @param out where to append the record
+	 * @throws IOException if out cannot be appended to
+	 */
+	@Override
+	public void appendRecord(Appendable out) throws IOException {
+		out.append(getTitle()).append(',').append(getMeetingDays()).append(',');
+		out.append(Integer.toString(getStartTime())).append(',').append(Integer.toString(getEndTime())).append(',');
+		out.append(eventDetails);
+	}
 
 
 	/**
@@ -127,65 +142,10 @@ public class Event extends Activity {
 		if (meetingDays == null || "".equals(meetingDays))	{
 			throw new IllegalArgumentException("Invalid meeting days and times.");
 		}
-		int mCounter = 0;
-		int tCounter = 0;
-		int wCounter = 0;
-		int hCounter = 0;
-		int fCounter = 0;
-		int sCounter = 0;
-		int uCounter = 0;
-		
-		for (int i = 0; i < meetingDays.length(); i++)	{
-			
-			if (meetingDays.charAt(i) == 'M')	{
-				mCounter++;
-			}
-			else if (meetingDays.charAt(i) == 'T')	{
-				tCounter++;
-			}
-			else if (meetingDays.charAt(i) == 'W')	{
-				wCounter++;
-			}
-			else if (meetingDays.charAt(i) == 'H')	{
-				hCounter++;
-			}
-			else if (meetingDays.charAt(i) == 'F')	{
-				fCounter++;
-			}
-			else if (meetingDays.charAt(i) == 'S')	{
-				sCounter++;
-			}
-			else if (meetingDays.charAt(i) == 'U')	{
-				uCounter++;
-			}
-			
-			else	{
-				throw new IllegalArgumentException ("Invalid meeting days and times.");
-			}			
-		}
-		if (mCounter > 1)	{
-			throw new IllegalArgumentException ("Invalid meeting days and times.");
-		}
-		
-		if (tCounter > 1)	{
+		int mask = toMeetingDaysMask(meetingDays);
+		if (mask == INVALID_DAYS || mask == 0)	{
 			throw new IllegalArgumentException ("Invalid meeting days and times.");
 		}
-		if (wCounter > 1)	{
-			throw new IllegalArgumentException ("Invalid meeting days and times.");
-		}
-		if (hCounter > 1)	{
-			throw new IllegalArgumentException ("Invalid meeting days and times.");
-		}
-		if (fCounter > 1)	{
-			throw new IllegalArgumentException ("Invalid meeting days and times.");
-		}
-		if (sCounter > 1)	{
-			throw new IllegalArgumentException ("Invalid meeting days and times.");
-		}
-		if (uCounter > 1)	{
-			throw new IllegalArgumentException ("Invalid meeting days and times.");
-		}
-		
 		
 		super.setMeetingDaysAndTime(meetingDays, startTime, endTime);
 	}
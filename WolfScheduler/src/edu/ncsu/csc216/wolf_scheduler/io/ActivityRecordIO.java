@@ -1,32 +1,214 @@
 package edu.ncsu.csc216.wolf_scheduler.io;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.PrintStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
 /**
- * Writes Activities to file
+ * Reads and writes Activities in the schedule export format
  * @author William Krajcovic
  *
  */
 public class ActivityRecordIO {
 
+	/** Size of the buffer records are read and written through */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/** Number of fields in the record of an arranged Course */
+	private static final int ARRANGED_COURSE_FIELDS = 6;
+	/** Number of fields in the record of a Course with meeting times */
+	private static final int COURSE_FIELDS = 8;
+	/** Fewest fields in the record of an Event. Details with commas in them add more */
+	private static final int EVENT_FIELDS = 5;
+	/** Value of a number field that is not a number, which no Activity accepts */
+	private static final int NOT_A_NUMBER = -1;
+
+	/**
+	 * Writes the given Activities to a file, one record per line. The records are written
+	 * to a temporary file in the same directory, forced to disk, and then renamed over
+	 * fileName, so fileName is never left holding part of a schedule, even if writing fails
+	 * partway through. The directory is forced after the rename, so once this returns the
+	 * new schedule survives a crash.
+	 * @param fileName file to write schedule of Activities to
+	 * @param activities the Activities to write
+	 * @throws IOException if cannot write to file
+	 */
+	public static void writeActivityRecords(String fileName, Iterable<? extends Activity> activities) throws IOException {
+		Path target = Paths.get(fileName).toAbsolutePath();
+		//Files.createTempFile would make the file readable by its owner only
+		Path temp = target.resolveSibling(target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+		try	{
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))	{
+				Writer out = Channels.newWriter(channel, Charset.defaultCharset().newEncoder(), BUFFER_SIZE);
+				writeRecords(out, activities);
+				out.flush();
+				channel.force(false);
+			}
+			try	{
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e)	{
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+			forceDirectory(target.getParent());
+		} finally	{
+			Files.deleteIfExists(temp);
+		}
+	}
+
 	/**
-	 * Writes the given list of Courses to 
-	 * @param fileName file to write schedule of Courses to
-	 * @param activities list of Courses to write
-	 * @throws FileNotFoundException if cannot write to file
+	 * Forces a directory to disk, so that a file renamed into it is still there after a
+	 * crash. Does nothing where a directory cannot be opened, as on Windows.
+	 * @param dir the directory
+	 * @throws IOException if the directory cannot be forced
 	 */
-	public static void writeActivityRecords(String fileName, ArrayList<Activity> activities) throws FileNotFoundException {
-		PrintStream fileWriter = new PrintStream(new File(fileName));
-		for (int i = 0; i < activities.size(); i++)	{
-			fileWriter.println(activities.get(i).toString());
-			
+	private static void forceDirectory(Path dir) throws IOException {
+		FileChannel opened;
+		try	{
+			opened = FileChannel.open(dir, StandardOpenOption.READ);
+		} catch (IOException e)	{
+			return;
+		}
+		try (FileChannel channel = opened)	{
+			channel.force(true);
+		}
+	}
+
+	/**
+	 * Writes the given Activities to a stream, one record per line. The stream is flushed
+	 * but not closed.
+	 * @param out stream to write schedule of Activities to
+	 * @param activities the Activities to write
+	 * @throws IOException if cannot write to the stream
+	 */
+	public static void writeActivityRecords(OutputStream out, Iterable<? extends Activity> activities) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset()), BUFFER_SIZE);
+		writeRecords(writer, activities);
+		writer.flush();
+	}
+
+	/**
+	 * Reads the Activities from a file written by writeActivityRecords. Course and Event
+	 * records are told apart by their fields: a record that makes a valid Course is a
+	 * Course, and any other record with at least five fields is tried as an Event whose
+	 * details are everything after the end time. Blank lines are skipped, but any other
+	 * record that makes neither stops the read, so a schedule is never read in part.
+	 * @param fileName file to read the schedule of Activities from
+	 * @return the Activities in the file, in file order
+	 * @throws java.io.FileNotFoundException if the file cannot be found
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if a record is not a valid Course or Event
+	 */
+	public static ArrayList<Activity> readActivityRecords(String fileName) throws IOException {
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		try (BufferedReader in = new BufferedReader(
+				new InputStreamReader(new FileInputStream(fileName), Charset.defaultCharset()), BUFFER_SIZE))	{
+			String line;
+			while ((line = in.readLine()) != null)	{
+				if (line.isEmpty())	{
+					continue;
+				}
+				Activity a = readActivity(line);
+				if (a == null)	{
+					throw new IllegalArgumentException("Invalid activity record.");
+				}
+				activities.add(a);
+			}
+		}
+		return activities;
+	}
+
+	/**
+	 * Makes an Activity from one record, in the same way as readActivityRecords
+	 * @param line the record
+	 * @return the Course or Event in the record, or null if it is neither
+	 */
+	public static Activity readActivity(String line) {
+		String[] fields = line.split(",", -1);
+		
+		if (fields.length == ARRANGED_COURSE_FIELDS && "A".equals(fields[5]))	{
+			int credits = parseNumber(fields[3]);
+			if (Course.isValid(fields[0], fields[1], fields[2], credits, fields[4], fields[5], 0, 0))	{
+				return new Course(fields[0], fields[1], fields[2], credits, fields[4], fields[5]);
+			}
+		} else if (fields.length == COURSE_FIELDS)	{
+			int credits = parseNumber(fields[3]);
+			int startTime = parseNumber(fields[6]);
+			int endTime = parseNumber(fields[7]);
+			if (Course.isValid(fields[0], fields[1], fields[2], credits, fields[4], fields[5], startTime, endTime))	{
+				return new Course(fields[0], fields[1], fields[2], credits, fields[4], fields[5], startTime, endTime);
+			}
 		}
-		fileWriter.close();
 		
+		if (fields.length < EVENT_FIELDS)	{
+			return null;
+		}
+		int startTime = parseNumber(fields[2]);
+		int endTime = parseNumber(fields[3]);
+		if (startTime == NOT_A_NUMBER || endTime == NOT_A_NUMBER)	{
+			return null;
+		}
+		StringBuilder details = new StringBuilder(fields[4]);
+		for (int i = EVENT_FIELDS; i < fields.length; i++)	{
+			details.append(',').append(fields[i]);
+		}
+		try	{
+			return new Event(fields[0], fields[1], startTime, endTime, details.toString());
+		} catch (IllegalArgumentException e)	{
+			return null;
+		}
+	}
+
+	/**
+	 * Parses a non negative number field
+	 * @param field the field
+	 * @return the number, or NOT_A_NUMBER if the field is not a non negative number that
+	 * fits in an int
+	 */
+	private static int parseNumber(String field) {
+		if (field.isEmpty() || field.length() > 9)	{
+			return NOT_A_NUMBER;
+		}
+		int value = 0;
+		for (int i = 0; i < field.length(); i++)	{
+			char c = field.charAt(i);
+			if (c < '0' || c > '9')	{
+				return NOT_A_NUMBER;
+			}
+			value = value * 10 + c - '0';
+		}
+		return value;
+	}
+
+	/**
+	 * Appends each Activity's record followed by a line separator
+	 * @param out where to write the records
+	 * @param activities the Activities to write
+	 * @throws IOException if cannot write to out
+	 */
+	private static void writeRecords(Writer out, Iterable<? extends Activity> activities) throws IOException {
+		String lineSeparator = System.lineSeparator();
+		for (Activity a : activities)	{
+			a.appendRecord(out);
+			out.write(lineSeparator);
+		}
 	}
 
 }
@@ -0,0 +1,207 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Reads and writes a binary snapshot of a parsed course catalog so that it can be
+ * loaded again without parsing the course records file.
+ * 
+ * A snapshot is a header, a dictionary of every distinct string used by the catalog,
+ * and then one fixed width record per Course. Each string field of a record is an index
+ * into the dictionary, so repeated names, titles, and instructor ids are only stored once.
+ * Credits, start time, and end time are stored as ints.
+ * 
+ * @author William Krajcovic
+ *
+ */
+public class CatalogSnapshotIO {
+	
+	/** Marks the start of a catalog snapshot file. 0xFF never starts a line of text, so a course records file cannot be mistaken for a snapshot */
+	private static final int MAGIC = 0xFF574353;
+	/** Version of the snapshot format written by this class */
+	private static final int VERSION = 1;
+	/** Number of ints in each Course record */
+	private static final int RECORD_FIELDS = 8;
+	/** Size of the buffer used for reading and writing snapshots */
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	/**
+	 * Writes the catalog to a snapshot file.
+	 * @param fileName file to write the snapshot to
+	 * @param catalog the Courses to write
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void writeCatalogSnapshot(String fileName, List<Course> catalog) throws IOException {
+		HashMap<String, Integer> indexes = new HashMap<String, Integer>();
+		ArrayList<String> dictionary = new ArrayList<String>();
+		int[] records = new int[catalog.size() * RECORD_FIELDS];
+		
+		for (int i = 0; i < catalog.size(); i++)	{
+			Course c = catalog.get(i);
+			int r = i * RECORD_FIELDS;
+			records[r] = indexOf(c.getName(), indexes, dictionary);
+			records[r + 1] = indexOf(c.getTitle(), indexes, dictionary);
+			records[r + 2] = indexOf(c.getSection(), indexes, dictionary);
+			records[r + 3] = c.getCredits();
+			records[r + 4] = indexOf(c.getInstructorId(), indexes, dictionary);
+			records[r + 5] = indexOf(c.getMeetingDays(), indexes, dictionary);
+			records[r + 6] = c.getStartTime();
+			records[r + 7] = c.getEndTime();
+		}
+		
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName), BUFFER_SIZE)))	{
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			
+			out.writeInt(dictionary.size());
+			for (int i = 0; i < dictionary.size(); i++)	{
+				byte[] bytes = dictionary.get(i).getBytes(StandardCharsets.UTF_8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+			
+			out.writeInt(catalog.size());
+			for (int i = 0; i < records.length; i++)	{
+				out.writeInt(records[i]);
+			}
+		}
+	}
+	
+	/**
+	 * Reads a catalog from a snapshot file written by writeCatalogSnapshot. The Courses
+	 * are returned in the order they were written. Every count in the file is checked
+	 * against the bytes left in it before anything is allocated for it, so a corrupt
+	 * count cannot make the read run out of memory.
+	 * @param fileName file to read the snapshot from
+	 * @return the Courses in the snapshot
+	 * @throws java.io.FileNotFoundException if the file cannot be found or read
+	 * @throws IOException if the file is not a valid catalog snapshot
+	 */
+	public static ArrayList<Course> readCatalogSnapshot(String fileName) throws IOException {
+		try (FileInputStream file = new FileInputStream(fileName);
+				DataInputStream in = new DataInputStream(new BufferedInputStream(file, BUFFER_SIZE)))	{
+			if (in.readInt() != MAGIC)	{
+				throw new IOException("Not a catalog snapshot.");
+			}
+			if (in.readInt() != VERSION)	{
+				throw new IOException("Unsupported catalog snapshot version.");
+			}
+			long remaining = file.getChannel().size() - 2 * Integer.BYTES;
+			
+			//Each string takes at least its length
+			remaining -= Integer.BYTES;
+			String[] dictionary = new String[readCount(in, remaining, Integer.BYTES)];
+			for (int i = 0; i < dictionary.length; i++)	{
+				remaining -= Integer.BYTES;
+				byte[] bytes = new byte[readCount(in, remaining, 1)];
+				in.readFully(bytes);
+				remaining -= bytes.length;
+				dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+			
+			remaining -= Integer.BYTES;
+			int size = readCount(in, remaining, RECORD_FIELDS * Integer.BYTES);
+			ArrayList<Course> catalog = new ArrayList<Course>(size);
+			for (int i = 0; i < size; i++)	{
+				String name = lookup(dictionary, in.readInt());
+				String title = lookup(dictionary, in.readInt());
+				String section = lookup(dictionary, in.readInt());
+				int credits = in.readInt();
+				String instructorId = lookup(dictionary, in.readInt());
+				String meetingDays = lookup(dictionary, in.readInt());
+				int startTime = in.readInt();
+				int endTime = in.readInt();
+				
+				//The constructor checks the course once, so there is no separate isValid pass
+				try	{
+					catalog.add(new Course(name, title, section, credits, instructorId, meetingDays, startTime, endTime));
+				} catch (IllegalArgumentException e)	{
+					throw new IOException("Invalid course in catalog snapshot.", e);
+				}
+			}
+			return catalog;
+		} catch (EOFException e)	{
+			throw new IOException("Catalog snapshot is truncated.", e);
+		}
+	}
+	
+	/**
+	 * Checks whether the file starts like a catalog snapshot.
+	 * @param fileName the file to check
+	 * @return true if the file is a catalog snapshot
+	 * @throws java.io.FileNotFoundException if the file cannot be found or read
+	 * @throws IOException if the file cannot be read
+	 */
+	public static boolean isCatalogSnapshot(String fileName) throws IOException {
+		try (DataInputStream in = new DataInputStream(new FileInputStream(fileName)))	{
+			return in.readInt() == MAGIC;
+		} catch (EOFException e)	{
+			return false;
+		}
+	}
+	
+	/**
+	 * Gets the dictionary index of the string, adding it to the dictionary if it is new.
+	 * @param s the string to look up
+	 * @param indexes the index of each string already in the dictionary
+	 * @param dictionary the strings in index order
+	 * @return the index of s in the dictionary
+	 */
+	private static int indexOf(String s, HashMap<String, Integer> indexes, ArrayList<String> dictionary) {
+		Integer index = indexes.get(s);
+		if (index == null)	{
+			index = dictionary.size();
+			indexes.put(s, index);
+			dictionary.add(s);
+		}
+		return index;
+	}
+	
+	/**
+	 * Reads a count or length and checks that it is not negative and that the rest of
+	 * the file is long enough to hold that many items.
+	 * @param in the snapshot being read
+	 * @param remaining the number of bytes in the file after the count
+	 * @param itemBytes the fewest bytes each item takes
+	 * @return the count
+	 * @throws IOException if the count is negative, too big for the file, or cannot be read
+	 */
+	private static int readCount(DataInputStream in, long remaining, int itemBytes) throws IOException {
+		int count = in.readInt();
+		if (count < 0)	{
+			throw new IOException("Invalid count in catalog snapshot.");
+		}
+		if ((long) count * itemBytes > remaining)	{
+			throw new IOException("Catalog snapshot is truncated.");
+		}
+		return count;
+	}
+	
+	/**
+	 * Gets a string from the dictionary, checking that the index is in range.
+	 * @param dictionary the snapshot's strings
+	 * @param index the index of the string
+	 * @return the string at index
+	 * @throws IOException if the index is out of range
+	 */
+	private static String lookup(String[] dictionary, int index) throws IOException {
+		if (index < 0 || index >= dictionary.length)	{
+			throw new IOException("Invalid string index in catalog snapshot.");
+		}
+		return dictionary[index];
+	}
+
+}
@@ -1,8 +1,18 @@
 package edu.ncsu.csc216.wolf_scheduler.io;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 
 /**
@@ -12,11 +22,38 @@ import edu.ncsu.csc216.wolf_scheduler.course.Course;
  *
  */
 public class CourseRecordIO {
-
 	
+	/** Number of fields in a record for a course with set meeting times */
+	private static final int MAX_FIELDS = 8;
+	/** Number of fields in a record for an arranged course */
+	private static final int ARRANGED_FIELDS = 6;
+	/** Index of the name field */
+	private static final int NAME_FIELD = 0;
+	/** Index of the title field */
+	private static final int TITLE_FIELD = 1;
+	/** Index of the section field */
+	private static final int SECTION_FIELD = 2;
+	/** Index of the credits field */
+	private static final int CREDITS_FIELD = 3;
+	/** Index of the instructor id field */
+	private static final int INSTRUCTOR_FIELD = 4;
+	/** Index of the meeting days field */
+	private static final int MEETING_DAYS_FIELD = 5;
+	/** Index of the start time field */
+	private static final int START_TIME_FIELD = 6;
+	/** Index of the end time field */
+	private static final int END_TIME_FIELD = 7;
+	/** Value returned by parseInt when a field is not an int */
+	private static final long NOT_AN_INT = Long.MIN_VALUE;
+	/** Target number of bytes in each chunk parsed by readCourseRecordsParallel */
+	private static final int CHUNK_SIZE = 16 * 1024 * 1024;
+	/** Number of bytes read at a time while looking for the end of a line at a chunk boundary */
+	private static final int BOUNDARY_SCAN_SIZE = 256;
+
     /**
      * Reads course records from a file and generates a list of valid Courses.  Any invalid
-     * Courses are ignored.  If the file to read cannot be found or the permissions are incorrect
+     * Courses are ignored.  If a later record has the same name and section as a Course
+     * already read, the later record is ignored.  If the file to read cannot be found or the permissions are incorrect
      * a File NotFoundException is thrown.
      * @param fileName file to read Course records from
      * @return a list of valid Courses
@@ -25,93 +62,335 @@ public class CourseRecordIO {
 	public static ArrayList<Course> readCourseRecords(String fileName) throws FileNotFoundException {
 		Scanner fileReader = new Scanner (new FileInputStream(fileName));
 		ArrayList<Course> courses = new ArrayList<Course>();
+		HashMap<String, HashSet<String>> seen = new HashMap<String, HashSet<String>>();
 		
 		while (fileReader.hasNextLine())	{
+			Course course = readCourse(fileReader.nextLine());
+			if (course == null)	{
+				continue;
+			}
+			
+			addIfNew(courses, seen, course);
+		}
+		fileReader.close();
+		
+		
+		return courses;
+	}
+	
+	/**
+	 * Reads course records the same way as readCourseRecords, but memory maps the file and
+	 * parses it as newline aligned chunks on the common fork join pool. The chunks are merged
+	 * back in file order, so the result has the same Courses in the same order as
+	 * readCourseRecords, with the first record for a name and section kept. Lines are expected
+	 * to end with a newline or a carriage return and newline.
+	 * @param fileName file to read Course records from
+	 * @return a list of valid Courses
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 * @throws IOException if the file cannot be mapped
+	 */
+	public static ArrayList<Course> readCourseRecordsParallel(String fileName) throws IOException {
+		return readCourseRecordsParallel(fileName, CHUNK_SIZE);
+	}
+	
+	/**
+	 * Reads course records in parallel using chunks of about the given size.
+	 * @param fileName file to read Course records from
+	 * @param chunkSize target number of bytes in each chunk
+	 * @return a list of valid Courses
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 * @throws IOException if the file cannot be mapped
+	 */
+	static ArrayList<Course> readCourseRecordsParallel(String fileName, int chunkSize) throws IOException {
+		try (FileInputStream in = new FileInputStream(fileName); FileChannel channel = in.getChannel()) {
+			long[] bounds = findChunkBounds(channel, chunkSize);
+			@SuppressWarnings({"unchecked", "rawtypes"})
+			ArrayList<Course>[] parsed = new ArrayList[bounds.length - 1];
+			
 			try	{
-				Course course = readCourse(fileReader.nextLine());
-				
-				boolean duplicate = false;
-				for (int i = 0; i < courses.size(); i++) {
-					Course current = courses.get(i);
-					if (course.getName().equals(current.getName()) && 
-							course.getSection().equals(current.getSection()))	{
-						duplicate = true;
+				ForkJoinPool.commonPool().invoke(new ChunkParser(channel, bounds, parsed, 0, parsed.length));
+			} catch (UncheckedIOException e)	{
+				throw e.getCause();
+			}
+			
+			ArrayList<Course> courses = new ArrayList<Course>();
+			HashMap<String, HashSet<String>> seen = new HashMap<String, HashSet<String>>();
+			for (int i = 0; i < parsed.length; i++)	{
+				for (int j = 0; j < parsed[i].size(); j++)	{
+					addIfNew(courses, seen, parsed[i].get(j));
+				}
+			}
+			return courses;
+		}
+	}
+	
+	/**
+	 * Adds the course to courses unless a Course with the same name and section has
+	 * already been added.
+	 * @param courses the Courses accepted so far
+	 * @param seen the sections accepted so far for each course name
+	 * @param course the Course to add
+	 */
+	private static void addIfNew(ArrayList<Course> courses, HashMap<String, HashSet<String>> seen, Course course) {
+		HashSet<String> sections = seen.get(course.getName());
+		if (sections == null)	{
+			sections = new HashSet<String>();
+			seen.put(course.getName(), sections);
+		}
+		if (sections.add(course.getSection()))	{
+			courses.add(course);
+		}
+	}
+	
+	/**
+	 * Splits the file into chunks of about chunkSize bytes. Each boundary is moved forward
+	 * to just past the next newline so that no line is split between two chunks.
+	 * @param channel the file to split
+	 * @param chunkSize target number of bytes in each chunk
+	 * @return the chunk boundaries, where chunk i is from bounds[i] up to bounds[i + 1]
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long[] findChunkBounds(FileChannel channel, int chunkSize) throws IOException {
+		long size = channel.size();
+		ArrayList<Long> bounds = new ArrayList<Long>();
+		bounds.add(0L);
+		ByteBuffer scan = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+		
+		long position = chunkSize;
+		while (position < size)	{
+			long lineEnd = -1;
+			long scanned = position;
+			while (lineEnd == -1 && scanned < size)	{
+				scan.clear();
+				int read = channel.read(scan, scanned);
+				if (read <= 0)	{
+					break;
+				}
+				for (int i = 0; i < read; i++)	{
+					if (scan.get(i) == '\n')	{
+						lineEnd = scanned + i + 1;
 						break;
 					}
 				}
-				if (!duplicate)	{
-					courses.add(course);
-				}
-			} catch (IllegalArgumentException e)	{
-				//empty
-				
-				
+				scanned += read;
+			}
+			if (lineEnd == -1 || lineEnd >= size)	{
+				break;
 			}
+			bounds.add(lineEnd);
+			position = lineEnd + chunkSize;
 		}
-		fileReader.close();
+		bounds.add(size);
 		
+		long[] result = new long[bounds.size()];
+		for (int i = 0; i < result.length; i++)	{
+			result[i] = bounds.get(i);
+		}
+		return result;
+	}
+	
+	/**
+	 * Fork join task that parses a range of chunks of a course records file. Each chunk is
+	 * memory mapped and parsed into its own list so the lists can be merged in file order.
+	 */
+	private static class ChunkParser extends RecursiveAction {
 		
-		return courses;
+		/** ID used for serialization */
+		private static final long serialVersionUID = 1L;
+		/** The file being parsed */
+		private final transient FileChannel channel;
+		/** The chunk boundaries in the file */
+		private final long[] bounds;
+		/** The parsed Courses of each chunk */
+		private final ArrayList<Course>[] parsed;
+		/** First chunk for this task */
+		private final int from;
+		/** One past the last chunk for this task */
+		private final int to;
+		
+		/**
+		 * Creates a task that parses chunks from up to to.
+		 * @param channel the file being parsed
+		 * @param bounds the chunk boundaries in the file
+		 * @param parsed where the parsed Courses of each chunk are stored
+		 * @param from first chunk to parse
+		 * @param to one past the last chunk to parse
+		 */
+		ChunkParser(FileChannel channel, long[] bounds, ArrayList<Course>[] parsed, int from, int to) {
+			this.channel = channel;
+			this.bounds = bounds;
+			this.parsed = parsed;
+			this.from = from;
+			this.to = to;
+		}
+		
+		/**
+		 * Parses a single chunk, or splits the range in half and parses both halves.
+		 */
+		@Override
+		protected void compute() {
+			if (to - from > 1)	{
+				int mid = (from + to) >>> 1;
+				invokeAll(new ChunkParser(channel, bounds, parsed, from, mid),
+						new ChunkParser(channel, bounds, parsed, mid, to));
+				return;
+			}
+			for (int i = from; i < to; i++)	{
+				try	{
+					parsed[i] = parseChunk(channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]));
+				} catch (IOException e)	{
+					throw new UncheckedIOException(e);
+				}
+			}
+		}
+		
+		/**
+		 * Parses each line of a mapped chunk with readCourse, keeping the valid Courses in order.
+		 * @param chunk the mapped bytes of the chunk
+		 * @return the valid Courses in the chunk
+		 */
+		private static ArrayList<Course> parseChunk(MappedByteBuffer chunk) {
+			ArrayList<Course> courses = new ArrayList<Course>();
+			Charset charset = Charset.defaultCharset();
+			byte[] line = new byte[BOUNDARY_SCAN_SIZE];
+			int length = 0;
+			
+			while (chunk.hasRemaining())	{
+				byte b = chunk.get();
+				if (b != '\n')	{
+					if (length == line.length)	{
+						byte[] bigger = new byte[line.length * 2];
+						System.arraycopy(line, 0, bigger, 0, length);
+						line = bigger;
+					}
+					line[length++] = b;
+					if (chunk.hasRemaining())	{
+						continue;
+					}
+				}
+				if (length > 0 && line[length - 1] == '\r')	{
+					length--;
+				}
+				Course course = readCourse(new String(line, 0, length, charset));
+				if (course != null)	{
+					courses.add(course);
+				}
+				length = 0;
+			}
+			return courses;
+		}
 	}
 
 	/**
-	 * This method takes in the line from the readCourse method to create the course object.
-	 * the method will use the line and find the name, title, section, credits, instructorId,
-	 * meetingDays, and if available start time and end time and throw exceptions if the line
-	 * is not formated correctly
+	 * This method takes in the line from the readCourseRecords method to create the course object.
+	 * The line is split on commas by hand and the number fields are parsed straight from the
+	 * characters, so a bad line costs no more than a good one. The method will use the line and
+	 * find the name, title, section, credits, instructorId, meetingDays, and if available start
+	 * time and end time, and rejects the line if it is not formatted correctly or the values
+	 * do not make a valid Course
 	 * @param nextLine a line string given from the file read in readCourseRecords
-	 * @return course a newly created course object from the nextLine information
-	 * @throws throws an IllegalArgumentException if an Excepiton is caught
+	 * @return course a newly created course object from the nextLine information, or null
+	 * if the line is rejected
 	 */
-    private static Course readCourse(String nextLine) {
-    	Scanner in = new Scanner(nextLine);
-    	in.useDelimiter(",");
-    	String name;
-    	String title;
-    	String section;
-    	int credits;
-    	String instructorId;
-    	String meetingDays;
-    	int startTime;
-    	int endTime;
-    	
-    	
-    	
-    	try	{
-    		name = in.next();	
-    		title = in.next();
-    		section = in.next();
-    		credits = in.nextInt();
-    		instructorId = in.next();
-    		meetingDays = in.next();
-    		
-    		if ("A".equals(meetingDays))	{
-    			if (in.hasNext())	{
-    				in.close();
-    				throw new IllegalArgumentException("Too many Tokens");
-    			}
-    			else	{
-    				Course course = new Course(name, title, section, credits, instructorId, meetingDays);
-    				in.close();
-    				return course;
-    				
-    			}
-    		}
-    		else	{
-    			startTime = in.nextInt();
-    			endTime = in.nextInt();
-    			if (in.hasNext())	{
-    				in.close();
-    				throw new IllegalArgumentException("Too many Tokens");
-    			}
-    			Course course = new Course(name, title, section, credits, instructorId, meetingDays, startTime, endTime);
-    			in.close();
-    			return course;
-    		}
-
-    	} catch(Exception e)	{
-    		throw new IllegalArgumentException ("");
-    	}
+	private static Course readCourse(String nextLine) {
+		int begin = 0;
+		int end = nextLine.length();
+		
+		//Like the Scanner this replaced, skip one leading comma and ignore one trailing comma
+		if (begin < end && nextLine.charAt(begin) == ',')	{
+			begin++;
+		}
+		if (end > begin && nextLine.charAt(end - 1) == ',')	{
+			end--;
+		}
+		if (begin == end)	{
+			return null;
+		}
+		
+		int[] fieldStarts = new int[MAX_FIELDS];
+		int[] fieldEnds = new int[MAX_FIELDS];
+		int fields = 0;
+		int fieldStart = begin;
+		for (int i = begin; i <= end; i++)	{
+			if (i == end || nextLine.charAt(i) == ',')	{
+				if (fields == MAX_FIELDS)	{
+					return null;
+				}
+				fieldStarts[fields] = fieldStart;
+				fieldEnds[fields] = i;
+				fields++;
+				fieldStart = i + 1;
+			}
+		}
+		if (fields < ARRANGED_FIELDS)	{
+			return null;
+		}
+		
+		long credits = parseInt(nextLine, fieldStarts[CREDITS_FIELD], fieldEnds[CREDITS_FIELD]);
+		if (credits == NOT_AN_INT)	{
+			return null;
+		}
+		String name = nextLine.substring(fieldStarts[NAME_FIELD], fieldEnds[NAME_FIELD]);
+		String title = nextLine.substring(fieldStarts[TITLE_FIELD], fieldEnds[TITLE_FIELD]);
+		String section = nextLine.substring(fieldStarts[SECTION_FIELD], fieldEnds[SECTION_FIELD]);
+		String instructorId = nextLine.substring(fieldStarts[INSTRUCTOR_FIELD], fieldEnds[INSTRUCTOR_FIELD]);
+		String meetingDays = nextLine.substring(fieldStarts[MEETING_DAYS_FIELD], fieldEnds[MEETING_DAYS_FIELD]);
+		
+		if ("A".equals(meetingDays))	{
+			if (fields != ARRANGED_FIELDS
+					|| !Course.isValid(name, title, section, (int) credits, instructorId, meetingDays, 0, 0))	{
+				return null;
+			}
+			return new Course(name, title, section, (int) credits, instructorId, meetingDays);
+		}
+		
+		if (fields != MAX_FIELDS)	{
+			return null;
+		}
+		long startTime = parseInt(nextLine, fieldStarts[START_TIME_FIELD], fieldEnds[START_TIME_FIELD]);
+		long endTime = parseInt(nextLine, fieldStarts[END_TIME_FIELD], fieldEnds[END_TIME_FIELD]);
+		if (startTime == NOT_AN_INT || endTime == NOT_AN_INT
+				|| !Course.isValid(name, title, section, (int) credits, instructorId, meetingDays, (int) startTime, (int) endTime))	{
+			return null;
+		}
+		return new Course(name, title, section, (int) credits, instructorId, meetingDays, (int) startTime, (int) endTime);
+	}
+	
+	/**
+	 * Parses an optionally signed decimal int from the characters of line between start
+	 * (inclusive) and end (exclusive) without creating a substring.
+	 * @param line the line holding the field
+	 * @param start index of the first character of the field
+	 * @param end index just past the last character of the field
+	 * @return the parsed value, or NOT_AN_INT if the field is not a valid int
+	 */
+	private static long parseInt(String line, int start, int end) {
+		boolean negative = false;
+		if (start < end && (line.charAt(start) == '-' || line.charAt(start) == '+'))	{
+			negative = line.charAt(start) == '-';
+			start++;
+		}
+		if (start == end)	{
+			return NOT_AN_INT;
+		}
+		long value = 0;
+		for (int i = start; i < end; i++)	{
+			char c = line.charAt(i);
+			if (c < '0' || c > '9')	{
+				return NOT_AN_INT;
+			}
+			value = value * 10 + (c - '0');
+			if (value > (long) Integer.MAX_VALUE + 1)	{
+				return NOT_AN_INT;
+			}
+		}
+		if (negative)	{
+			value = -value;
+		}
+		if (value > Integer.MAX_VALUE)	{
+			return NOT_AN_INT;
+		}
+		return value;
 	}
 
 }
@@ -0,0 +1,372 @@
+package edu.ncsu.csc216.wolf_scheduler.load;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Generates course records files in the format CourseRecordIO reads, for testing the loader
+ * and scheduler at sizes far beyond the files in test-files.
+ * 
+ * Valid lines look like a real catalog: department prefixes, three digit course numbers and
+ * sections, MWF and TH meeting patterns with matching lengths, single day labs, and
+ * arranged courses. A set share of lines repeat the name and section of an earlier valid
+ * line, which the reader drops, and another share are invalid in one of several ways the
+ * reader rejects. Every other line has a name and section that has not been used yet, so
+ * the number of Courses the reader keeps is known exactly. Lines are written as they are
+ * generated, so files of tens of millions of lines need no more memory than small ones.
+ * 
+ * The same seed and ratios always give the same file.
+ * 
+ * Run from the command line with
+ * <pre>CatalogGenerator fileName lines [duplicateRatio] [invalidRatio] [seed]</pre>
+ * 
+ * @author William Krajcovic
+ *
+ */
+public class CatalogGenerator {
+	
+	/** Department prefixes */
+	private static final String[] PREFIXES = {"CSC", "MA", "E", "ST", "PY", "CH", "BIO", "ECE", "MAE", "CE",
+			"HI", "ENG", "PSY", "SOC", "ECO", "BUS", "ACC", "FL", "COM", "ARS", "PHI", "REL", "MUS", "ART",
+			"NE", "TE", "IE", "BME", "CHE", "MSE", "GEO", "MEA", "FOR", "HS", "ANS", "PO", "FS", "NTR"};
+	/** Course numbers per prefix */
+	private static final int NUMBERS = 900;
+	/** Sections per course number */
+	private static final int SECTIONS = 999;
+	/** Number of different names and sections, after which they start to repeat */
+	private static final long KEYS = (long) PREFIXES.length * NUMBERS * SECTIONS;
+	/** Steps through the names and sections in a scattered order. It is prime and larger than every factor of KEYS */
+	private static final long KEY_STRIDE = 1_000_003L;
+	/** Words titles are made of */
+	private static final String[] TITLE_WORDS = {"Introduction to", "Advanced", "Applied", "Software", "Systems",
+			"Data", "Theory of", "Design", "Analysis", "Engineering", "Fundamentals", "Methods", "Lab", "Seminar",
+			"Computing", "Statistics", "History", "Writing", "Mechanics", "Networks"};
+	/** Surnames instructor ids are made of */
+	private static final String[] SURNAMES = {"smith", "young", "barnes", "sturgi", "king", "heckman", "jones",
+			"nguyen", "garcia", "patel", "chen", "brown", "davis", "lee", "wilson"};
+	/** Names and sections remembered for duplicate lines */
+	private static final int RECENT_KEYS = 4096;
+	/** Size of the buffer used when writing files */
+	private static final int BUFFER_SIZE = 1 << 20;
+	/** Number of different ways a line can be invalid */
+	private static final int INVALID_KINDS = 10;
+	
+	/** Generates the lines */
+	private final Random random;
+	/** Share of lines that repeat an earlier name and section */
+	private final double duplicateRatio;
+	/** Share of lines that are invalid */
+	private final double invalidRatio;
+	/** Where the next new name and section starts in the scattered order */
+	private final long keyOffset;
+	/** Number of new names and sections used so far */
+	private long keysUsed;
+	/** Names and sections of recent valid lines */
+	private final long[] recentKeys;
+	/** Number of entries of recentKeys filled */
+	private int recentCount;
+	/** Number of valid lines with a new name and section generated so far */
+	private long validLines;
+	/** Number of duplicate lines generated so far */
+	private long duplicateLines;
+	/** Number of invalid lines generated so far */
+	private long invalidLines;
+	
+	/**
+	 * Sets up a generator
+	 * @param seed seed for the generated lines
+	 * @param duplicateRatio share of lines that repeat an earlier name and section, from 0 to 1
+	 * @param invalidRatio share of lines that are invalid, from 0 to 1
+	 * @throws IllegalArgumentException if a ratio is out of range or the ratios add up to more than 1
+	 */
+	public CatalogGenerator(long seed, double duplicateRatio, double invalidRatio) {
+		if (!(duplicateRatio >= 0 && invalidRatio >= 0 && duplicateRatio + invalidRatio <= 1))	{
+			throw new IllegalArgumentException("Invalid ratio.");
+		}
+		this.random = new Random(seed);
+		this.duplicateRatio = duplicateRatio;
+		this.invalidRatio = invalidRatio;
+		this.keyOffset = Math.floorMod(random.nextLong(), KEYS);
+		this.recentKeys = new long[RECENT_KEYS];
+	}
+	
+	/**
+	 * Generates the next line, without a line separator
+	 * @return the line
+	 */
+	public String nextLine() {
+		StringBuilder sb = new StringBuilder(64);
+		appendLine(sb);
+		return sb.toString();
+	}
+	
+	/**
+	 * Writes lines to a file, replacing anything in it
+	 * @param fileName the file to write
+	 * @param lines the number of lines to write
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(String fileName, long lines) throws IOException {
+		try (Writer out = new BufferedWriter(
+				new OutputStreamWriter(new FileOutputStream(fileName), StandardCharsets.UTF_8), BUFFER_SIZE))	{
+			write(out, lines);
+		}
+	}
+	
+	/**
+	 * Writes lines, each followed by a newline
+	 * @param out where to write the lines
+	 * @param lines the number of lines to write
+	 * @throws IOException if out cannot be written to
+	 */
+	public void write(Appendable out, long lines) throws IOException {
+		StringBuilder sb = new StringBuilder(64);
+		for (long i = 0; i < lines; i++)	{
+			sb.setLength(0);
+			appendLine(sb);
+			sb.append('\n');
+			out.append(sb);
+		}
+	}
+	
+	/**
+	 * Gets the number of valid lines with a new name and section generated so far, which
+	 * is the number of Courses CourseRecordIO reads from them
+	 * @return the number of valid lines that are not duplicates
+	 */
+	public long getValidLines() {
+		return validLines;
+	}
+	
+	/**
+	 * Gets the number of valid lines generated so far that repeat an earlier name and section
+	 * @return the number of duplicate lines
+	 */
+	public long getDuplicateLines() {
+		return duplicateLines;
+	}
+	
+	/**
+	 * Gets the number of invalid lines generated so far
+	 * @return the number of invalid lines
+	 */
+	public long getInvalidLines() {
+		return invalidLines;
+	}
+	
+	/**
+	 * Generates the next line
+	 * @param sb where to append the line
+	 */
+	private void appendLine(StringBuilder sb) {
+		double roll = random.nextDouble();
+		if (roll < invalidRatio)	{
+			appendInvalid(sb, nextKey());
+			invalidLines++;
+		} else if (roll < invalidRatio + duplicateRatio && recentCount > 0)	{
+			appendValid(sb, recentKeys[random.nextInt(recentCount)]);
+			duplicateLines++;
+		} else	{
+			long key = nextKey();
+			appendValid(sb, key);
+			if (recentCount < RECENT_KEYS)	{
+				recentKeys[recentCount++] = key;
+			} else	{
+				recentKeys[random.nextInt(RECENT_KEYS)] = key;
+			}
+			validLines++;
+		}
+	}
+	
+	/**
+	 * Takes a name and section that has not been used yet, unless every one of them has
+	 * @return the name and section as a number below KEYS
+	 */
+	private long nextKey() {
+		return Math.floorMod(keyOffset + keysUsed++ * KEY_STRIDE, KEYS);
+	}
+	
+	/**
+	 * Appends the name of a key
+	 * @param sb where to append the name
+	 * @param key the name and section
+	 */
+	private static void appendName(StringBuilder sb, long key) {
+		long course = key / SECTIONS;
+		sb.append(PREFIXES[(int) (course / NUMBERS)]).append(' ').append(100 + course % NUMBERS);
+	}
+	
+	/**
+	 * Appends the section of a key
+	 * @param sb where to append the section
+	 * @param key the name and section
+	 */
+	private static void appendSection(StringBuilder sb, long key) {
+		int section = (int) (key % SECTIONS) + 1;
+		if (section < 100)	{
+			sb.append('0');
+		}
+		if (section < 10)	{
+			sb.append('0');
+		}
+		sb.append(section);
+	}
+	
+	/**
+	 * Appends a valid line
+	 * @param sb where to append the line
+	 * @param key the name and section of the line
+	 */
+	private void appendValid(StringBuilder sb, long key) {
+		int pattern = random.nextInt(100);
+		String days;
+		int credits;
+		int minutes;
+		if (pattern < 35)	{
+			days = "MWF";
+			credits = 3;
+			minutes = 50;
+		} else if (pattern < 65)	{
+			days = "TH";
+			credits = 3;
+			minutes = 75;
+		} else if (pattern < 75)	{
+			days = "MW";
+			credits = 4;
+			minutes = 75;
+		} else if (pattern < 87)	{
+			days = String.valueOf("MTWHF".charAt(random.nextInt(5)));
+			credits = 1;
+			minutes = 110;
+		} else	{
+			days = "A";
+			credits = 1 + random.nextInt(5);
+			minutes = 0;
+		}
+		
+		appendFields(sb, key, credits, days);
+		if (minutes > 0)	{
+			int start = (8 + random.nextInt(11)) * 60 + 5 * random.nextInt(12);
+			sb.append(',').append(toTime(start)).append(',').append(toTime(start + minutes));
+		}
+	}
+	
+	/**
+	 * Appends the name, title, section, credits, instructor id, and meeting days of a line
+	 * @param sb where to append the fields
+	 * @param key the name and section of the line
+	 * @param credits the credits
+	 * @param days the meeting days
+	 */
+	private void appendFields(StringBuilder sb, long key, int credits, String days) {
+		int firstWord = random.nextInt(TITLE_WORDS.length);
+		int secondWord = (firstWord + 1 + random.nextInt(TITLE_WORDS.length - 1)) % TITLE_WORDS.length;
+		appendName(sb, key);
+		sb.append(',').append(TITLE_WORDS[firstWord]).append(' ').append(TITLE_WORDS[secondWord]).append(',');
+		appendSection(sb, key);
+		sb.append(',').append(credits).append(',')
+				.append((char) ('a' + random.nextInt(26))).append((char) ('a' + random.nextInt(26)))
+				.append(SURNAMES[random.nextInt(SURNAMES.length)]).append(1 + random.nextInt(9))
+				.append(',').append(days);
+	}
+	
+	/**
+	 * Appends an invalid line, broken in one of several ways
+	 * @param sb where to append the line
+	 * @param key the name and section of the line
+	 */
+	private void appendInvalid(StringBuilder sb, long key) {
+		int start = (8 + random.nextInt(11)) * 60;
+		String times = "," + toTime(start) + "," + toTime(start + 50);
+		switch (random.nextInt(INVALID_KINDS))	{
+			case 0:
+				//Name without a space
+				sb.append("CSC").append(100 + random.nextInt(NUMBERS)).append(",Title,001,3,instr,MWF").append(times);
+				break;
+			case 1:
+				//Section too short
+				appendName(sb, key);
+				sb.append(",Title,").append(random.nextInt(100)).append(",3,instr,TH").append(times);
+				break;
+			case 2:
+				//Credits out of range or not a number
+				appendName(sb, key);
+				sb.append(",Title,");
+				appendSection(sb, key);
+				sb.append(',').append(random.nextBoolean() ? "0" : "three").append(",instr,MWF").append(times);
+				break;
+			case 3:
+				//No instructor
+				appendName(sb, key);
+				sb.append(",Title,");
+				appendSection(sb, key);
+				sb.append(",3,,TH").append(times);
+				break;
+			case 4:
+				//Weekend or unknown meeting days
+				appendFields(sb, key, 3, random.nextBoolean() ? "S" : "MX");
+				sb.append(times);
+				break;
+			case 5:
+				//Arranged with times
+				appendFields(sb, key, 3, "A");
+				sb.append(times);
+				break;
+			case 6:
+				//Ends before it starts
+				appendFields(sb, key, 3, "MWF");
+				sb.append(',').append(toTime(start + 50)).append(',').append(toTime(start));
+				break;
+			case 7:
+				//Minutes out of range
+				appendFields(sb, key, 3, "MWF");
+				sb.append(',').append(toTime(start) / 100 * 100 + 75).append(',').append(toTime(start + 120));
+				break;
+			case 8:
+				//Times missing
+				appendFields(sb, key, 3, "MW");
+				break;
+			default:
+				//Extra field
+				appendFields(sb, key, 3, "TH");
+				sb.append(times).append(",extra");
+				break;
+		}
+	}
+	
+	/**
+	 * Converts minutes since midnight to military time
+	 * @param minutes minutes since midnight
+	 * @return the military time
+	 */
+	private static int toTime(int minutes) {
+		return minutes / 60 * 100 + minutes % 60;
+	}
+	
+	/**
+	 * Writes a course records file from the command line
+	 * @param args the file, the number of lines, and optionally the duplicate ratio,
+	 * invalid ratio, and seed
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2)	{
+			System.err.println("Usage: CatalogGenerator fileName lines [duplicateRatio] [invalidRatio] [seed]");
+			System.exit(1);
+		}
+		double duplicateRatio = args.length > 2 ? Double.parseDouble(args[2]) : 0.05;
+		double invalidRatio = args.length > 3 ? Double.parseDouble(args[3]) : 0.02;
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : 216;
+		
+		CatalogGenerator generator = new CatalogGenerator(seed, duplicateRatio, invalidRatio);
+		generator.write(args[0], Long.parseLong(args[1]));
+		System.out.printf("%d valid, %d duplicate, %d invalid lines%n",
+				generator.getValidLines(), generator.getDuplicateLines(), generator.getInvalidLines());
+	}
+
+}
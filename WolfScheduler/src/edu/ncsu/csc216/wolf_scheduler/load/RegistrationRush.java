@@ -0,0 +1,364 @@
+package edu.ncsu.csc216.wolf_scheduler.load;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.SchedulerSessions;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.WolfScheduler;
+
+/**
+ * Simulates the rush when registration opens. A number of students each open a session
+ * on one shared SchedulerSessions and all start at the same moment, running a script of
+ * random actions drawn from the catalog: adding courses, adding events, removing
+ * activities, and resetting their schedule. The time each action takes is recorded, and
+ * the report gives the throughput and the 50th, 99th, and 99.9th percentile latency of
+ * each kind of action.
+ * 
+ * Each student runs on a virtual thread when the Java runtime has them. Otherwise students
+ * share a pool of platform threads, so a large rush still fits in one JVM. Scripts come from
+ * a seeded random number generator, so the same settings always run the same scripts.
+ * 
+ * Run from the command line with
+ * <pre>RegistrationRush catalogFile [students] [actionsPerStudent] [seatsPerSection] [seed]</pre>
+ * 
+ * @author William Krajcovic
+ *
+ */
+public class RegistrationRush {
+	
+	/** The most platform threads to use when virtual threads are not available */
+	private static final int MAX_PLATFORM_THREADS = 256;
+	/** Percent of actions that add a course */
+	private static final int ADD_COURSE_PERCENT = 50;
+	/** Percent of actions that add an event */
+	private static final int ADD_EVENT_PERCENT = 15;
+	/** Percent of actions that remove an activity. The rest reset the schedule */
+	private static final int REMOVE_PERCENT = 30;
+	/** Meeting days an event can have */
+	private static final String[] EVENT_DAYS = {"M", "T", "W", "H", "F", "MW", "TH", "MWF", "SU"};
+	
+	/**
+	 * The kinds of action a student takes
+	 */
+	public enum Action {
+		/** WolfScheduler.addCourseToSchedule */
+		ADD_COURSE,
+		/** WolfScheduler.addEventToSchedule */
+		ADD_EVENT,
+		/** WolfScheduler.removeActivityFromSchedule */
+		REMOVE,
+		/** WolfScheduler.resetSchedule */
+		RESET
+	}
+	
+	/** The course records file or catalog snapshot to read */
+	private final String catalogFileName;
+	/** The number of students */
+	private final int students;
+	/** The number of actions each student takes */
+	private final int actionsPerStudent;
+	/** The number of seats in each section */
+	private final int seatsPerSection;
+	/** Seed for the students' scripts */
+	private final long seed;
+	
+	/**
+	 * Sets up a rush
+	 * @param catalogFileName the course records file or catalog snapshot to read
+	 * @param students the number of students
+	 * @param actionsPerStudent the number of actions each student takes
+	 * @param seatsPerSection the number of seats in each section
+	 * @param seed seed for the students' scripts
+	 * @throws IllegalArgumentException if students, actionsPerStudent, or seatsPerSection
+	 * is not positive
+	 */
+	public RegistrationRush(String catalogFileName, int students, int actionsPerStudent, int seatsPerSection, long seed) {
+		if (students <= 0 || actionsPerStudent <= 0 || seatsPerSection <= 0)	{
+			throw new IllegalArgumentException("Invalid rush.");
+		}
+		this.catalogFileName = catalogFileName;
+		this.students = students;
+		this.actionsPerStudent = actionsPerStudent;
+		this.seatsPerSection = seatsPerSection;
+		this.seed = seed;
+	}
+	
+	/**
+	 * Runs the rush
+	 * @return the throughput and latencies of the rush
+	 * @throws IllegalArgumentException if the catalog cannot be found or read
+	 * @throws InterruptedException if interrupted while waiting for the students
+	 */
+	public Report run() throws InterruptedException {
+		SchedulerSessions sessions = new SchedulerSessions(catalogFileName, 1, TimeUnit.HOURS, seatsPerSection);
+		List<Course> courses = sessions.getCatalog().getCourses();
+		CountDownLatch start = new CountDownLatch(1);
+		
+		ExecutorService executor = newStudentExecutor(students);
+		List<Future<long[][]>> scripts = new ArrayList<Future<long[][]>>();
+		try	{
+			for (int i = 0; i < students; i++)	{
+				String studentId = "student" + i;
+				Random random = new Random(seed + i);
+				scripts.add(executor.submit(() -> {
+					start.await();
+					return runScript(sessions.openSession(studentId), courses, random);
+				}));
+			}
+			long begin = System.nanoTime();
+			start.countDown();
+			
+			Report report = new Report();
+			for (Future<long[][]> script : scripts)	{
+				report.add(script.get());
+			}
+			report.elapsedNanos = System.nanoTime() - begin;
+			report.finish();
+			return report;
+		} catch (ExecutionException e)	{
+			throw new IllegalStateException("A student failed.", e.getCause());
+		} finally	{
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Runs one student's script
+	 * @param ws the student's schedule
+	 * @param courses the catalog to draw courses from
+	 * @param random the student's random number generator
+	 * @return for each action, its kind, its latency in nanoseconds, and 1 if it was rejected
+	 */
+	private long[][] runScript(WolfScheduler ws, List<Course> courses, Random random) {
+		long[][] timings = new long[actionsPerStudent][];
+		for (int i = 0; i < actionsPerStudent; i++)	{
+			int roll = random.nextInt(100);
+			Action action;
+			boolean rejected = false;
+			//Read outside the timing so only the action itself is measured
+			int size = ws.getScheduleSnapshot().size();
+			long begin = System.nanoTime();
+			if (roll < ADD_COURSE_PERCENT)	{
+				action = Action.ADD_COURSE;
+				int pick = random.nextInt(Integer.MAX_VALUE);
+				if (courses.isEmpty())	{
+					rejected = true;
+				} else	{
+					Course c = courses.get(pick % courses.size());
+					try	{
+						rejected = !ws.addCourseToSchedule(c.getName(), c.getSection());
+					} catch (IllegalArgumentException e)	{
+						rejected = true;
+					}
+				}
+			} else if (roll < ADD_COURSE_PERCENT + ADD_EVENT_PERCENT)	{
+				action = Action.ADD_EVENT;
+				int start = (6 + random.nextInt(14)) * 100 + 15 * random.nextInt(4);
+				try	{
+					ws.addEventToSchedule("Event " + i, EVENT_DAYS[random.nextInt(EVENT_DAYS.length)], start, start + 100, "");
+				} catch (IllegalArgumentException e)	{
+					rejected = true;
+				}
+			} else if (roll < ADD_COURSE_PERCENT + ADD_EVENT_PERCENT + REMOVE_PERCENT)	{
+				action = Action.REMOVE;
+				//Draw the same number of values whatever the schedule holds, so seat contention
+				//between students cannot change the rest of the script
+				int pick = random.nextInt(Integer.MAX_VALUE);
+				rejected = !ws.removeActivityFromSchedule(size == 0 ? 0 : pick % size);
+			} else	{
+				action = Action.RESET;
+				ws.resetSchedule();
+			}
+			timings[i] = new long[] {action.ordinal(), System.nanoTime() - begin, rejected ? 1 : 0};
+		}
+		return timings;
+	}
+	
+	/**
+	 * Creates the executor the students run on, using a virtual thread for each student
+	 * if the runtime has them
+	 * @param students the number of students
+	 * @return the executor
+	 */
+	private static ExecutorService newStudentExecutor(int students) {
+		try	{
+			Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) virtual.invoke(null);
+		} catch (ReflectiveOperationException e)	{
+			return Executors.newFixedThreadPool(Math.min(students, MAX_PLATFORM_THREADS));
+		}
+	}
+	
+	/**
+	 * The throughput and latencies of a rush
+	 */
+	public static class Report {
+		
+		/** Latencies in nanoseconds of each kind of action, sorted once the rush is done */
+		private final EnumMap<Action, long[]> latencies;
+		/** The number of latencies recorded for each kind of action */
+		private final EnumMap<Action, Integer> counts;
+		/** The number of rejected actions of each kind */
+		private final EnumMap<Action, Integer> rejected;
+		/** Nanoseconds from the start of the rush until the last student finished */
+		private long elapsedNanos;
+		
+		/**
+		 * Creates an empty report
+		 */
+		private Report() {
+			latencies = new EnumMap<Action, long[]>(Action.class);
+			counts = new EnumMap<Action, Integer>(Action.class);
+			rejected = new EnumMap<Action, Integer>(Action.class);
+			for (Action action : Action.values())	{
+				latencies.put(action, new long[16]);
+				counts.put(action, 0);
+				rejected.put(action, 0);
+			}
+		}
+		
+		/**
+		 * Adds the timings of one student's script
+		 * @param timings for each action, its kind, its latency, and 1 if it was rejected
+		 */
+		private void add(long[][] timings) {
+			for (long[] timing : timings)	{
+				Action action = Action.values()[(int) timing[0]];
+				long[] l = latencies.get(action);
+				int count = counts.get(action);
+				if (count == l.length)	{
+					l = Arrays.copyOf(l, l.length * 2);
+					latencies.put(action, l);
+				}
+				l[count] = timing[1];
+				counts.put(action, count + 1);
+				rejected.put(action, rejected.get(action) + (int) timing[2]);
+			}
+		}
+		
+		/**
+		 * Sorts the latencies once every student's timings are added
+		 */
+		private void finish() {
+			for (Action action : Action.values())	{
+				long[] l = Arrays.copyOf(latencies.get(action), counts.get(action));
+				Arrays.sort(l);
+				latencies.put(action, l);
+			}
+		}
+		
+		/**
+		 * Gets the number of actions of a kind
+		 * @param action the kind of action
+		 * @return the number of actions
+		 */
+		public int getCount(Action action) {
+			return counts.get(action);
+		}
+		
+		/**
+		 * Gets the number of actions of a kind that were rejected, such as adding a course
+		 * that conflicts or whose section is full
+		 * @param action the kind of action
+		 * @return the number of rejected actions
+		 */
+		public int getRejected(Action action) {
+			return rejected.get(action);
+		}
+		
+		/**
+		 * Gets the total number of actions
+		 * @return the number of actions
+		 */
+		public int getTotalCount() {
+			int total = 0;
+			for (Action action : Action.values())	{
+				total += counts.get(action);
+			}
+			return total;
+		}
+		
+		/**
+		 * Gets the time from the start of the rush until the last student finished
+		 * @return the elapsed time in nanoseconds
+		 */
+		public long getElapsedNanos() {
+			return elapsedNanos;
+		}
+		
+		/**
+		 * Gets the number of actions finished per second
+		 * @return the throughput
+		 */
+		public double getThroughput() {
+			return getTotalCount() / (Math.max(1, elapsedNanos) / 1e9);
+		}
+		
+		/**
+		 * Gets a latency percentile of a kind of action, using the nearest rank
+		 * @param action the kind of action
+		 * @param percentile the percentile, such as 99.9
+		 * @return the latency in nanoseconds, or 0 if there were no actions of that kind
+		 * @throws IllegalArgumentException if percentile is not between 0 and 100
+		 */
+		public long getLatencyNanos(Action action, double percentile) {
+			if (percentile <= 0 || percentile > 100)	{
+				throw new IllegalArgumentException("Invalid percentile.");
+			}
+			long[] l = latencies.get(action);
+			if (l.length == 0)	{
+				return 0;
+			}
+			int rank = (int) Math.ceil(percentile / 100 * l.length);
+			return l[Math.max(0, rank - 1)];
+		}
+		
+		/**
+		 * Gives the report as a table with a row for each kind of action
+		 * @return the report
+		 */
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append(String.format("%d actions in %.3f s, %.0f actions/s%n", getTotalCount(), elapsedNanos / 1e9, getThroughput()));
+			sb.append(String.format("%-12s %10s %10s %12s %12s %12s%n", "action", "count", "rejected", "p50 us", "p99 us", "p999 us"));
+			for (Action action : Action.values())	{
+				sb.append(String.format("%-12s %10d %10d %12.1f %12.1f %12.1f%n", action, getCount(action), getRejected(action),
+						getLatencyNanos(action, 50) / 1e3, getLatencyNanos(action, 99) / 1e3, getLatencyNanos(action, 99.9) / 1e3));
+			}
+			return sb.toString();
+		}
+	}
+	
+	/**
+	 * Runs a rush from the command line and prints the report
+	 * @param args the catalog file, then optionally the number of students, actions per
+	 * student, seats per section, and seed
+	 * @throws InterruptedException if interrupted while waiting for the students
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		if (args.length == 0)	{
+			System.err.println("Usage: RegistrationRush catalogFile [students] [actionsPerStudent] [seatsPerSection] [seed]");
+			System.exit(1);
+		}
+		int students = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+		int actions = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+		int seats = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : 216;
+		
+		System.out.printf("%d students, %d actions each, %d seats per section%n", students, actions, seats);
+		System.out.print(new RegistrationRush(args[0], students, actions, seats, seed).run());
+	}
+
+}
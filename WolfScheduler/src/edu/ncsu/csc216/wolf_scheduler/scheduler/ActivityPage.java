@@ -0,0 +1,91 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * One page of the rows of the catalog or a schedule: the rows from an offset up to a
+ * limit, along with the total number of rows there are. The page is a read only list of
+ * ActivityRows made as they are read, over the catalog or schedule version the page was
+ * taken from, so it stays the same when the catalog is reloaded or the schedule changes.
+ *
+ * @author William Krajcovic
+ *
+ */
+public final class ActivityPage extends AbstractList<ActivityRow> {
+
+	/** Every row the page was taken from */
+	private final List<? extends Activity> source;
+
+	/** The index in source of the first row on the page */
+	private final int offset;
+
+	/** The number of rows on the page */
+	private final int size;
+
+	/**
+	 * Takes a page of rows. An offset past the last row gives an empty page.
+	 * @param source every row, which must not change
+	 * @param offset the index of the first row on the page
+	 * @param limit the most rows on the page
+	 * @throws IllegalArgumentException if offset or limit is negative
+	 */
+	ActivityPage(List<? extends Activity> source, int offset, int limit) {
+		if (offset < 0 || limit < 0)	{
+			throw new IllegalArgumentException("Invalid range.");
+		}
+		this.source = source;
+		this.offset = offset;
+		this.size = offset >= source.size() ? 0 : Math.min(limit, source.size() - offset);
+	}
+
+	/**
+	 * Gets the row at an index on the page
+	 * @param idx the index on the page, where 0 is the row at the offset
+	 * @return the row
+	 * @throws IndexOutOfBoundsException if idx is not on the page
+	 */
+	@Override
+	public ActivityRow get(int idx) {
+		if (idx < 0 || idx >= size)	{
+			throw new IndexOutOfBoundsException("Index: " + idx + ", Size: " + size);
+		}
+		return new ActivityRow(source.get(offset + idx));
+	}
+
+	/**
+	 * Gets the number of rows on the page
+	 * @return the number of rows on the page
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the index of the first row on the page among all the rows
+	 * @return the offset the page was asked for at
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Gets the number of rows there are in all, on this page or any other
+	 * @return the total number of rows
+	 */
+	public int getTotal() {
+		return source.size();
+	}
+
+	/**
+	 * Checks if there are rows after this page
+	 * @return true if the next page would have rows
+	 */
+	public boolean hasMore() {
+		return offset < source.size() && offset + size < source.size();
+	}
+
+}
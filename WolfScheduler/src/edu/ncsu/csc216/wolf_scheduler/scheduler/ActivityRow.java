@@ -0,0 +1,148 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * A view of one activity as a row of a catalog or schedule table. Each field is formatted
+ * only when it is asked for, so a table that shows a few columns of a few rows never
+ * formats the rest. The fields match getShortDisplayArray and getLongDisplayArray, with
+ * empty strings for the fields an Event or Course does not have.
+ *
+ * @author William Krajcovic
+ *
+ */
+public final class ActivityRow {
+
+	/** Number of fields in a short row, as in getShortDisplayArray */
+	public static final int SHORT_FIELDS = 4;
+
+	/** Number of fields in a long row, as in getLongDisplayArray */
+	public static final int LONG_FIELDS = 7;
+
+	/** The activity in the row */
+	private final Activity activity;
+
+	/**
+	 * Creates a row
+	 * @param activity the activity in the row
+	 */
+	ActivityRow(Activity activity) {
+		this.activity = activity;
+	}
+
+	/**
+	 * Gets the activity in the row
+	 * @return the activity
+	 */
+	public Activity getActivity() {
+		return activity;
+	}
+
+	/**
+	 * Gets the name of the course
+	 * @return the name, or an empty string for an event
+	 */
+	public String getName() {
+		return activity instanceof Course ? ((Course) activity).getName() : "";
+	}
+
+	/**
+	 * Gets the section of the course
+	 * @return the section, or an empty string for an event
+	 */
+	public String getSection() {
+		return activity instanceof Course ? ((Course) activity).getSection() : "";
+	}
+
+	/**
+	 * Gets the title of the activity
+	 * @return the title
+	 */
+	public String getTitle() {
+		return activity.getTitle();
+	}
+
+	/**
+	 * Gets the credits of the course
+	 * @return the credits, or an empty string for an event
+	 */
+	public String getCredits() {
+		return activity instanceof Course ? Integer.toString(((Course) activity).getCredits()) : "";
+	}
+
+	/**
+	 * Gets the instructor of the course
+	 * @return the instructor's id, or an empty string for an event
+	 */
+	public String getInstructorId() {
+		return activity instanceof Course ? ((Course) activity).getInstructorId() : "";
+	}
+
+	/**
+	 * Gets the meeting days and times of the activity, formatted for display
+	 * @return the meeting string
+	 */
+	public String getMeetingString() {
+		return activity.getMeetingString();
+	}
+
+	/**
+	 * Gets the details of the event
+	 * @return the details, or an empty string for a course
+	 */
+	public String getDetails() {
+		return activity instanceof Event ? ((Event) activity).getEventDetails() : "";
+	}
+
+	/**
+	 * Gets one field of the short row: name, section, title, or meeting string
+	 * @param column the index of the field in getShortDisplayArray
+	 * @return the field
+	 * @throws IndexOutOfBoundsException if column is not a short field
+	 */
+	public String getShortField(int column) {
+		switch (column)	{
+			case 0:
+				return getName();
+			case 1:
+				return getSection();
+			case 2:
+				return getTitle();
+			case 3:
+				return getMeetingString();
+			default:
+				throw new IndexOutOfBoundsException("Column: " + column);
+		}
+	}
+
+	/**
+	 * Gets one field of the long row: name, section, title, credits, instructor, meeting
+	 * string, or details
+	 * @param column the index of the field in getLongDisplayArray
+	 * @return the field
+	 * @throws IndexOutOfBoundsException if column is not a long field
+	 */
+	public String getLongField(int column) {
+		switch (column)	{
+			case 0:
+				return getName();
+			case 1:
+				return getSection();
+			case 2:
+				return getTitle();
+			case 3:
+				return getCredits();
+			case 4:
+				return getInstructorId();
+			case 5:
+				return getMeetingString();
+			case 6:
+				return getDetails();
+			default:
+				throw new IndexOutOfBoundsException("Column: " + column);
+		}
+	}
+
+}
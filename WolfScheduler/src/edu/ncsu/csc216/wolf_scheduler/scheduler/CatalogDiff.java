@@ -0,0 +1,68 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.Collections;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * The differences between two versions of a CourseCatalog, matched by course
+ * name and section.
+ * 
+ * @author William Krajcovic
+ *
+ */
+public class CatalogDiff {
+	
+	/** Sections in the new catalog that were not in the old one */
+	private final List<Course> added;
+	/** Sections in the old catalog that are not in the new one */
+	private final List<Course> removed;
+	/** New versions of sections whose details changed */
+	private final List<Course> changed;
+	
+	/**
+	 * Creates a diff from the given lists of sections
+	 * @param added sections that were added
+	 * @param removed sections that were removed
+	 * @param changed new versions of sections that changed
+	 */
+	public CatalogDiff(List<Course> added, List<Course> removed, List<Course> changed) {
+		this.added = Collections.unmodifiableList(added);
+		this.removed = Collections.unmodifiableList(removed);
+		this.changed = Collections.unmodifiableList(changed);
+	}
+	
+	/**
+	 * Gets the sections that were added
+	 * @return the added sections
+	 */
+	public List<Course> getAdded() {
+		return added;
+	}
+	
+	/**
+	 * Gets the sections that were removed
+	 * @return the removed sections, as they were in the old catalog
+	 */
+	public List<Course> getRemoved() {
+		return removed;
+	}
+	
+	/**
+	 * Gets the sections that changed
+	 * @return the changed sections, as they are in the new catalog
+	 */
+	public List<Course> getChanged() {
+		return changed;
+	}
+	
+	/**
+	 * Checks if the two catalogs had the same sections
+	 * @return true if nothing was added, removed, or changed
+	 */
+	public boolean isEmpty() {
+		return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+	}
+
+}
@@ -0,0 +1,227 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Indexes for searching the sections of a catalog by name prefix and by words of the
+ * title, worked out once when the catalog is built. Sections are numbered by their
+ * position in the catalog.
+ *
+ * Names are kept upper cased in a sorted array, so the sections whose name starts with a
+ * prefix are a run of the array found with one binary search.
+ *
+ * Titles are split into lower cased words of letters and digits, and each word maps to a
+ * posting list of the sections whose title has it. The lists hold ranks rather than
+ * positions, where sections are ranked by how few words their title has and then by
+ * catalog order, so a title made mostly of the words asked for comes first. A search for
+ * several words walks the shortest list and looks for each of its ranks in the others with
+ * a galloping search, and since every list is in rank order it can stop as soon as it has
+ * found as many sections as were asked for.
+ *
+ * @author William Krajcovic
+ *
+ */
+class CatalogSearchIndex {
+
+	/** The sections in catalog order */
+	private final List<Course> sections;
+	/** Upper cased name of each section, sorted by name and then by section */
+	private final String[] sortedNames;
+	/** Position of the section at each index of sortedNames */
+	private final int[] namePositions;
+	/** Ranks of the sections whose title has each word, sorted */
+	private final HashMap<String, int[]> postings;
+	/** Position of the section with each rank */
+	private final int[] rankPositions;
+
+	/**
+	 * Builds the indexes of the given sections
+	 * @param sections the sections in catalog order
+	 */
+	CatalogSearchIndex(List<Course> sections) {
+		this.sections = sections;
+		int n = sections.size();
+
+		//Sort the sections by name and then by section, keeping catalog order for ties
+		String[] names = new String[n];
+		Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++)	{
+			names[i] = sections.get(i).getName().toUpperCase(Locale.ROOT);
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.<Integer, String>comparing(i -> names[i])
+				.thenComparing(i -> sections.get(i).getSection()));
+		sortedNames = new String[n];
+		namePositions = new int[n];
+		for (int i = 0; i < n; i++)	{
+			namePositions[i] = order[i];
+			sortedNames[i] = names[order[i]];
+		}
+
+		//Rank the sections by the number of words in the title with a counting sort
+		String[][] words = new String[n][];
+		int maxWords = 0;
+		for (int i = 0; i < n; i++)	{
+			words[i] = words(sections.get(i).getTitle());
+			maxWords = Math.max(maxWords, words[i].length);
+		}
+		int[] rankStart = new int[maxWords + 2];
+		for (int i = 0; i < n; i++)	{
+			rankStart[words[i].length + 1]++;
+		}
+		for (int w = 1; w < rankStart.length; w++)	{
+			rankStart[w] += rankStart[w - 1];
+		}
+		rankPositions = new int[n];
+		for (int i = 0; i < n; i++)	{
+			rankPositions[rankStart[words[i].length]++] = i;
+		}
+
+		//Ranks are visited in order, so each posting list comes out sorted
+		HashMap<String, int[]> lists = new HashMap<String, int[]>();
+		HashMap<String, Integer> listSize = new HashMap<String, Integer>();
+		for (int rank = 0; rank < n; rank++)	{
+			for (String word : words[rankPositions[rank]])	{
+				int[] list = lists.get(word);
+				int size = list == null ? 0 : listSize.get(word);
+				if (list == null || size == list.length)	{
+					list = list == null ? new int[2] : Arrays.copyOf(list, size * 2);
+					lists.put(word, list);
+				}
+				list[size] = rank;
+				listSize.put(word, size + 1);
+			}
+		}
+		postings = new HashMap<String, int[]>(lists.size() * 2);
+		for (String word : lists.keySet())	{
+			postings.put(word, Arrays.copyOf(lists.get(word), listSize.get(word)));
+		}
+	}
+
+	/**
+	 * Splits text into its distinct lower cased words of letters and digits
+	 * @param text the text to split
+	 * @return the words, in the order they first appear
+	 */
+	static String[] words(String text) {
+		LinkedHashSet<String> words = new LinkedHashSet<String>();
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++)	{
+			boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (wordChar && start < 0)	{
+				start = i;
+			} else if (!wordChar && start >= 0)	{
+				words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+				start = -1;
+			}
+		}
+		return words.toArray(new String[words.size()]);
+	}
+
+	/**
+	 * Finds the sections whose name starts with a prefix, ignoring case
+	 * @param prefix the start of the name
+	 * @param limit the most sections to find
+	 * @return the sections sorted by name and then by section
+	 */
+	List<Course> findByNamePrefix(String prefix, int limit) {
+		String key = prefix.toUpperCase(Locale.ROOT);
+		ArrayList<Course> found = new ArrayList<Course>();
+
+		//Find the first name that is not less than the prefix
+		int low = 0;
+		int high = sortedNames.length;
+		while (low < high)	{
+			int mid = (low + high) >>> 1;
+			if (sortedNames[mid].compareTo(key) < 0)	{
+				low = mid + 1;
+			} else	{
+				high = mid;
+			}
+		}
+		for (int i = low; i < sortedNames.length && found.size() < limit && sortedNames[i].startsWith(key); i++)	{
+			found.add(sections.get(namePositions[i]));
+		}
+		return found;
+	}
+
+	/**
+	 * Finds the sections whose title has every word of a query, ignoring case
+	 * @param query the words to find
+	 * @param limit the most sections to find
+	 * @return the sections ranked by how few words their title has and then by catalog
+	 * order, which is empty if the query has no words
+	 */
+	List<Course> findByTitle(String query, int limit) {
+		ArrayList<Course> found = new ArrayList<Course>();
+		String[] words = words(query);
+		if (words.length == 0)	{
+			return found;
+		}
+		int[][] lists = new int[words.length][];
+		for (int w = 0; w < words.length; w++)	{
+			lists[w] = postings.get(words[w]);
+			if (lists[w] == null)	{
+				return found;
+			}
+		}
+		Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+
+		//Where each of the other lists has been searched up to
+		int[] from = new int[lists.length];
+		for (int i = 0; i < lists[0].length && found.size() < limit; i++)	{
+			int rank = lists[0][i];
+			boolean inAll = true;
+			for (int w = 1; w < lists.length && inAll; w++)	{
+				from[w] = gallop(lists[w], from[w], rank);
+				if (from[w] == lists[w].length)	{
+					return found;
+				}
+				inAll = lists[w][from[w]] == rank;
+			}
+			if (inAll)	{
+				found.add(sections.get(rankPositions[rank]));
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Finds the first index of a sorted list, at or after from, holding a value that is not
+	 * less than the target. The step doubles until it passes the target, so finding a
+	 * value d places ahead takes O(log d) steps however long the list is.
+	 * @param list the sorted list
+	 * @param from the index to search from
+	 * @param target the value to find
+	 * @return the index, or the length of the list if every value from there is less
+	 */
+	private static int gallop(int[] list, int from, int target) {
+		int step = 1;
+		int low = from;
+		int high = from;
+		while (high < list.length && list[high] < target)	{
+			low = high + 1;
+			high = from + step;
+			step *= 2;
+		}
+		high = Math.min(high, list.length);
+		while (low < high)	{
+			int mid = (low + high) >>> 1;
+			if (list[mid] < target)	{
+				low = mid + 1;
+			} else	{
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+}
@@ -0,0 +1,155 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Watches a catalog file and reloads the WolfScheduler's catalog when the file
+ * changes. The watch runs on its own daemon thread, and the reload swaps in a
+ * whole new catalog so readers of the old catalog are never blocked.
+ * 
+ * A file that is still being written would load as a catalog missing its last
+ * sections, so the reload waits until the file's modified time and length have
+ * stayed the same for SETTLE_MILLIS. A reload that fails is tried again, up to
+ * RELOAD_ATTEMPTS times.
+ * 
+ * @author William Krajcovic
+ *
+ */
+class CatalogWatcher implements Runnable {
+	
+	/** Milliseconds the file must go unchanged before it is reloaded */
+	static final long SETTLE_MILLIS = 100;
+	/** Most times a reload is tried for one change to the file */
+	static final int RELOAD_ATTEMPTS = 3;
+	
+	/** The scheduler whose catalog is reloaded */
+	private final WolfScheduler scheduler;
+	/** The catalog file being watched */
+	private final File file;
+	/** The watch service for the catalog file's directory */
+	private final WatchService watchService;
+	/** Last modified time of the file when it was last loaded */
+	private long lastModified;
+	/** Length of the file when it was last loaded */
+	private long lastLength;
+	/** Whether the watch has been stopped */
+	private volatile boolean stopped;
+	
+	/**
+	 * Creates a watcher for the given catalog file and starts watching it.
+	 * @param scheduler the scheduler whose catalog is reloaded
+	 * @param fileName the catalog file to watch
+	 * @throws IOException if the file's directory cannot be watched
+	 */
+	CatalogWatcher(WolfScheduler scheduler, String fileName) throws IOException {
+		this.scheduler = scheduler;
+		this.file = new File(fileName).getAbsoluteFile();
+		this.lastModified = file.lastModified();
+		this.lastLength = file.length();
+		this.watchService = FileSystems.getDefault().newWatchService();
+		file.getParentFile().toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_MODIFY);
+		
+		Thread thread = new Thread(this, "CatalogWatcher-" + file.getName());
+		thread.setDaemon(true);
+		thread.start();
+	}
+	
+	/**
+	 * Waits for changes to the catalog file and reloads the catalog once the file has
+	 * settled, if its modified time or length is different from when it was last loaded.
+	 */
+	@Override
+	public void run() {
+		try	{
+			while (true)	{
+				WatchKey key = watchService.take();
+				boolean touched = false;
+				for (WatchEvent<?> event : key.pollEvents())	{
+					if (event.context() instanceof Path && file.getName().equals(event.context().toString()))	{
+						touched = true;
+					}
+				}
+				key.reset();
+				if (touched)	{
+					reload();
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e)	{
+			//Watch stopped
+		}
+	}
+	
+	/**
+	 * Reloads the catalog once the file has settled, trying again if the reload fails.
+	 * If every attempt fails the current catalog is kept, and the next change to the
+	 * file tries again.
+	 * @throws InterruptedException if the wait for the file to settle is interrupted
+	 */
+	private void reload() throws InterruptedException {
+		for (int attempt = 0; attempt < RELOAD_ATTEMPTS; attempt++)	{
+			waitUntilSettled();
+			if (stopped || !changed())	{
+				return;
+			}
+			try	{
+				scheduler.reloadCatalog();
+				return;
+			} catch (IllegalArgumentException e)	{
+				//The file is missing or unreadable for now, so it counts as changed next time
+				lastModified = -1;
+			}
+		}
+	}
+	
+	/**
+	 * Waits until the file's modified time and length stay the same for SETTLE_MILLIS
+	 * @throws InterruptedException if the wait is interrupted
+	 */
+	private void waitUntilSettled() throws InterruptedException {
+		long modified;
+		long length;
+		do	{
+			modified = file.lastModified();
+			length = file.length();
+			Thread.sleep(SETTLE_MILLIS);
+		} while (!stopped && (modified != file.lastModified() || length != file.length()));
+	}
+	
+	/**
+	 * Checks whether the file is different from when it was last loaded, and
+	 * remembers its current modified time and length if so.
+	 * @return true if the file changed
+	 */
+	private boolean changed() {
+		long modified = file.lastModified();
+		long length = file.length();
+		if (modified == lastModified && length == lastLength)	{
+			return false;
+		}
+		lastModified = modified;
+		lastLength = length;
+		return true;
+	}
+	
+	/**
+	 * Stops watching the catalog file
+	 */
+	void stop() {
+		stopped = true;
+		try	{
+			watchService.close();
+		} catch (IOException e)	{
+			//Already closed
+		}
+	}
+
+}
@@ -0,0 +1,252 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CatalogSnapshotIO;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+
+/**
+ * An immutable catalog of Courses with an index by name and section. Since a
+ * CourseCatalog never changes once it is built, it can be read from any thread
+ * and replaced as a whole when the catalog file is reloaded.
+ * 
+ * @author William Krajcovic
+ *
+ */
+public class CourseCatalog {
+	
+	/** The Courses in catalog order */
+	private final List<Course> courses;
+	
+	/** Index of the catalog by course name and then by section, with sections in catalog order */
+	private final HashMap<String, HashMap<String, Course>> index;
+	
+	/** Indexes of the catalog by name prefix and by title words */
+	private final CatalogSearchIndex searchIndex;
+	
+	/** Which sections of the catalog conflict, worked out by the first schedule search */
+	private volatile SectionConflicts sectionConflicts;
+	
+	/**
+	 * Creates a catalog of the given Courses. If more than one Course has the same
+	 * name and section the first one is used for lookups. The indexes for searching the
+	 * catalog are worked out here, once, so reading a catalog or reloading it builds them
+	 * and searches only read them.
+	 * @param courses the Courses in the catalog, in catalog order
+	 */
+	public CourseCatalog(List<Course> courses) {
+		this.courses = Collections.unmodifiableList(new ArrayList<Course>(courses));
+		this.index = new HashMap<String, HashMap<String, Course>>();
+		for (int i = 0; i < this.courses.size(); i++)	{
+			Course c = this.courses.get(i);
+			HashMap<String, Course> sections = index.get(c.getName());
+			if (sections == null)	{
+				sections = new LinkedHashMap<String, Course>();
+				index.put(c.getName(), sections);
+			}
+			sections.putIfAbsent(c.getSection(), c);
+		}
+		this.searchIndex = new CatalogSearchIndex(this.courses);
+	}
+	
+	/**
+	 * Reads a catalog from either a course records file or a catalog snapshot.
+	 * @param fileName the file to read
+	 * @return the catalog in the file
+	 * @throws IllegalArgumentException if the file cannot be found or read
+	 */
+	public static CourseCatalog read(String fileName) {
+		try	{
+			if (CatalogSnapshotIO.isCatalogSnapshot(fileName))	{
+				return new CourseCatalog(CatalogSnapshotIO.readCatalogSnapshot(fileName));
+			}
+			return new CourseCatalog(CourseRecordIO.readCourseRecords(fileName));
+		} catch	(FileNotFoundException e)	{
+			throw new IllegalArgumentException("Cannot find file.");
+		} catch (IOException e)	{
+			throw new IllegalArgumentException("Cannot read file.");
+		}
+	}
+	
+	/**
+	 * Gets the number of Courses in the catalog
+	 * @return the number of Courses
+	 */
+	public int size() {
+		return courses.size();
+	}
+	
+	/**
+	 * Gets the Course at the given position in the catalog
+	 * @param idx the position of the Course
+	 * @return the Course at idx
+	 * @throws IndexOutOfBoundsException if idx is not in the catalog
+	 */
+	public Course get(int idx) {
+		return courses.get(idx);
+	}
+	
+	/**
+	 * Gets a read only view of the Courses in catalog order
+	 * @return the Courses in the catalog
+	 */
+	public List<Course> getCourses() {
+		return courses;
+	}
+	
+	/**
+	 * Finds the Course with the given name and section
+	 * @param name the name of the Course
+	 * @param section the section of the Course
+	 * @return the Course, or null if there is no such Course
+	 */
+	public Course getCourse(String name, String section) {
+		HashMap<String, Course> sections = index.get(name);
+		if (sections == null)	{
+			return null;
+		}
+		return sections.get(section);
+	}
+	
+	/**
+	 * Gets which sections of the catalog conflict. The conflicts are worked out the first
+	 * time they are needed and then shared by every search over this catalog, so a catalog
+	 * that is never searched for schedules never builds them.
+	 * @return the conflicts between the sections of the catalog
+	 */
+	SectionConflicts getSectionConflicts() {
+		SectionConflicts conflicts = sectionConflicts;
+		if (conflicts == null)	{
+			synchronized (this)	{
+				conflicts = sectionConflicts;
+				if (conflicts == null)	{
+					conflicts = new SectionConflicts(courses);
+					sectionConflicts = conflicts;
+				}
+			}
+		}
+		return conflicts;
+	}
+	
+	/**
+	 * Gets every section of the course with the given name
+	 * @param name the name of the Course
+	 * @return the sections in catalog order, which is empty if there is no such Course
+	 */
+	public List<Course> getSections(String name) {
+		HashMap<String, Course> sections = index.get(name);
+		if (sections == null)	{
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(new ArrayList<Course>(sections.values()));
+	}
+	
+	/**
+	 * Finds the Courses whose name starts with a prefix, such as "CSC 2", ignoring case
+	 * @param prefix the start of the name
+	 * @param limit the most Courses to find
+	 * @return the Courses sorted by name and then by section
+	 * @throws IllegalArgumentException if prefix is null or limit is negative
+	 */
+	public List<Course> findByNamePrefix(String prefix, int limit) {
+		checkSearch(prefix, limit);
+		return Collections.unmodifiableList(searchIndex.findByNamePrefix(prefix, limit));
+	}
+	
+	/**
+	 * Finds the Courses whose title has every word of a query, ignoring case and in any
+	 * order. Words are runs of letters and digits.
+	 * @param query the words to find
+	 * @param limit the most Courses to find
+	 * @return the Courses ranked with the titles that have the fewest other words first,
+	 * and then in catalog order
+	 * @throws IllegalArgumentException if query is null or limit is negative
+	 */
+	public List<Course> findByTitle(String query, int limit) {
+		checkSearch(query, limit);
+		return Collections.unmodifiableList(searchIndex.findByTitle(query, limit));
+	}
+	
+	/**
+	 * Searches the catalog by name and by title. Courses whose name starts with the
+	 * query are ranked first, as in findByNamePrefix, followed by the other Courses whose
+	 * title has every word of the query, as in findByTitle.
+	 * @param query the name prefix or title words to find
+	 * @param limit the most Courses to find
+	 * @return the Courses found, in rank order, which is empty if the query is blank
+	 * @throws IllegalArgumentException if query is null or limit is negative
+	 */
+	public List<Course> search(String query, int limit) {
+		checkSearch(query, limit);
+		String trimmed = query.trim();
+		if (trimmed.isEmpty())	{
+			return Collections.emptyList();
+		}
+		List<Course> found = searchIndex.findByNamePrefix(trimmed, limit);
+		if (found.size() < limit)	{
+			//Asking for limit by title is enough even if every Course found by name is skipped
+			IdentityHashMap<Course, Boolean> seen = new IdentityHashMap<Course, Boolean>();
+			for (Course c : found)	{
+				seen.put(c, Boolean.TRUE);
+			}
+			for (Course c : searchIndex.findByTitle(trimmed, limit))	{
+				if (found.size() < limit && !seen.containsKey(c))	{
+					found.add(c);
+				}
+			}
+		}
+		return Collections.unmodifiableList(found);
+	}
+	
+	/**
+	 * Checks the arguments of a search
+	 * @param query the query
+	 * @param limit the most Courses to find
+	 * @throws IllegalArgumentException if query is null or limit is negative
+	 */
+	private static void checkSearch(String query, int limit) {
+		if (query == null || limit < 0)	{
+			throw new IllegalArgumentException("Invalid search.");
+		}
+	}
+	
+	/**
+	 * Compares this catalog to a newer one by name and section.
+	 * @param newer the catalog that is replacing this one
+	 * @return the sections added, removed, and changed in the newer catalog
+	 */
+	public CatalogDiff diff(CourseCatalog newer) {
+		ArrayList<Course> added = new ArrayList<Course>();
+		ArrayList<Course> removed = new ArrayList<Course>();
+		ArrayList<Course> changed = new ArrayList<Course>();
+		
+		for (int i = 0; i < newer.size(); i++)	{
+			Course c = newer.get(i);
+			if (newer.getCourse(c.getName(), c.getSection()) != c)	{
+				continue;
+			}
+			Course old = getCourse(c.getName(), c.getSection());
+			if (old == null)	{
+				added.add(c);
+			} else if (!old.equals(c))	{
+				changed.add(c);
+			}
+		}
+		for (int i = 0; i < size(); i++)	{
+			Course c = get(i);
+			if (getCourse(c.getName(), c.getSection()) == c && newer.getCourse(c.getName(), c.getSection()) == null)	{
+				removed.add(c);
+			}
+		}
+		return new CatalogDiff(added, removed, changed);
+	}
+
+}
@@ -0,0 +1,287 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Generates every conflict free combination of one section from each of a list of courses.
+ * 
+ * The search backtracks over the courses, placing the course with the fewest sections
+ * first so dead ends are found as early as possible, and checks each section against the
+ * sections already placed with the SectionConflicts of the catalog, which is worked out
+ * once and shared by every search, so each check is a lookup in its matrix of meeting
+ * slots rather than a comparison of meeting times. The search is a Spliterator, so
+ * schedules are produced one at a time as the stream is consumed, and a parallel stream
+ * splits the search tree into independent subtrees on the fork join pool.
+ * 
+ * @author William Krajcovic
+ *
+ */
+class ScheduleGenerator implements Spliterator<List<Course>> {
+	
+	/** Every section of the requested courses, numbered by position */
+	private final List<Course> pool;
+	/** Which sections of the catalog conflict */
+	private final SectionConflicts conflicts;
+	/** Slot number of each section of the pool */
+	private final int[] slots;
+	/** Pool numbers of the sections of each course, with the courses in search order */
+	private final int[][] sections;
+	/** For each course in search order, its position in the requested list of courses */
+	private final int[] resultPosition;
+	/** Number of leading courses whose section is fixed for this part of the search */
+	private int fixed;
+	/** First section of course fixed that this part of the search covers */
+	private int lo;
+	/** One past the last section of course fixed that this part of the search covers */
+	private int hi;
+	/** Pool number of the section placed for each course in search order */
+	private final int[] chosen;
+	/** For each course in search order, the next of its sections to try */
+	private final int[] next;
+	/** The number of courses placed so far */
+	private int depth;
+	/** Slot number of the section placed for each course in search order */
+	private final int[] placedSlots;
+	/** True once the search has produced a schedule, after which it cannot be split */
+	private boolean started;
+	/** True once the search has no more schedules */
+	private boolean done;
+	
+	/**
+	 * Creates a search over all of the given courses
+	 * @param pool every section of the requested courses
+	 * @param conflicts which sections of the catalog conflict
+	 * @param slots slot number of each section of the pool
+	 * @param sections pool numbers of the sections of each course, with the courses in
+	 * search order
+	 * @param resultPosition for each course in search order, its position in the results
+	 */
+	private ScheduleGenerator(List<Course> pool, SectionConflicts conflicts, int[] slots, int[][] sections,
+			int[] resultPosition) {
+		this.pool = pool;
+		this.conflicts = conflicts;
+		this.slots = slots;
+		this.sections = sections;
+		this.resultPosition = resultPosition;
+		this.chosen = new int[sections.length];
+		this.next = new int[sections.length];
+		this.placedSlots = new int[sections.length];
+		this.fixed = 0;
+		this.lo = 0;
+		this.hi = sections.length == 0 ? 1 : sections[0].length;
+		this.done = sections.length == 0;
+	}
+	
+	/**
+	 * Creates a search that covers the sections lo up to hi of course fixed, with the
+	 * given sections already placed for the courses before it.
+	 * @param parent the search being split
+	 * @param lo first section of course fixed to cover
+	 * @param hi one past the last section of course fixed to cover
+	 */
+	private ScheduleGenerator(ScheduleGenerator parent, int lo, int hi) {
+		this(parent.pool, parent.conflicts, parent.slots, parent.sections, parent.resultPosition);
+		this.fixed = parent.fixed;
+		this.lo = lo;
+		this.hi = hi;
+		for (int i = 0; i < fixed; i++)	{
+			chosen[i] = parent.chosen[i];
+			placedSlots[i] = parent.placedSlots[i];
+		}
+		this.done = false;
+	}
+	
+	/**
+	 * Creates a stream of every conflict free schedule with one section of each of the
+	 * named courses. Each schedule lists its sections in the same order as courseNames.
+	 * Repeated names are only scheduled once. If no names are given or a name has no
+	 * sections in the catalog there are no schedules.
+	 * @param catalog the catalog to take sections from
+	 * @param courseNames the names of the courses to schedule
+	 * @return a lazy parallel stream of the schedules
+	 */
+	static Stream<List<Course>> generate(CourseCatalog catalog, List<String> courseNames) {
+		ArrayList<String> names = new ArrayList<String>(new LinkedHashSet<String>(courseNames));
+		int[] resultPosition = new int[names.size()];
+		ArrayList<Course> pool = new ArrayList<Course>();
+		int[][] sections = sectionsInSearchOrder(catalog, names, resultPosition, pool);
+		SectionConflicts conflicts = catalog.getSectionConflicts();
+		return StreamSupport.stream(
+				new ScheduleGenerator(pool, conflicts, conflicts.slots(pool), sections, resultPosition), true);
+	}
+	
+	/**
+	 * Gets the sections of each course, ordering the courses so the course with the fewest
+	 * sections is searched first. The sections are added to a pool and numbered by their
+	 * position in it.
+	 * @param catalog the catalog to take sections from
+	 * @param names the names of the courses, without repeats
+	 * @param resultPosition filled with the position in names of each course in search order
+	 * @param pool filled with every section of the courses, in search order
+	 * @return the pool numbers of the sections of each course, with the courses in search
+	 * order
+	 */
+	static int[][] sectionsInSearchOrder(CourseCatalog catalog, List<String> names, int[] resultPosition,
+			List<Course> pool) {
+		Integer[] order = new Integer[names.size()];
+		for (int i = 0; i < order.length; i++)	{
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingInt((Integer i) -> catalog.getSections(names.get(i)).size()));
+		
+		int[][] sections = new int[order.length][];
+		for (int i = 0; i < order.length; i++)	{
+			List<Course> courseSections = catalog.getSections(names.get(order[i]));
+			sections[i] = new int[courseSections.size()];
+			for (int j = 0; j < sections[i].length; j++)	{
+				sections[i][j] = pool.size();
+				pool.add(courseSections.get(j));
+			}
+			resultPosition[i] = order[i];
+		}
+		return sections;
+	}
+	
+	/**
+	 * Finds the next schedule in this part of the search and passes it to action
+	 * @param action receives the schedule
+	 * @return true if there was another schedule
+	 */
+	@Override
+	public boolean tryAdvance(Consumer<? super List<Course>> action) {
+		if (done)	{
+			return false;
+		}
+		if (!started)	{
+			started = true;
+			depth = fixed;
+			next[fixed] = lo;
+		} else	{
+			//Move past the schedule that was produced last time
+			depth--;
+		}
+		
+		while (depth >= fixed)	{
+			int limit = depth == fixed ? hi : sections[depth].length;
+			boolean placed = false;
+			while (next[depth] < limit)	{
+				int c = sections[depth][next[depth]++];
+				if (!conflicts.conflictsWithAny(placedSlots, depth, slots[c]))	{
+					chosen[depth] = c;
+					placedSlots[depth] = slots[c];
+					placed = true;
+					break;
+				}
+			}
+			
+			if (placed)	{
+				depth++;
+				if (depth == sections.length)	{
+					action.accept(toSchedule());
+					return true;
+				}
+				next[depth] = 0;
+			} else	{
+				depth--;
+			}
+		}
+		done = true;
+		return false;
+	}
+	
+	/**
+	 * Splits off the first half of the remaining sections of the first course that is
+	 * not fixed. If only one section is left, that section is fixed and the next course
+	 * is split instead.
+	 * @return a search over the split off schedules, or null if this search cannot be split
+	 */
+	@Override
+	public ScheduleGenerator trySplit() {
+		if (started || done)	{
+			return null;
+		}
+		while (hi - lo == 1 && fixed < sections.length - 1)	{
+			int c = sections[fixed][lo];
+			if (conflicts.conflictsWithAny(placedSlots, fixed, slots[c]))	{
+				done = true;
+				return null;
+			}
+			chosen[fixed] = c;
+			placedSlots[fixed] = slots[c];
+			fixed++;
+			lo = 0;
+			hi = sections[fixed].length;
+		}
+		if (hi - lo < 2)	{
+			return null;
+		}
+		int mid = (lo + hi) >>> 1;
+		ScheduleGenerator prefix = new ScheduleGenerator(this, lo, mid);
+		lo = mid;
+		return prefix;
+	}
+	
+	/**
+	 * Estimates the number of schedules left as the number of combinations of the
+	 * remaining sections, ignoring conflicts
+	 * @return the estimated number of schedules
+	 */
+	@Override
+	public long estimateSize() {
+		if (done)	{
+			return 0;
+		}
+		long size = hi - lo;
+		for (int i = fixed + 1; i < sections.length && size < Long.MAX_VALUE; i++)	{
+			size = sections[i].length == 0 ? 0 : multiplyCapped(size, sections[i].length);
+		}
+		return size;
+	}
+	
+	/**
+	 * Describes the stream of schedules. Schedules come out in search order, are never
+	 * null, and no two are the same.
+	 * @return the spliterator characteristics
+	 */
+	@Override
+	public int characteristics() {
+		return ORDERED | DISTINCT | NONNULL | IMMUTABLE;
+	}
+	
+	/**
+	 * Creates the schedule of the placed sections, listed in requested order
+	 * @return the schedule
+	 */
+	private List<Course> toSchedule() {
+		Course[] schedule = new Course[chosen.length];
+		for (int i = 0; i < chosen.length; i++)	{
+			schedule[resultPosition[i]] = pool.get(chosen[i]);
+		}
+		return Collections.unmodifiableList(Arrays.asList(schedule));
+	}
+	
+	/**
+	 * Multiplies two non negative numbers, giving Long.MAX_VALUE if the product is too big
+	 * @param a the first number
+	 * @param b the second number
+	 * @return the product, capped at Long.MAX_VALUE
+	 */
+	private static long multiplyCapped(long a, long b) {
+		if (a != 0 && b > Long.MAX_VALUE / a)	{
+			return Long.MAX_VALUE;
+		}
+		return a * b;
+	}
+
+}
@@ -0,0 +1,59 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * Hears about each change to a WolfScheduler's schedule, title, and catalog, so that a
+ * view of them can be kept up to date one row at a time instead of being rebuilt from
+ * getScheduledActivities or getCourseCatalog after every change.
+ *
+ * Schedule and title changes are heard on the thread that made them, after the change
+ * is made. Catalog reloads are heard on the thread that reloaded the catalog, which is
+ * the watcher's thread if the catalog is being watched. Listeners should be quick and
+ * should not throw.
+ *
+ * @author William Krajcovic
+ *
+ */
+public interface ScheduleListener {
+
+	/**
+	 * Called when an activity is added to the schedule
+	 * @param idx the index the activity was added at
+	 * @param activity the activity
+	 */
+	void activityInserted(int idx, Activity activity);
+
+	/**
+	 * Called when an activity is removed from the schedule
+	 * @param idx the index the activity was at
+	 * @param activity the activity
+	 */
+	void activityRemoved(int idx, Activity activity);
+
+	/**
+	 * Called when the whole schedule is replaced, as by resetSchedule, importSchedule,
+	 * undo, and redo
+	 * @param schedule the new schedule, which is a read only list that never changes
+	 */
+	void scheduleReplaced(List<Activity> schedule);
+
+	/**
+	 * Called when the title of the schedule changes. Does nothing by default.
+	 * @param title the new title
+	 */
+	default void titleChanged(String title) {
+		//Not every listener shows the title
+	}
+
+	/**
+	 * Called when the catalog is reloaded. Does nothing by default.
+	 * @param diff the sections added, removed, and changed by the reload
+	 */
+	default void catalogReloaded(CatalogDiff diff) {
+		//Not every listener shows the catalog
+	}
+
+}
@@ -0,0 +1,780 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * An append only log of the changes made to any number of schedules, so that schedules
+ * survive a crash without being exported after every change. A WolfScheduler attached to
+ * the log writes each change to the log, and waits for it to reach the disk, before making
+ * the change. Opening the log again replays it, and attach gives a schedule back its
+ * logged activities and title.
+ *
+ * Changes from many schedules share one file with group commit. While one thread forces
+ * its changes to disk, changes from every other thread gather in memory, and the next
+ * thread to wait writes and forces all of them at once, so one force covers as many
+ * changes as arrived while the last one ran.
+ *
+ * The log also keeps the current state of each schedule. Once enough changes have been
+ * logged since the last checkpoint, the log is compacted by writing that state to a new
+ * file and renaming it over the log, so the log grows with the size of the schedules
+ * rather than the number of changes. Each record carries a checksum, and a record that
+ * was only partly written when the program stopped, along with anything after it, is
+ * dropped when the log is opened. A whole record that cannot be applied, such as a
+ * removal past the end of its schedule, is skipped and counted instead, so the records
+ * after it are kept.
+ *
+ * @author William Krajcovic
+ *
+ */
+public class ScheduleLog implements Closeable {
+
+	/** Changes logged between checkpoints when no interval is given */
+	public static final int DEFAULT_CHECKPOINT_INTERVAL = 100000;
+
+	/** Record of setting the title of a schedule */
+	static final char TITLE = 'T';
+	/** Record of adding an activity to the end of a schedule */
+	static final char ADD = 'A';
+	/** Record of removing the activity at an index of a schedule */
+	static final char REMOVE = 'R';
+	/** Record of removing every activity from a schedule */
+	static final char RESET = 'X';
+	/** Record of replacing every activity in a schedule */
+	static final char SCHEDULE = 'S';
+	/** Record of dropping a schedule from the log */
+	static final char CLOSE = 'D';
+
+	/** First field of the record of a logged Course */
+	private static final String COURSE_RECORD = "C";
+	/** First field of the record of a logged Event */
+	private static final String EVENT_RECORD = "E";
+	/** Number of fields in the record of a logged Course */
+	private static final int COURSE_FIELDS = 9;
+	/** Number of fields in the record of a logged Event */
+	private static final int EVENT_FIELDS = 6;
+	/** Separates the fields of the record of a logged activity */
+	private static final char FIELD_SEPARATOR = ',';
+
+	/** Size of the buffer the log is read through */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/** The log file */
+	private final Path path;
+
+	/** Changes logged between checkpoints, or 0 to only checkpoint when asked */
+	private final int checkpointInterval;
+
+	/** Guards every field below except channel */
+	private final Object lock;
+
+	/** The logged state of each schedule by id */
+	private final LinkedHashMap<String, LoggedSchedule> schedules;
+
+	/** Records that have been logged but not written yet */
+	private ByteArrayOutputStream pending;
+
+	/** The number of records logged since the log was opened */
+	private long appended;
+
+	/** The number of records logged since the log was opened that are on disk */
+	private long durable;
+
+	/** The number of records logged since the last checkpoint */
+	private long sinceCheckpoint;
+
+	/** The number of whole records skipped when the log was replayed because they could not be applied */
+	private long skipped;
+
+	/** Whether a thread is writing to the log file. Only that thread uses channel */
+	private boolean flushing;
+
+	/** Whether the log has been closed */
+	private boolean closed;
+
+	/** The error that stopped the log from being written, or null if none has */
+	private IOException failure;
+
+	/** The open log file, used only by the thread that is flushing */
+	private FileChannel channel;
+
+	/**
+	 * The logged title and activity records of one schedule
+	 */
+	private static class LoggedSchedule {
+		/** The title, or null if it has not been logged */
+		private String title;
+		/** The records of the activities in the schedule, in schedule order */
+		private final ArrayList<String> records = new ArrayList<String>();
+	}
+
+	/**
+	 * Opens a log file, creating it if it does not exist and replaying it if it does,
+	 * with the default checkpoint interval
+	 * @param fileName the log file
+	 * @throws IOException if the log file cannot be read or opened
+	 */
+	public ScheduleLog(String fileName) throws IOException {
+		this(fileName, DEFAULT_CHECKPOINT_INTERVAL);
+	}
+
+	/**
+	 * Opens a log file, creating it if it does not exist and replaying it if it does
+	 * @param fileName the log file
+	 * @param checkpointInterval the number of changes to log between checkpoints, or 0
+	 * to only checkpoint when checkpoint is called
+	 * @throws IOException if the log file cannot be read or opened
+	 * @throws IllegalArgumentException if checkpointInterval is negative
+	 */
+	public ScheduleLog(String fileName, int checkpointInterval) throws IOException {
+		if (checkpointInterval < 0)	{
+			throw new IllegalArgumentException("Invalid checkpoint interval.");
+		}
+		this.path = Paths.get(fileName).toAbsolutePath();
+		this.checkpointInterval = checkpointInterval;
+		this.lock = new Object();
+		this.schedules = new LinkedHashMap<String, LoggedSchedule>();
+		this.pending = new ByteArrayOutputStream();
+
+		boolean existed = Files.exists(path);
+		long validLength = existed ? replay() : 0;
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		if (!existed)	{
+			forceDirectory(path.getParent());
+		}
+		if (channel.size() > validLength)	{
+			channel.truncate(validLength);
+			channel.force(false);
+		}
+		channel.position(validLength);
+	}
+
+	/**
+	 * Gets the ids of the schedules in the log, in the order they were first logged
+	 * @return the ids of the logged schedules
+	 */
+	public Set<String> getScheduleIds() {
+		synchronized (lock)	{
+			return new LinkedHashSet<String>(schedules.keySet());
+		}
+	}
+
+	/**
+	 * Gets the number of records that were skipped when the log was opened because they
+	 * were whole but could not be applied to their schedule
+	 * @return the number of skipped records
+	 */
+	public long getSkippedRecords() {
+		synchronized (lock)	{
+			return skipped;
+		}
+	}
+
+	/**
+	 * Attaches a schedule to the log so that its changes are logged from now on. If the
+	 * log has a schedule with the given id, its activities and title replace the
+	 * schedule's. Otherwise the schedule's current activities and title are logged.
+	 * @param scheduleId the id of the schedule in the log
+	 * @param scheduler the schedule to attach
+	 * @throws IOException if the schedule cannot be logged
+	 * @throws IllegalArgumentException if scheduleId is null, a logged activity cannot be
+	 * read, or the logged schedule cannot be restored because it has duplicates or
+	 * conflicts or a section is full
+	 */
+	public void attach(String scheduleId, WolfScheduler scheduler) throws IOException {
+		if (scheduleId == null)	{
+			throw new IllegalArgumentException("Invalid schedule id.");
+		}
+		String title = null;
+		ArrayList<String> records = null;
+		synchronized (lock)	{
+			LoggedSchedule logged = schedules.get(scheduleId);
+			if (logged != null)	{
+				title = logged.title;
+				records = new ArrayList<String>(logged.records);
+			}
+		}
+
+		if (records != null)	{
+			ArrayList<Activity> activities = new ArrayList<Activity>(records.size());
+			for (String record : records)	{
+				activities.add(readRecord(record));
+			}
+			scheduler.restoreSchedule(title, activities);
+		} else	{
+			List<Activity> activities = scheduler.getScheduleSnapshot();
+			String[] current = new String[activities.size()];
+			int i = 0;
+			for (Activity a : activities)	{
+				current[i++] = record(a);
+			}
+			append(scheduleId, SCHEDULE, current);
+			append(scheduleId, TITLE, scheduler.getScheduleTitle());
+		}
+		scheduler.setLog(this, scheduleId);
+	}
+
+	/**
+	 * Logs a change to a schedule and waits until it is on disk. Dropping a schedule that
+	 * is not in the log writes nothing.
+	 * @param scheduleId the id of the schedule in the log
+	 * @param op the kind of change, such as ADD
+	 * @param values the title, activity record, index, or records of the change
+	 * @throws IOException if the change cannot be written, or the log is closed
+	 */
+	void append(String scheduleId, char op, String... values) throws IOException {
+		byte[] line = encode(scheduleId, op, values);
+		long seq;
+		synchronized (lock)	{
+			checkOpen();
+			if (op == CLOSE && !schedules.containsKey(scheduleId))	{
+				return;
+			}
+			apply(scheduleId, op, values);
+			pending.write(line, 0, line.length);
+			seq = ++appended;
+			sinceCheckpoint++;
+		}
+		awaitDurable(seq);
+	}
+
+	/**
+	 * Compacts the log now, replacing it with one record for the title and one for the
+	 * activities of each schedule
+	 * @throws IOException if the checkpoint cannot be written, or the log is closed
+	 */
+	public void checkpoint() throws IOException {
+		synchronized (lock)	{
+			awaitTurn();
+			checkOpen();
+			flushing = true;
+		}
+		try	{
+			finishFlush(writeCheckpoint(), null);
+		} catch (IOException e)	{
+			finishFlush(0, e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes any changes that have not been written yet and closes the log file
+	 * @throws IOException if the changes cannot be written or the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		byte[] batch;
+		long upTo;
+		synchronized (lock)	{
+			awaitTurn();
+			if (closed)	{
+				return;
+			}
+			closed = true;
+			if (failure != null)	{
+				channel.close();
+				return;
+			}
+			flushing = true;
+			batch = pending.toByteArray();
+			pending.reset();
+			upTo = appended;
+		}
+		try	{
+			write(batch);
+			channel.force(false);
+			finishFlush(upTo, null);
+		} catch (IOException e)	{
+			finishFlush(0, e);
+			throw e;
+		} finally	{
+			channel.close();
+		}
+	}
+
+	/**
+	 * Waits until the record with the given sequence number is on disk. If no other
+	 * thread is writing, this thread writes every record that has been logged so far and
+	 * forces them to disk, checkpointing afterwards if it is time to.
+	 * @param seq the sequence number of the record
+	 * @throws IOException if the record cannot be written
+	 */
+	private void awaitDurable(long seq) throws IOException {
+		while (true)	{
+			byte[] batch;
+			long upTo;
+			boolean compact;
+			synchronized (lock)	{
+				while (durable < seq && failure == null && flushing)	{
+					waitOnLock();
+				}
+				if (durable >= seq)	{
+					return;
+				}
+				checkOpen();
+				flushing = true;
+				batch = pending.toByteArray();
+				pending.reset();
+				upTo = appended;
+				compact = checkpointInterval > 0 && sinceCheckpoint >= checkpointInterval;
+			}
+			try	{
+				write(batch);
+				channel.force(false);
+				if (compact)	{
+					upTo = Math.max(upTo, writeCheckpoint());
+				}
+				finishFlush(upTo, null);
+			} catch (IOException e)	{
+				finishFlush(0, e);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Writes the state of every schedule to a new file, renames it over the log, and
+	 * forces the directory so the rename survives a crash. The calling thread must be the
+	 * one flushing. Records that have been logged but not
+	 * written are covered by the checkpoint, so they are dropped.
+	 * @return the sequence number of the last record the checkpoint covers
+	 * @throws IOException if the checkpoint cannot be written
+	 */
+	private long writeCheckpoint() throws IOException {
+		ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+		long covered;
+		synchronized (lock)	{
+			for (Map.Entry<String, LoggedSchedule> entry : schedules.entrySet())	{
+				LoggedSchedule s = entry.getValue();
+				if (s.title != null)	{
+					byte[] line = encode(entry.getKey(), TITLE, s.title);
+					snapshot.write(line, 0, line.length);
+				}
+				byte[] line = encode(entry.getKey(), SCHEDULE, s.records.toArray(new String[s.records.size()]));
+				snapshot.write(line, 0, line.length);
+			}
+			covered = appended;
+			pending.reset();
+			sinceCheckpoint = 0;
+		}
+
+		Path temp = path.resolveSibling(path.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+		try	{
+			try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))	{
+				ByteBuffer buffer = ByteBuffer.wrap(snapshot.toByteArray());
+				while (buffer.hasRemaining())	{
+					out.write(buffer);
+				}
+				out.force(false);
+			}
+			try	{
+				Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e)	{
+				Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+			//Records forced into the new file are only safe once the rename itself is
+			forceDirectory(path.getParent());
+		} finally	{
+			Files.deleteIfExists(temp);
+		}
+		FileChannel old = channel;
+		channel = FileChannel.open(path, StandardOpenOption.WRITE);
+		channel.position(channel.size());
+		old.close();
+		return covered;
+	}
+
+	/**
+	 * Forces a directory to disk, so that a file created in it or renamed into it is
+	 * still there after a crash. Does nothing where a directory cannot be opened, as on
+	 * Windows.
+	 * @param dir the directory
+	 * @throws IOException if the directory cannot be forced
+	 */
+	private static void forceDirectory(Path dir) throws IOException {
+		FileChannel opened;
+		try	{
+			opened = FileChannel.open(dir, StandardOpenOption.READ);
+		} catch (IOException e)	{
+			return;
+		}
+		try (FileChannel channel = opened)	{
+			channel.force(true);
+		}
+	}
+
+	/**
+	 * Ends a write to the log file, waking every thread waiting on it
+	 * @param upTo the sequence number of the last record now on disk
+	 * @param error the error that stopped the write, or null if it succeeded
+	 */
+	private void finishFlush(long upTo, IOException error) {
+		synchronized (lock)	{
+			if (error != null)	{
+				failure = error;
+			} else	{
+				durable = Math.max(durable, upTo);
+			}
+			flushing = false;
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Waits until no thread is writing to the log file. Must hold lock.
+	 * @throws IOException if interrupted while waiting
+	 */
+	private void awaitTurn() throws IOException {
+		while (flushing)	{
+			waitOnLock();
+		}
+	}
+
+	/**
+	 * Waits to be woken by a thread finishing a write. Must hold lock.
+	 * @throws InterruptedIOException if interrupted while waiting
+	 */
+	private void waitOnLock() throws InterruptedIOException {
+		try	{
+			lock.wait();
+		} catch (InterruptedException e)	{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted waiting for the log.");
+		}
+	}
+
+	/**
+	 * Checks that the log can still be written to. Must hold lock.
+	 * @throws IOException if the log is closed or an earlier write failed
+	 */
+	private void checkOpen() throws IOException {
+		if (failure != null)	{
+			throw new IOException("The log could not be written.", failure);
+		}
+		if (closed)	{
+			throw new IOException("The log is closed.");
+		}
+	}
+
+	/**
+	 * Writes all of a batch of records to the log file
+	 * @param batch the records
+	 * @throws IOException if the records cannot be written
+	 */
+	private void write(byte[] batch) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(batch);
+		while (buffer.hasRemaining())	{
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Reads the log file, applying each record to the logged schedules
+	 * @return the length of the file up to the end of the last whole, undamaged record
+	 * @throws IOException if the log file cannot be read
+	 */
+	private long replay() throws IOException {
+		long validLength = 0;
+		long position = 0;
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE))	{
+			ByteArrayOutputStream line = new ByteArrayOutputStream();
+			int b;
+			while ((b = in.read()) != -1)	{
+				position++;
+				if (b != '\n')	{
+					line.write(b);
+					continue;
+				}
+				if (!replayLine(line.toString(StandardCharsets.UTF_8)))	{
+					break;
+				}
+				validLength = position;
+				sinceCheckpoint++;
+				line.reset();
+			}
+		}
+		return validLength;
+	}
+
+	/**
+	 * Checks one record and applies it to the logged schedules. Only a bad checksum or a
+	 * record that is not framed as checksum, id, and kind of change counts as damage. A
+	 * sound record that cannot be applied is skipped.
+	 * @param line the record without its line separator
+	 * @return true if the record is whole, false if it is damaged
+	 */
+	private boolean replayLine(String line) {
+		int tab = line.indexOf('\t');
+		if (tab < 0)	{
+			return false;
+		}
+		CRC32 crc = new CRC32();
+		crc.update(line.substring(tab + 1).getBytes(StandardCharsets.UTF_8));
+		try	{
+			if (Long.parseLong(line.substring(0, tab), 16) != crc.getValue())	{
+				return false;
+			}
+		} catch (NumberFormatException e)	{
+			return false;
+		}
+
+		String[] fields = line.substring(tab + 1).split("\t", -1);
+		if (fields.length < 2 || fields[1].length() != 1)	{
+			return false;
+		}
+		String[] values = new String[fields.length - 2];
+		for (int i = 0; i < values.length; i++)	{
+			values[i] = unescape(fields[i + 2]);
+		}
+		if (!apply(unescape(fields[0]), fields[1].charAt(0), values))	{
+			skipped++;
+		}
+		return true;
+	}
+
+	/**
+	 * Applies a record to the logged schedules. Must hold lock.
+	 * @param scheduleId the id of the schedule
+	 * @param op the kind of change
+	 * @param values the values of the change
+	 * @return true if the record was applied, false if it is not a valid record
+	 */
+	private boolean apply(String scheduleId, char op, String[] values) {
+		if (op == CLOSE)	{
+			schedules.remove(scheduleId);
+			return true;
+		}
+		LoggedSchedule s = schedules.get(scheduleId);
+		if (s == null)	{
+			s = new LoggedSchedule();
+		}
+
+		if (op == TITLE && values.length == 1)	{
+			s.title = values[0];
+		} else if (op == ADD && values.length == 1)	{
+			s.records.add(values[0]);
+		} else if (op == REMOVE && values.length == 1)	{
+			int idx;
+			try	{
+				idx = Integer.parseInt(values[0]);
+			} catch (NumberFormatException e)	{
+				return false;
+			}
+			if (idx < 0 || idx >= s.records.size())	{
+				return false;
+			}
+			s.records.remove(idx);
+		} else if (op == RESET)	{
+			s.records.clear();
+		} else if (op == SCHEDULE)	{
+			s.records.clear();
+			for (String record : values)	{
+				s.records.add(record);
+			}
+		} else	{
+			return false;
+		}
+		schedules.put(scheduleId, s);
+		return true;
+	}
+
+	/**
+	 * Makes the record of an activity that the log keeps. Unlike the export format, each
+	 * field has its backslashes and commas escaped, so any title or details read back the
+	 * same.
+	 * @param activity the Course or Event
+	 * @return the record
+	 */
+	static String record(Activity activity) {
+		StringBuilder out = new StringBuilder();
+		if (activity instanceof Course)	{
+			Course c = (Course) activity;
+			appendFields(out, COURSE_RECORD, c.getName(), c.getTitle(), c.getSection(), Integer.toString(c.getCredits()),
+					c.getInstructorId(), c.getMeetingDays(), Integer.toString(c.getStartTime()), Integer.toString(c.getEndTime()));
+		} else	{
+			Event e = (Event) activity;
+			appendFields(out, EVENT_RECORD, e.getTitle(), e.getMeetingDays(), Integer.toString(e.getStartTime()),
+					Integer.toString(e.getEndTime()), e.getEventDetails());
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Makes an activity from a record made by record
+	 * @param record the record
+	 * @return the Course or Event in the record
+	 * @throws IllegalArgumentException if the record is not a valid Course or Event
+	 */
+	static Activity readRecord(String record) {
+		ArrayList<String> f = splitFields(record);
+		try	{
+			if (f.size() == COURSE_FIELDS && COURSE_RECORD.equals(f.get(0)))	{
+				int credits = Integer.parseInt(f.get(4));
+				if ("A".equals(f.get(6)))	{
+					return new Course(f.get(1), f.get(2), f.get(3), credits, f.get(5), f.get(6));
+				}
+				return new Course(f.get(1), f.get(2), f.get(3), credits, f.get(5), f.get(6),
+						Integer.parseInt(f.get(7)), Integer.parseInt(f.get(8)));
+			}
+			if (f.size() == EVENT_FIELDS && EVENT_RECORD.equals(f.get(0)))	{
+				return new Event(f.get(1), f.get(2), Integer.parseInt(f.get(3)), Integer.parseInt(f.get(4)), f.get(5));
+			}
+		} catch (IllegalArgumentException e)	{
+			//A bad number or an invalid field, reported below like a bad record
+		}
+		throw new IllegalArgumentException("Invalid logged activity.");
+	}
+
+	/**
+	 * Appends fields separated by FIELD_SEPARATOR, with the backslashes and separators in
+	 * each field escaped
+	 * @param out where to append the fields
+	 * @param fields the fields
+	 */
+	private static void appendFields(StringBuilder out, String... fields) {
+		for (int i = 0; i < fields.length; i++)	{
+			if (i > 0)	{
+				out.append(FIELD_SEPARATOR);
+			}
+			for (int j = 0; j < fields[i].length(); j++)	{
+				char c = fields[i].charAt(j);
+				if (c == '\\' || c == FIELD_SEPARATOR)	{
+					out.append('\\');
+				}
+				out.append(c);
+			}
+		}
+	}
+
+	/**
+	 * Undoes appendFields
+	 * @param record the fields separated by FIELD_SEPARATOR
+	 * @return the fields
+	 */
+	private static ArrayList<String> splitFields(String record) {
+		ArrayList<String> fields = new ArrayList<String>();
+		StringBuilder field = new StringBuilder();
+		for (int i = 0; i < record.length(); i++)	{
+			char c = record.charAt(i);
+			if (c == '\\' && i + 1 < record.length())	{
+				field.append(record.charAt(++i));
+			} else if (c == FIELD_SEPARATOR)	{
+				fields.add(field.toString());
+				field.setLength(0);
+			} else	{
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	/**
+	 * Encodes a record as a checksum followed by the schedule id, kind of change, and
+	 * values, separated by tabs and ending with a newline
+	 * @param scheduleId the id of the schedule
+	 * @param op the kind of change
+	 * @param values the values of the change
+	 * @return the record in UTF-8
+	 */
+	private static byte[] encode(String scheduleId, char op, String... values) {
+		StringBuilder body = new StringBuilder();
+		escape(body, scheduleId);
+		body.append('\t').append(op);
+		for (String value : values)	{
+			body.append('\t');
+			escape(body, value);
+		}
+		byte[] bodyBytes = body.toString().getBytes(StandardCharsets.UTF_8);
+		CRC32 crc = new CRC32();
+		crc.update(bodyBytes);
+
+		String checksum = Long.toHexString(crc.getValue());
+		byte[] line = new byte[checksum.length() + 1 + bodyBytes.length + 1];
+		for (int i = 0; i < checksum.length(); i++)	{
+			line[i] = (byte) checksum.charAt(i);
+		}
+		line[checksum.length()] = '\t';
+		System.arraycopy(bodyBytes, 0, line, checksum.length() + 1, bodyBytes.length);
+		line[line.length - 1] = '\n';
+		return line;
+	}
+
+	/**
+	 * Appends a value with its backslashes, tabs, and line breaks escaped, so that the
+	 * only tabs in a record separate its fields and the only newline ends it
+	 * @param out where to append the value
+	 * @param value the value
+	 */
+	private static void escape(StringBuilder out, String value) {
+		for (int i = 0; i < value.length(); i++)	{
+			char c = value.charAt(i);
+			if (c == '\\')	{
+				out.append("\\\\");
+			} else if (c == '\t')	{
+				out.append("\\t");
+			} else if (c == '\n')	{
+				out.append("\\n");
+			} else if (c == '\r')	{
+				out.append("\\r");
+			} else	{
+				out.append(c);
+			}
+		}
+	}
+
+	/**
+	 * Undoes escape
+	 * @param value the escaped value
+	 * @return the value
+	 */
+	private static String unescape(String value) {
+		if (value.indexOf('\\') < 0)	{
+			return value;
+		}
+		StringBuilder out = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++)	{
+			char c = value.charAt(i);
+			if (c == '\\' && i + 1 < value.length())	{
+				char next = value.charAt(++i);
+				if (next == 't')	{
+					c = '\t';
+				} else if (next == 'n')	{
+					c = '\n';
+				} else if (next == 'r')	{
+					c = '\r';
+				} else	{
+					c = next;
+				}
+			}
+			out.append(c);
+		}
+		return out.toString();
+	}
+
+}
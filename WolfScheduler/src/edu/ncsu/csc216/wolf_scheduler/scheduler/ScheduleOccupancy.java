@@ -0,0 +1,135 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.Arrays;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * Occupancy grid of a schedule with one bit for every minute of every day of the week,
+ * about 1.3 KB in all. An activity occupies every minute from its start time through its
+ * end time, including the end minute, so two activities conflict exactly when they share a
+ * set bit, matching Activity.conflictsWith. Checking an activity ANDs the 64 minute words
+ * it covers on each of its meeting days. Arranged activities have no days and never
+ * occupy the grid.
+ * 
+ * @author William Krajcovic
+ *
+ */
+class ScheduleOccupancy {
+	
+	/** Number of minutes in a day */
+	private static final int MINUTES_PER_DAY = 24 * 60;
+	/** Number of minutes in each word of the grid */
+	private static final int WORD_BITS = 64;
+	/** Number of words of the grid for each day */
+	private static final int WORDS_PER_DAY = (MINUTES_PER_DAY + WORD_BITS - 1) / WORD_BITS;
+	
+	/** The grid, with the words for day i of Activity.WEEK_DAYS starting at i * WORDS_PER_DAY */
+	private final long[] grid = new long[Activity.WEEK_DAYS.length() * WORDS_PER_DAY];
+	
+	/**
+	 * Checks if the activity shares a minute with anything in the grid
+	 * @param activity the activity to check
+	 * @return true if the activity conflicts with the grid
+	 */
+	boolean conflicts(Activity activity) {
+		int mask = activity.getMeetingDaysMask();
+		int first = toMinute(activity.getStartTime());
+		int last = toMinute(activity.getEndTime());
+		for (int day = 0; mask != 0; day++, mask >>>= 1)	{
+			if ((mask & 1) == 0)	{
+				continue;
+			}
+			int base = day * WORDS_PER_DAY;
+			int firstWord = first / WORD_BITS;
+			int lastWord = last / WORD_BITS;
+			for (int w = firstWord; w <= lastWord; w++)	{
+				if ((grid[base + w] & wordMask(w, firstWord, lastWord, first, last)) != 0)	{
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Marks the minutes of the activity as occupied. The activity must not conflict
+	 * with the grid.
+	 * @param activity the activity to add
+	 */
+	void add(Activity activity) {
+		update(activity, true);
+	}
+	
+	/**
+	 * Marks the minutes of a scheduled activity as free
+	 * @param activity the activity to remove
+	 */
+	void remove(Activity activity) {
+		update(activity, false);
+	}
+	
+	/**
+	 * Marks every minute as free
+	 */
+	void clear() {
+		Arrays.fill(grid, 0L);
+	}
+	
+	/**
+	 * Sets or clears the minutes of the activity on each of its meeting days
+	 * @param activity the activity to update
+	 * @param occupied true to set the minutes and false to clear them
+	 */
+	private void update(Activity activity, boolean occupied) {
+		int mask = activity.getMeetingDaysMask();
+		int first = toMinute(activity.getStartTime());
+		int last = toMinute(activity.getEndTime());
+		for (int day = 0; mask != 0; day++, mask >>>= 1)	{
+			if ((mask & 1) == 0)	{
+				continue;
+			}
+			int base = day * WORDS_PER_DAY;
+			int firstWord = first / WORD_BITS;
+			int lastWord = last / WORD_BITS;
+			for (int w = firstWord; w <= lastWord; w++)	{
+				long bits = wordMask(w, firstWord, lastWord, first, last);
+				if (occupied)	{
+					grid[base + w] |= bits;
+				} else	{
+					grid[base + w] &= ~bits;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gets the bits of word w that fall between the first and last minute, inclusive
+	 * @param w the word
+	 * @param firstWord the word holding the first minute
+	 * @param lastWord the word holding the last minute
+	 * @param first the first minute
+	 * @param last the last minute
+	 * @return the bits of the word in the range
+	 */
+	private static long wordMask(int w, int firstWord, int lastWord, int first, int last) {
+		long bits = -1L;
+		if (w == firstWord)	{
+			bits &= -1L << (first % WORD_BITS);
+		}
+		if (w == lastWord)	{
+			bits &= -1L >>> (WORD_BITS - 1 - last % WORD_BITS);
+		}
+		return bits;
+	}
+	
+	/**
+	 * Converts a military time to minutes since midnight
+	 * @param time the military time
+	 * @return the minute of the day
+	 */
+	static int toMinute(int time) {
+		return time / 100 * 60 + time % 100;
+	}
+
+}
@@ -0,0 +1,207 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Scores generated schedules for WolfScheduler.findBestSchedules, where a higher score
+ * is a better schedule. To let the search skip parts of the search tree, a score can also
+ * give an upper bound on the score of any schedule that can be finished from a partial one.
+ * 
+ * @author William Krajcovic
+ *
+ */
+public interface ScheduleScore {
+	
+	/**
+	 * Scores a complete schedule
+	 * @param schedule one section of each course
+	 * @return the score, where higher is better
+	 */
+	double score(List<Course> schedule);
+	
+	/**
+	 * Gives a score that no schedule finished from the placed sections can beat. The
+	 * default bound of positive infinity never lets the search skip anything.
+	 * @param placed the sections placed so far, which do not conflict
+	 * @param remaining the sections of each course that is not placed yet
+	 * @return an upper bound on the score of any schedule containing the placed sections
+	 */
+	default double bound(List<Course> placed, List<List<Course>> remaining) {
+		return Double.POSITIVE_INFINITY;
+	}
+	
+	/**
+	 * Prefers schedules with less idle time between classes on the same day.
+	 * @return the score, which is minus the idle minutes in the week
+	 */
+	static ScheduleScore fewestIdleGaps() {
+		return new ScheduleScore() {
+			
+			@Override
+			public double score(List<Course> schedule) {
+				return -idleMinutes(schedule);
+			}
+			
+			/**
+			 * Each remaining section can shorten the idle time on each of its days by at
+			 * most its own length, so the idle time can go down by at most the longest
+			 * section of each remaining course over all of its days.
+			 */
+			@Override
+			public double bound(List<Course> placed, List<List<Course>> remaining) {
+				long fillable = 0;
+				for (List<Course> sections : remaining)	{
+					long longest = 0;
+					for (Course c : sections)	{
+						long minutes = (long) Integer.bitCount(c.getMeetingDaysMask())
+								* (ScheduleOccupancy.toMinute(c.getEndTime()) - ScheduleOccupancy.toMinute(c.getStartTime()) + 1);
+						longest = Math.max(longest, minutes);
+					}
+					fillable += longest;
+				}
+				return -Math.max(0, idleMinutes(placed) - fillable);
+			}
+		};
+	}
+	
+	/**
+	 * Prefers schedules whose first class of the week starts latest.
+	 * @return the score, which is the earliest start time of any class that meets
+	 */
+	static ScheduleScore latestStart() {
+		return new ScheduleScore() {
+			
+			@Override
+			public double score(List<Course> schedule) {
+				return earliestStart(schedule);
+			}
+			
+			/**
+			 * Adding sections can only make the earliest start earlier
+			 */
+			@Override
+			public double bound(List<Course> placed, List<List<Course>> remaining) {
+				return earliestStart(placed);
+			}
+		};
+	}
+	
+	/**
+	 * Prefers schedules that meet on fewer days of the week.
+	 * @return the score, which is minus the number of days with a class
+	 */
+	static ScheduleScore fewestCampusDays() {
+		return new ScheduleScore() {
+			
+			@Override
+			public double score(List<Course> schedule) {
+				return -Integer.bitCount(daysMask(schedule));
+			}
+			
+			/**
+			 * Adding sections can only add days
+			 */
+			@Override
+			public double bound(List<Course> placed, List<List<Course>> remaining) {
+				return score(placed);
+			}
+		};
+	}
+	
+	/**
+	 * Prefers schedules with more sections taught by the given instructors.
+	 * @param instructorIds the unity ids of the preferred instructors
+	 * @return the score, which is the number of sections with a preferred instructor
+	 */
+	static ScheduleScore preferredInstructors(Set<String> instructorIds) {
+		return new ScheduleScore() {
+			
+			@Override
+			public double score(List<Course> schedule) {
+				int preferred = 0;
+				for (Course c : schedule)	{
+					if (instructorIds.contains(c.getInstructorId()))	{
+						preferred++;
+					}
+				}
+				return preferred;
+			}
+			
+			/**
+			 * Each remaining course can add at most one preferred section, and only if it
+			 * has one
+			 */
+			@Override
+			public double bound(List<Course> placed, List<List<Course>> remaining) {
+				double bound = score(placed);
+				for (List<Course> sections : remaining)	{
+					for (Course c : sections)	{
+						if (instructorIds.contains(c.getInstructorId()))	{
+							bound++;
+							break;
+						}
+					}
+				}
+				return bound;
+			}
+		};
+	}
+	
+	/**
+	 * Adds up the minutes between consecutive classes on each day of the week
+	 * @param schedule the sections to look at
+	 * @return the idle minutes in the week
+	 */
+	private static long idleMinutes(List<Course> schedule) {
+		long idle = 0;
+		for (int day = 0; day < Activity.WEEK_DAYS.length(); day++)	{
+			ArrayList<int[]> meetings = new ArrayList<int[]>();
+			for (Course c : schedule)	{
+				if ((c.getMeetingDaysMask() & (1 << day)) != 0)	{
+					meetings.add(new int[] {ScheduleOccupancy.toMinute(c.getStartTime()), ScheduleOccupancy.toMinute(c.getEndTime())});
+				}
+			}
+			int[][] sorted = meetings.toArray(new int[0][]);
+			Arrays.sort(sorted, (a, b) -> Integer.compare(a[0], b[0]));
+			for (int i = 1; i < sorted.length; i++)	{
+				idle += Math.max(0, sorted[i][0] - sorted[i - 1][1]);
+			}
+		}
+		return idle;
+	}
+	
+	/**
+	 * Finds the earliest start time of any section that meets on a day
+	 * @param schedule the sections to look at
+	 * @return the earliest start time, or 2400 if no section meets on a day
+	 */
+	private static int earliestStart(List<Course> schedule) {
+		int earliest = 2400;
+		for (Course c : schedule)	{
+			if (c.getMeetingDaysMask() != 0)	{
+				earliest = Math.min(earliest, c.getStartTime());
+			}
+		}
+		return earliest;
+	}
+	
+	/**
+	 * Finds every day of the week that a section meets on
+	 * @param schedule the sections to look at
+	 * @return the meeting days mask of all of the sections together
+	 */
+	private static int daysMask(List<Course> schedule) {
+		int mask = 0;
+		for (Course c : schedule)	{
+			mask |= c.getMeetingDaysMask();
+		}
+		return mask;
+	}
+
+}
@@ -0,0 +1,188 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Finds the best conflict free schedules for a list of courses under a ScheduleScore.
+ * 
+ * The search backtracks over the courses in the same order as ScheduleGenerator, keeping
+ * the best schedules found so far in a heap. Once the heap holds k schedules, any partial
+ * schedule whose bound is no better than the worst of them is skipped along with
+ * everything below it.
+ * 
+ * @author William Krajcovic
+ *
+ */
+class ScheduleSearch {
+	
+	/** Every section of the requested courses, numbered by position */
+	private final List<Course> pool;
+	/** Pool numbers of the sections of each course, with the courses in search order */
+	private final int[][] sections;
+	/** For each course in search order, its position in the requested list of courses */
+	private final int[] resultPosition;
+	/** The score to rank schedules by */
+	private final ScheduleScore score;
+	/** The number of schedules to keep */
+	private final int k;
+	/** Which sections of the catalog conflict */
+	private final SectionConflicts conflicts;
+	/** Slot number of each section of the pool */
+	private final int[] slots;
+	/** The sections placed so far, in search order */
+	private final ArrayList<Course> placed;
+	/** The sections of each course that is not placed yet, by depth */
+	private final List<List<List<Course>>> remaining;
+	/** Slot number of the section placed for each course in search order */
+	private final int[] placedSlots;
+	/** The best schedules found so far, with the worst at the head */
+	private final PriorityQueue<Scored> best;
+	/** The number of complete schedules scored so far */
+	private long found;
+	
+	/**
+	 * A complete schedule with its score
+	 */
+	private static class Scored {
+		/** The sections in requested order */
+		private final List<Course> schedule;
+		/** The score of the schedule */
+		private final double value;
+		/** The order the schedule was found in, so ties keep the earlier schedule */
+		private final long found;
+		
+		/**
+		 * Creates a scored schedule
+		 * @param schedule the sections in requested order
+		 * @param value the score of the schedule
+		 * @param found the order the schedule was found in
+		 */
+		private Scored(List<Course> schedule, double value, long found) {
+			this.schedule = schedule;
+			this.value = value;
+			this.found = found;
+		}
+	}
+	
+	/**
+	 * Sets up a search
+	 * @param conflicts which sections of the catalog conflict
+	 * @param pool every section of the requested courses
+	 * @param sections pool numbers of the sections of each course, with the courses in
+	 * search order
+	 * @param resultPosition for each course in search order, its position in the results
+	 * @param score the score to rank schedules by
+	 * @param k the number of schedules to keep
+	 */
+	private ScheduleSearch(SectionConflicts conflicts, List<Course> pool, int[][] sections, int[] resultPosition,
+			ScheduleScore score, int k) {
+		this.pool = pool;
+		this.conflicts = conflicts;
+		this.slots = conflicts.slots(pool);
+		this.sections = sections;
+		this.resultPosition = resultPosition;
+		this.score = score;
+		this.k = k;
+		this.placed = new ArrayList<Course>();
+		this.placedSlots = new int[sections.length];
+		this.best = new PriorityQueue<Scored>(
+				(a, b) -> a.value != b.value ? Double.compare(a.value, b.value) : Long.compare(b.found, a.found));
+		
+		ArrayList<List<List<Course>>> suffixes = new ArrayList<List<List<Course>>>();
+		for (int depth = 0; depth <= sections.length; depth++)	{
+			ArrayList<List<Course>> suffix = new ArrayList<List<Course>>();
+			for (int i = depth; i < sections.length; i++)	{
+				ArrayList<Course> courseSections = new ArrayList<Course>();
+				for (int c : sections[i])	{
+					courseSections.add(pool.get(c));
+				}
+				suffix.add(Collections.unmodifiableList(courseSections));
+			}
+			suffixes.add(Collections.unmodifiableList(suffix));
+		}
+		this.remaining = suffixes;
+	}
+	
+	/**
+	 * Finds the k best conflict free schedules with one section of each of the named
+	 * courses, best first. Each schedule lists its sections in the same order as
+	 * courseNames, and schedules with the same score are listed in the order
+	 * ScheduleGenerator would produce them. Repeated names are only scheduled once.
+	 * @param catalog the catalog to take sections from
+	 * @param courseNames the names of the courses to schedule
+	 * @param score the score to rank schedules by
+	 * @param k the most schedules to return
+	 * @return up to k schedules, best first
+	 * @throws IllegalArgumentException if score is null or k is negative
+	 */
+	static List<List<Course>> findBest(CourseCatalog catalog, List<String> courseNames, ScheduleScore score, int k) {
+		if (score == null || k < 0)	{
+			throw new IllegalArgumentException("Invalid search.");
+		}
+		ArrayList<String> names = new ArrayList<String>(new LinkedHashSet<String>(courseNames));
+		int[] resultPosition = new int[names.size()];
+		ArrayList<Course> pool = new ArrayList<Course>();
+		int[][] sections = ScheduleGenerator.sectionsInSearchOrder(catalog, names, resultPosition, pool);
+		
+		ScheduleSearch search = new ScheduleSearch(catalog.getSectionConflicts(), pool, sections, resultPosition, score, k);
+		if (k > 0 && sections.length > 0)	{
+			search.search(0);
+		}
+		
+		ArrayList<Scored> ranked = new ArrayList<Scored>(search.best);
+		ranked.sort(search.best.comparator().reversed());
+		ArrayList<List<Course>> schedules = new ArrayList<List<Course>>();
+		for (Scored s : ranked)	{
+			schedules.add(s.schedule);
+		}
+		return schedules;
+	}
+	
+	/**
+	 * Places each section of the course at depth in turn and searches the courses after it
+	 * @param depth the number of courses placed so far
+	 */
+	private void search(int depth) {
+		if (depth == sections.length)	{
+			record();
+			return;
+		}
+		if (best.size() == k && score.bound(placed, remaining.get(depth)) <= best.peek().value)	{
+			return;
+		}
+		for (int section : sections[depth])	{
+			if (!conflicts.conflictsWithAny(placedSlots, depth, slots[section]))	{
+				placed.add(pool.get(section));
+				placedSlots[depth] = slots[section];
+				search(depth + 1);
+				placed.remove(placed.size() - 1);
+			}
+		}
+	}
+	
+	/**
+	 * Scores the placed schedule and keeps it if it is one of the k best so far
+	 */
+	private void record() {
+		Course[] schedule = new Course[placed.size()];
+		for (int i = 0; i < schedule.length; i++)	{
+			schedule[resultPosition[i]] = placed.get(i);
+		}
+		List<Course> result = Collections.unmodifiableList(Arrays.asList(schedule));
+		Scored scored = new Scored(result, score.score(result), found++);
+		if (best.size() < k)	{
+			best.add(scored);
+		} else if (scored.value > best.peek().value)	{
+			best.poll();
+			best.add(scored);
+		}
+	}
+
+}
@@ -0,0 +1,308 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * One version of a schedule's activities, which never changes once made. Appending or
+ * removing an activity makes a new version that shares everything but O(log n) nodes with
+ * the old one, so old versions can be kept for undo, and handed out as read only views,
+ * for little more memory than the change itself.
+ *
+ * The activities are kept in an AVL tree ordered by position, where each node knows the
+ * size of its subtree so an index can be found in O(log n) steps.
+ *
+ * @author William Krajcovic
+ *
+ */
+final class ScheduleVersion extends AbstractList<Activity> {
+
+	/** The version with no activities */
+	static final ScheduleVersion EMPTY = new ScheduleVersion(null);
+
+	/** The root of the tree, or null if the version is empty */
+	private final Node root;
+
+	/**
+	 * A node of the tree, holding one activity and the activities before and after it
+	 */
+	private static final class Node {
+		/** The activity */
+		private final Activity value;
+		/** The activities before this one, or null if there are none */
+		private final Node left;
+		/** The activities after this one, or null if there are none */
+		private final Node right;
+		/** The number of activities in this subtree */
+		private final int size;
+		/** The height of this subtree, where a single node has height 1 */
+		private final int height;
+
+		/**
+		 * Creates a node
+		 * @param value the activity
+		 * @param left the activities before it
+		 * @param right the activities after it
+		 */
+		private Node(Activity value, Node left, Node right) {
+			this.value = value;
+			this.left = left;
+			this.right = right;
+			this.size = size(left) + 1 + size(right);
+			this.height = Math.max(height(left), height(right)) + 1;
+		}
+	}
+
+	/**
+	 * Creates a version from the root of its tree
+	 * @param root the root, or null for no activities
+	 */
+	private ScheduleVersion(Node root) {
+		this.root = root;
+	}
+
+	/**
+	 * Makes a version holding the given activities
+	 * @param activities the activities, in schedule order
+	 * @return the version
+	 */
+	static ScheduleVersion of(List<? extends Activity> activities) {
+		Activity[] values = activities.toArray(new Activity[activities.size()]);
+		return values.length == 0 ? EMPTY : new ScheduleVersion(build(values, 0, values.length));
+	}
+
+	/**
+	 * Makes a version with an activity added to the end
+	 * @param activity the activity to add
+	 * @return the new version
+	 */
+	ScheduleVersion append(Activity activity) {
+		return new ScheduleVersion(insert(root, size(root), activity));
+	}
+
+	/**
+	 * Makes a version without the activity at the given index
+	 * @param idx the index of the activity to remove
+	 * @return the new version
+	 * @throws IndexOutOfBoundsException if idx is not in the version
+	 */
+	ScheduleVersion removeAt(int idx) {
+		if (idx < 0 || idx >= size())	{
+			throw new IndexOutOfBoundsException("Index: " + idx + ", Size: " + size());
+		}
+		Node removed = delete(root, idx);
+		return removed == null ? EMPTY : new ScheduleVersion(removed);
+	}
+
+	/**
+	 * Gets the activity at an index in O(log n) steps
+	 * @param idx the index
+	 * @return the activity
+	 * @throws IndexOutOfBoundsException if idx is not in the version
+	 */
+	@Override
+	public Activity get(int idx) {
+		if (idx < 0 || idx >= size())	{
+			throw new IndexOutOfBoundsException("Index: " + idx + ", Size: " + size());
+		}
+		Node node = root;
+		while (true)	{
+			int leftSize = size(node.left);
+			if (idx < leftSize)	{
+				node = node.left;
+			} else if (idx == leftSize)	{
+				return node.value;
+			} else	{
+				idx -= leftSize + 1;
+				node = node.right;
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of activities
+	 * @return the number of activities
+	 */
+	@Override
+	public int size() {
+		return size(root);
+	}
+
+	/**
+	 * Gets the height of the tree, for checking that it stays balanced
+	 * @return the height of the tree, or 0 if the version is empty
+	 */
+	int height() {
+		return height(root);
+	}
+
+	/**
+	 * Iterates over the activities in order, taking O(n) steps for the whole version
+	 * rather than O(log n) for each get
+	 * @return an iterator over the activities
+	 */
+	@Override
+	public Iterator<Activity> iterator() {
+		return new Iterator<Activity>() {
+			/** The nodes whose activity and right subtree have not been visited */
+			private final ArrayDeque<Node> path = leftmostPath(root, new ArrayDeque<Node>());
+
+			@Override
+			public boolean hasNext() {
+				return !path.isEmpty();
+			}
+
+			@Override
+			public Activity next() {
+				if (path.isEmpty())	{
+					throw new NoSuchElementException();
+				}
+				Node node = path.pop();
+				leftmostPath(node.right, path);
+				return node.value;
+			}
+		};
+	}
+
+	/**
+	 * Pushes a node and each node down its left side
+	 * @param node the node to start from, or null
+	 * @param path the stack to push onto
+	 * @return path
+	 */
+	private static ArrayDeque<Node> leftmostPath(Node node, ArrayDeque<Node> path) {
+		for (Node n = node; n != null; n = n.left)	{
+			path.push(n);
+		}
+		return path;
+	}
+
+	/**
+	 * Builds a balanced tree of part of an array
+	 * @param values the activities
+	 * @param from the index of the first activity in the tree
+	 * @param to the index after the last activity in the tree
+	 * @return the root of the tree, or null if the part is empty
+	 */
+	private static Node build(Activity[] values, int from, int to) {
+		if (from >= to)	{
+			return null;
+		}
+		int mid = (from + to) >>> 1;
+		return new Node(values[mid], build(values, from, mid), build(values, mid + 1, to));
+	}
+
+	/**
+	 * Inserts an activity, copying only the nodes on the path to it
+	 * @param node the root of the subtree
+	 * @param idx the index in the subtree to insert at
+	 * @param value the activity
+	 * @return the root of the new subtree
+	 */
+	private static Node insert(Node node, int idx, Activity value) {
+		if (node == null)	{
+			return new Node(value, null, null);
+		}
+		int leftSize = size(node.left);
+		if (idx <= leftSize)	{
+			return balance(node.value, insert(node.left, idx, value), node.right);
+		}
+		return balance(node.value, node.left, insert(node.right, idx - leftSize - 1, value));
+	}
+
+	/**
+	 * Deletes the activity at an index, copying only the nodes on the path to it
+	 * @param node the root of the subtree
+	 * @param idx the index in the subtree to delete
+	 * @return the root of the new subtree, or null if it is empty
+	 */
+	private static Node delete(Node node, int idx) {
+		int leftSize = size(node.left);
+		if (idx < leftSize)	{
+			return balance(node.value, delete(node.left, idx), node.right);
+		}
+		if (idx > leftSize)	{
+			return balance(node.value, node.left, delete(node.right, idx - leftSize - 1));
+		}
+		if (node.left == null)	{
+			return node.right;
+		}
+		if (node.right == null)	{
+			return node.left;
+		}
+		Node first = node.right;
+		while (first.left != null)	{
+			first = first.left;
+		}
+		return balance(first.value, node.left, delete(node.right, 0));
+	}
+
+	/**
+	 * Makes a node, rotating it if one side has grown two taller than the other
+	 * @param value the activity
+	 * @param left the activities before it
+	 * @param right the activities after it
+	 * @return the root of the balanced subtree
+	 */
+	private static Node balance(Activity value, Node left, Node right) {
+		if (height(left) > height(right) + 1)	{
+			if (height(left.left) < height(left.right))	{
+				left = rotateLeft(left.value, left.left, left.right);
+			}
+			return rotateRight(value, left, right);
+		}
+		if (height(right) > height(left) + 1)	{
+			if (height(right.right) < height(right.left))	{
+				right = rotateRight(right.value, right.left, right.right);
+			}
+			return rotateLeft(value, left, right);
+		}
+		return new Node(value, left, right);
+	}
+
+	/**
+	 * Makes a node rotated so its right child is the new root
+	 * @param value the activity
+	 * @param left the activities before it
+	 * @param right the activities after it, which cannot be empty
+	 * @return the new root
+	 */
+	private static Node rotateLeft(Activity value, Node left, Node right) {
+		return new Node(right.value, new Node(value, left, right.left), right.right);
+	}
+
+	/**
+	 * Makes a node rotated so its left child is the new root
+	 * @param value the activity
+	 * @param left the activities before it, which cannot be empty
+	 * @param right the activities after it
+	 * @return the new root
+	 */
+	private static Node rotateRight(Activity value, Node left, Node right) {
+		return new Node(left.value, left.left, new Node(value, left.right, right));
+	}
+
+	/**
+	 * Gets the size of a subtree
+	 * @param node the root of the subtree, or null
+	 * @return the number of activities in it
+	 */
+	private static int size(Node node) {
+		return node == null ? 0 : node.size;
+	}
+
+	/**
+	 * Gets the height of a subtree
+	 * @param node the root of the subtree, or null
+	 * @return its height, or 0 if it is empty
+	 */
+	private static int height(Node node) {
+		return node == null ? 0 : node.height;
+	}
+
+}
@@ -0,0 +1,366 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out a WolfScheduler session to each student, with every session sharing one
+ * immutable CourseCatalog instead of reading its own copy. A session only holds its
+ * student's schedule and a reference to the shared catalog.
+ * 
+ * Sessions can be opened, looked up, closed, and expired from any thread. Each session's
+ * WolfScheduler is meant to be used by one request at a time, like the single user
+ * WolfScheduler it is. Every change to a session's schedule holds the schedule's lock,
+ * and closing or expiring the session takes the same lock, so a session never ends in
+ * the middle of a change. Once a session has ended its WolfScheduler rejects every change,
+ * undo, and redo. A session whose schedule has not been used for longer than the idle
+ * timeout is expired, and is dropped the next time it is looked up or expireIdleSessions
+ * runs. Sessions also share a SeatLedger, so no section is ever given more students than
+ * it has seats, and closing or expiring a session gives its seats back. Given a
+ * ScheduleLog, every session's changes are logged, and the sessions in the log are opened
+ * again when the sessions are created, so schedules survive a restart.
+ * 
+ * @author William Krajcovic
+ *
+ */
+public class SchedulerSessions {
+	
+	/** The file the catalog is read from */
+	private final String catalogFileName;
+	
+	/** The catalog shared by every session */
+	private volatile CourseCatalog catalog;
+	
+	/** The schedule of each open session by student id */
+	private final ConcurrentHashMap<String, WolfScheduler> sessions;
+	
+	/** Nanoseconds a session can go unused before it expires */
+	private final long idleTimeoutNanos;
+	
+	/** Seats taken in each section across every session */
+	private final SeatLedger seats;
+	
+	/** Gives the current time in nanoseconds */
+	private final LongSupplier clock;
+	
+	/** The log of every session's changes, or null if changes are not logged */
+	private final ScheduleLog log;
+	
+	/**
+	 * Opening sessions takes the read lock and reloading the catalog takes the write lock,
+	 * so a session opened during a reload cannot be left with the old catalog
+	 */
+	private final ReentrantReadWriteLock catalogLock;
+	
+	/**
+	 * Held for the whole of a reload, from reading the file to handing out the catalog, so
+	 * two reloads at once cannot leave the sessions with the older catalog
+	 */
+	private final Object reloadLock;
+	
+	/**
+	 * Reads the catalog once for every session to share, with no limit on the seats in
+	 * a section
+	 * @param catalogFileName the course records file or catalog snapshot to read
+	 * @param idleTimeout how long a session can go unused before it expires
+	 * @param unit the unit of idleTimeout
+	 * @throws IllegalArgumentException if the catalog cannot be found or read, or the
+	 * timeout is not positive
+	 */
+	public SchedulerSessions(String catalogFileName, long idleTimeout, TimeUnit unit) {
+		this(catalogFileName, idleTimeout, unit, SeatLedger.UNLIMITED);
+	}
+	
+	/**
+	 * Reads the catalog once for every session to share
+	 * @param catalogFileName the course records file or catalog snapshot to read
+	 * @param idleTimeout how long a session can go unused before it expires
+	 * @param unit the unit of idleTimeout
+	 * @param seatsPerSection the number of seats in each section, which can be changed
+	 * for a section through getSeats
+	 * @throws IllegalArgumentException if the catalog cannot be found or read, the
+	 * timeout is not positive, or seatsPerSection is negative
+	 */
+	public SchedulerSessions(String catalogFileName, long idleTimeout, TimeUnit unit, int seatsPerSection) {
+		this(catalogFileName, idleTimeout, unit, seatsPerSection, System::nanoTime);
+	}
+	
+	/**
+	 * Reads the catalog once for every session to share, and opens a session for each
+	 * schedule in the log with its logged activities and title. Every session's changes
+	 * are written to the log.
+	 * @param catalogFileName the course records file or catalog snapshot to read
+	 * @param idleTimeout how long a session can go unused before it expires
+	 * @param unit the unit of idleTimeout
+	 * @param seatsPerSection the number of seats in each section
+	 * @param log the log of every session's changes
+	 * @throws IllegalArgumentException if the catalog cannot be found or read, the
+	 * timeout is not positive, seatsPerSection is negative, or a logged schedule cannot
+	 * be restored
+	 */
+	public SchedulerSessions(String catalogFileName, long idleTimeout, TimeUnit unit, int seatsPerSection, ScheduleLog log) {
+		this(catalogFileName, idleTimeout, unit, seatsPerSection, System::nanoTime, log);
+	}
+	
+	/**
+	 * Reads the catalog once for every session to share, using the given clock
+	 * @param catalogFileName the course records file or catalog snapshot to read
+	 * @param idleTimeout how long a session can go unused before it expires
+	 * @param unit the unit of idleTimeout
+	 * @param seatsPerSection the number of seats in each section
+	 * @param clock gives the current time in nanoseconds
+	 * @throws IllegalArgumentException if the catalog cannot be found or read, the
+	 * timeout is not positive, or seatsPerSection is negative
+	 */
+	SchedulerSessions(String catalogFileName, long idleTimeout, TimeUnit unit, int seatsPerSection, LongSupplier clock) {
+		this(catalogFileName, idleTimeout, unit, seatsPerSection, clock, null);
+	}
+	
+	/**
+	 * Reads the catalog once for every session to share, using the given clock, and opens
+	 * a session for each schedule in the log
+	 * @param catalogFileName the course records file or catalog snapshot to read
+	 * @param idleTimeout how long a session can go unused before it expires
+	 * @param unit the unit of idleTimeout
+	 * @param seatsPerSection the number of seats in each section
+	 * @param clock gives the current time in nanoseconds
+	 * @param log the log of every session's changes, or null if changes are not logged
+	 * @throws IllegalArgumentException if the catalog cannot be found or read, the
+	 * timeout is not positive, seatsPerSection is negative, or a logged schedule cannot
+	 * be restored
+	 */
+	SchedulerSessions(String catalogFileName, long idleTimeout, TimeUnit unit, int seatsPerSection, LongSupplier clock, ScheduleLog log) {
+		if (idleTimeout <= 0)	{
+			throw new IllegalArgumentException("Invalid timeout.");
+		}
+		this.catalog = CourseCatalog.read(catalogFileName);
+		this.catalogFileName = catalogFileName;
+		this.sessions = new ConcurrentHashMap<String, WolfScheduler>();
+		this.idleTimeoutNanos = unit.toNanos(idleTimeout);
+		this.seats = new SeatLedger(seatsPerSection);
+		this.clock = clock;
+		this.catalogLock = new ReentrantReadWriteLock();
+		this.reloadLock = new Object();
+		this.log = log;
+		
+		if (log != null)	{
+			for (String studentId : log.getScheduleIds())	{
+				WolfScheduler scheduler = new WolfScheduler(catalog, catalogFileName, seats, clock);
+				try	{
+					log.attach(studentId, scheduler);
+				} catch (IOException e)	{
+					throw new IllegalArgumentException("Cannot read file.");
+				}
+				sessions.put(studentId, scheduler);
+			}
+		}
+	}
+	
+	/**
+	 * Gets the catalog shared by every session
+	 * @return the catalog
+	 */
+	public CourseCatalog getCatalog() {
+		return catalog;
+	}
+	
+	/**
+	 * Gets the seats taken in each section across every session
+	 * @return the seat ledger
+	 */
+	public SeatLedger getSeats() {
+		return seats;
+	}
+	
+	/**
+	 * Gets the student's session, creating an empty schedule for them if they do not
+	 * have a session or it has expired. Two threads opening the same student's session
+	 * at once get the same WolfScheduler.
+	 * @param studentId the student's id
+	 * @return the student's schedule
+	 * @throws IllegalArgumentException if studentId is null or empty
+	 */
+	public WolfScheduler openSession(String studentId) {
+		if (studentId == null || studentId.isEmpty())	{
+			throw new IllegalArgumentException("Invalid student id.");
+		}
+		long now = clock.getAsLong();
+		while (true)	{
+			WolfScheduler scheduler;
+			catalogLock.readLock().lock();
+			try	{
+				scheduler = sessions.computeIfAbsent(studentId, id -> {
+					WolfScheduler created = new WolfScheduler(catalog, catalogFileName, seats, clock);
+					//An empty schedule has nothing to log until it changes
+					created.setLog(log, id);
+					return created;
+				});
+			} finally	{
+				catalogLock.readLock().unlock();
+			}
+			//An expired session is ended and gone from the map by now, so try again
+			if (touch(studentId, scheduler, now))	{
+				return scheduler;
+			}
+		}
+	}
+	
+	/**
+	 * Gets the student's session if it is open
+	 * @param studentId the student's id
+	 * @return the student's schedule, or null if they have no session or it has expired
+	 */
+	public WolfScheduler getSession(String studentId) {
+		if (studentId == null)	{
+			return null;
+		}
+		WolfScheduler scheduler = sessions.get(studentId);
+		if (scheduler == null || !touch(studentId, scheduler, clock.getAsLong()))	{
+			return null;
+		}
+		return scheduler;
+	}
+	
+	/**
+	 * Closes the student's session, giving back the seats in their schedule
+	 * @param studentId the student's id
+	 * @return true if the student had a session
+	 */
+	public boolean closeSession(String studentId) {
+		WolfScheduler scheduler = studentId == null ? null : sessions.get(studentId);
+		if (scheduler == null)	{
+			return false;
+		}
+		synchronized (scheduler)	{
+			if (scheduler.isClosed())	{
+				return false;
+			}
+			endSession(studentId, scheduler);
+			return true;
+		}
+	}
+	
+	/**
+	 * Closes every session that has gone unused for longer than the idle timeout, giving
+	 * back the seats in their schedules
+	 * @return the number of sessions closed
+	 */
+	public int expireIdleSessions() {
+		long now = clock.getAsLong();
+		int expired = 0;
+		for (Map.Entry<String, WolfScheduler> entry : sessions.entrySet())	{
+			WolfScheduler scheduler = entry.getValue();
+			synchronized (scheduler)	{
+				if (!scheduler.isClosed() && isIdle(scheduler, now))	{
+					endSession(entry.getKey(), scheduler);
+					expired++;
+				}
+			}
+		}
+		return expired;
+	}
+	
+	/**
+	 * Gets the number of open sessions, including ones that have expired but have not
+	 * been closed yet
+	 * @return the number of sessions
+	 */
+	public int size() {
+		return sessions.size();
+	}
+	
+	/**
+	 * Reads the catalog file again and gives the new catalog to every session. Reloads
+	 * are made one at a time, and the file is read before the write lock is taken so
+	 * sessions can still be opened while it is read.
+	 * @return the sections added, removed, and changed by the reload
+	 * @throws IllegalArgumentException if the catalog file cannot be found or read
+	 */
+	public CatalogDiff reloadCatalog() {
+		synchronized (reloadLock)	{
+			CourseCatalog newer = CourseCatalog.read(catalogFileName);
+			catalogLock.writeLock().lock();
+			try	{
+				CatalogDiff diff = catalog.diff(newer);
+				catalog = newer;
+				for (WolfScheduler scheduler : sessions.values())	{
+					scheduler.setCatalog(newer, diff);
+				}
+				return diff;
+			} finally	{
+				catalogLock.writeLock().unlock();
+			}
+		}
+	}
+	
+	/**
+	 * Marks a session as used now, or ends it if it has expired
+	 * @param studentId the student's id
+	 * @param scheduler the session's schedule
+	 * @param now the current time in clock nanoseconds
+	 * @return true if the session is still open, false if it was ended by this or
+	 * another thread
+	 * @throws IllegalArgumentException if the expired schedule cannot be dropped from the log
+	 */
+	private boolean touch(String studentId, WolfScheduler scheduler, long now) {
+		synchronized (scheduler)	{
+			if (scheduler.isClosed())	{
+				return false;
+			}
+			if (isIdle(scheduler, now))	{
+				endSession(studentId, scheduler);
+				return false;
+			}
+			scheduler.markUsed(now);
+			return true;
+		}
+	}
+	
+	/**
+	 * Ends a session, closing the schedule so it gives back its seats and takes no more,
+	 * dropping its schedule from the log, and taking it out of the map. The caller must
+	 * hold the schedule's lock, which every change to the schedule holds too, so the
+	 * student's own thread cannot change the schedule while it is being closed, and only
+	 * threads using this student's session wait for the log, never the rest of the map.
+	 * 
+	 * The schedule logs its reset before it is detached, so if the reset cannot be logged
+	 * the session stays open with its seats, matching the schedule the log would restore.
+	 * Once the reset is logged the session is ended even if the drop then fails, since the
+	 * log would only restore an empty schedule. The session stays in the map until the log
+	 * has dropped its schedule, so a new session for the same student cannot log changes
+	 * that the drop would then wipe out.
+	 * @param studentId the student's id
+	 * @param scheduler the session's schedule
+	 * @throws IllegalArgumentException if the reset cannot be logged or the schedule
+	 * cannot be dropped from the log
+	 */
+	private void endSession(String studentId, WolfScheduler scheduler) {
+		scheduler.close();
+		try	{
+			if (log != null)	{
+				log.append(studentId, ScheduleLog.CLOSE);
+			}
+		} catch (IOException e)	{
+			throw new IllegalArgumentException("The schedule cannot be saved.");
+		} finally	{
+			sessions.remove(studentId, scheduler);
+		}
+	}
+	
+	/**
+	 * Checks if a session has gone unused for longer than the idle timeout. A schedule
+	 * records its own use, so a student who keeps working with the WolfScheduler they
+	 * were handed keeps the session open without looking it up again.
+	 * @param scheduler the session's schedule
+	 * @param now the current time in clock nanoseconds
+	 * @return true if the session has expired
+	 */
+	private boolean isIdle(WolfScheduler scheduler, long now) {
+		return now - scheduler.getLastUsed() > idleTimeoutNanos;
+	}
+
+}
@@ -0,0 +1,154 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Counts the seats taken in each section across every schedule that shares the ledger.
+ * 
+ * Each section has its own counter, so enrollments in different sections never wait on
+ * each other. A seat is taken with a compare and set that only succeeds while the section
+ * is below capacity, so a section is never oversubscribed no matter how many threads
+ * enroll at once, and every reservation or release takes effect at a single instant.
+ * Sections are tracked by name and section rather than by Course object, so seats carry
+ * over when the catalog is reloaded.
+ * 
+ * @author William Krajcovic
+ *
+ */
+public class SeatLedger {
+	
+	/** Capacity that never fills */
+	public static final int UNLIMITED = Integer.MAX_VALUE;
+	
+	/** Capacity of sections that have not been given one */
+	private final int defaultCapacity;
+	
+	/** Seats of each section, by name and section */
+	private final ConcurrentHashMap<String, Seats> seats;
+	
+	/**
+	 * Capacity and enrollment of one section
+	 */
+	private static class Seats {
+		/** The number of seats in the section */
+		private volatile int capacity;
+		/** The number of seats taken */
+		private final AtomicInteger enrolled;
+		
+		/**
+		 * Creates an empty section
+		 * @param capacity the number of seats in the section
+		 */
+		private Seats(int capacity) {
+			this.capacity = capacity;
+			this.enrolled = new AtomicInteger();
+		}
+	}
+	
+	/**
+	 * Creates a ledger where every section starts with the same capacity
+	 * @param defaultCapacity the number of seats in each section, or UNLIMITED
+	 * @throws IllegalArgumentException if defaultCapacity is negative
+	 */
+	public SeatLedger(int defaultCapacity) {
+		if (defaultCapacity < 0)	{
+			throw new IllegalArgumentException("Invalid capacity.");
+		}
+		this.defaultCapacity = defaultCapacity;
+		this.seats = new ConcurrentHashMap<String, Seats>();
+	}
+	
+	/**
+	 * Sets the number of seats in a section. Lowering the capacity below the seats
+	 * already taken does not drop anyone, but no one else can enroll until enough
+	 * seats are released.
+	 * @param name the name of the course
+	 * @param section the section of the course
+	 * @param capacity the number of seats, or UNLIMITED
+	 * @throws IllegalArgumentException if capacity is negative
+	 */
+	public void setCapacity(String name, String section, int capacity) {
+		if (capacity < 0)	{
+			throw new IllegalArgumentException("Invalid capacity.");
+		}
+		seatsOf(name, section).capacity = capacity;
+	}
+	
+	/**
+	 * Gets the number of seats in a section
+	 * @param name the name of the course
+	 * @param section the section of the course
+	 * @return the number of seats
+	 */
+	public int getCapacity(String name, String section) {
+		Seats s = seats.get(key(name, section));
+		return s == null ? defaultCapacity : s.capacity;
+	}
+	
+	/**
+	 * Gets the number of seats taken in a section
+	 * @param name the name of the course
+	 * @param section the section of the course
+	 * @return the number of seats taken
+	 */
+	public int getEnrolled(String name, String section) {
+		Seats s = seats.get(key(name, section));
+		return s == null ? 0 : s.enrolled.get();
+	}
+	
+	/**
+	 * Takes a seat in the course's section if one is open
+	 * @param course the section to take a seat in
+	 * @return true if a seat was taken, false if the section is full
+	 */
+	boolean reserve(Course course) {
+		Seats s = seatsOf(course.getName(), course.getSection());
+		while (true)	{
+			int taken = s.enrolled.get();
+			if (taken >= s.capacity)	{
+				return false;
+			}
+			if (s.enrolled.compareAndSet(taken, taken + 1))	{
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * Gives back a seat taken with reserve
+	 * @param course the section to give a seat back to
+	 */
+	void release(Course course) {
+		seatsOf(course.getName(), course.getSection()).enrolled.decrementAndGet();
+	}
+	
+	/**
+	 * Gets the seats of a section, creating them if the section has not been seen
+	 * @param name the name of the course
+	 * @param section the section of the course
+	 * @return the seats of the section
+	 */
+	private Seats seatsOf(String name, String section) {
+		String key = key(name, section);
+		Seats s = seats.get(key);
+		if (s == null)	{
+			s = seats.computeIfAbsent(key, k -> new Seats(defaultCapacity));
+		}
+		return s;
+	}
+	
+	/**
+	 * Gets the key of a section. Names and sections cannot hold commas since they come
+	 * from comma separated records.
+	 * @param name the name of the course
+	 * @param section the section of the course
+	 * @return the key of the section
+	 */
+	private static String key(String name, String section) {
+		return name + "," + section;
+	}
+
+}
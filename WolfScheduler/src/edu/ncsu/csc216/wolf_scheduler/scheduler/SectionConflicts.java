@@ -0,0 +1,178 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Which sections of a catalog conflict with each other, worked out once for the whole
+ * catalog and shared by every search over it.
+ * 
+ * Sections are bucketed by their meeting slot, which is their meeting days, start time,
+ * and end time. Whether two sections conflict only depends on their slots, and a catalog
+ * has far fewer slots than sections since most sections meet at the usual times, so the
+ * relation is stored as a bit matrix over the slots rather than over the sections. Slot
+ * numbers are handed out in the order the slots are first seen in the catalog.
+ * 
+ * The matrix is built one day at a time. The slots meeting on a day are sorted by start
+ * time, and each slot is only compared with the slots that start before it ends, so slots
+ * that are far apart in the day are never compared. A catalog with more than MAX_SLOTS
+ * slots would make the matrix too big, so its slots are compared by their times instead,
+ * which is still constant time.
+ * 
+ * @author William Krajcovic
+ *
+ */
+class SectionConflicts {
+	
+	/** Most slots the bit matrix is built for, which makes the matrix at most 32 MB */
+	static final int MAX_SLOTS = 16384;
+	
+	/** Slot number of each meeting days mask, start time, and end time in the catalog */
+	private final HashMap<Long, Integer> slots;
+	/** Meeting days mask of each slot */
+	private final int[] slotDays;
+	/** Start time of each slot */
+	private final int[] slotStart;
+	/** End time of each slot */
+	private final int[] slotEnd;
+	/** The rows of the matrix, with bit j of row i at word i * rowWords + j / 64, or null if there are too many slots */
+	private final long[] matrix;
+	/** Number of words in each row of the matrix */
+	private final int rowWords;
+	
+	/**
+	 * Works out which of the sections of a catalog conflict, using the same rule as
+	 * Activity.conflictsWith
+	 * @param sections the sections in the catalog
+	 */
+	SectionConflicts(List<Course> sections) {
+		slots = new HashMap<Long, Integer>();
+		int[] days = new int[16];
+		int[] start = new int[16];
+		int[] end = new int[16];
+		for (Course c : sections)	{
+			Integer slot = slots.putIfAbsent(key(c), slots.size());
+			if (slot == null)	{
+				int s = slots.size() - 1;
+				if (s == days.length)	{
+					days = Arrays.copyOf(days, s * 2);
+					start = Arrays.copyOf(start, s * 2);
+					end = Arrays.copyOf(end, s * 2);
+				}
+				days[s] = c.getMeetingDaysMask();
+				start[s] = c.getStartTime();
+				end[s] = c.getEndTime();
+			}
+		}
+		int n = slots.size();
+		slotDays = Arrays.copyOf(days, n);
+		slotStart = Arrays.copyOf(start, n);
+		slotEnd = Arrays.copyOf(end, n);
+		
+		if (n > MAX_SLOTS)	{
+			rowWords = 0;
+			matrix = null;
+			return;
+		}
+		rowWords = (n + Long.SIZE - 1) / Long.SIZE;
+		matrix = new long[n * rowWords];
+		for (int day = 0; day < Activity.WEEK_DAYS.length(); day++)	{
+			int bit = 1 << day;
+			int count = 0;
+			long[] meetings = new long[n];
+			for (int i = 0; i < n; i++)	{
+				if ((slotDays[i] & bit) != 0)	{
+					//Sort by start time and then by slot number
+					meetings[count++] = (long) slotStart[i] << 32 | i;
+				}
+			}
+			Arrays.sort(meetings, 0, count);
+			
+			for (int a = 0; a < count; a++)	{
+				int i = (int) meetings[a];
+				setConflict(i, i);
+				for (int b = a + 1; b < count && (int) (meetings[b] >>> 32) <= slotEnd[i]; b++)	{
+					int j = (int) meetings[b];
+					setConflict(i, j);
+					setConflict(j, i);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gets the key of the meeting slot of an activity
+	 * @param activity the activity
+	 * @return the meeting days mask, start time, and end time packed together
+	 */
+	private static long key(Activity activity) {
+		return (long) activity.getMeetingDaysMask() << 32 | activity.getStartTime() << 16 | activity.getEndTime();
+	}
+	
+	/**
+	 * Sets bit j of row i of the matrix
+	 * @param i the slot whose row to set
+	 * @param j the slot that conflicts with i
+	 */
+	private void setConflict(int i, int j) {
+		matrix[i * rowWords + (j >>> 6)] |= 1L << j;
+	}
+	
+	/**
+	 * Gets the slot number of the meeting days, start time, and end time of an activity
+	 * @param activity the activity
+	 * @return the slot number, or -1 if no section of the catalog meets at those times
+	 */
+	int slot(Activity activity) {
+		Integer slot = slots.get(key(activity));
+		return slot == null ? -1 : slot;
+	}
+	
+	/**
+	 * Gets the slot numbers of some sections of the catalog
+	 * @param sections the sections
+	 * @return the slot number of each section
+	 */
+	int[] slots(List<Course> sections) {
+		int[] slotNumbers = new int[sections.size()];
+		for (int i = 0; i < slotNumbers.length; i++)	{
+			slotNumbers[i] = slot(sections.get(i));
+		}
+		return slotNumbers;
+	}
+	
+	/**
+	 * Checks if sections meeting in two slots conflict. Two sections in the same slot
+	 * conflict unless the slot is arranged.
+	 * @param i the number of one slot
+	 * @param j the number of the other slot
+	 * @return true if sections in the slots conflict
+	 */
+	boolean conflicts(int i, int j) {
+		if (matrix == null)	{
+			return (slotDays[i] & slotDays[j]) != 0 && slotStart[i] <= slotEnd[j] && slotStart[j] <= slotEnd[i];
+		}
+		return (matrix[i * rowWords + (j >>> 6)] & 1L << j) != 0;
+	}
+	
+	/**
+	 * Checks if a slot conflicts with any of the first count of some placed slots
+	 * @param placed the slots placed so far
+	 * @param count the number of placed slots to check
+	 * @param slot the slot to check
+	 * @return true if the slot conflicts with one of the placed slots
+	 */
+	boolean conflictsWithAny(int[] placed, int count, int slot) {
+		for (int i = 0; i < count; i++)	{
+			if (conflicts(placed[i], slot))	{
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
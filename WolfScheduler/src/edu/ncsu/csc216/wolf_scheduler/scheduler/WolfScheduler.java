@@ -1,13 +1,21 @@
 package edu.ncsu.csc216.wolf_scheduler.scheduler;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
-import edu.ncsu.csc216.wolf_scheduler.course.ConflictException;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 import edu.ncsu.csc216.wolf_scheduler.course.Event;
 import edu.ncsu.csc216.wolf_scheduler.io.ActivityRecordIO;
-import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+import edu.ncsu.csc216.wolf_scheduler.io.CatalogSnapshotIO;
 
 /**
  * This is the WolfScheduler class which is what allows the user to edit their schedule,
@@ -20,31 +28,333 @@ public class WolfScheduler {
 	/** The title of the schedule */
 	private String title;
 	
-	/** This is a catalog of all courses available */
-	private ArrayList<Course> catalog;
+	/** This is a catalog of all courses available. It is replaced as a whole when the catalog is reloaded */
+	private volatile CourseCatalog catalog;
 	
-	/** This is a catalog of all activities in one schedule */
-	private ArrayList<Activity> schedule;
+	/** The file the catalog was read from */
+	private String catalogFileName;
+	
+	/** Watches the catalog file for changes, or null if the catalog is not being watched */
+	private CatalogWatcher catalogWatcher;
+	
+	/**
+	 * Held while the catalog is read, compared with the old one, and swapped in, so two
+	 * reloads at once cannot swap in an older catalog or diff against one already replaced
+	 */
+	private final Object catalogLock;
+	
+	/** Most changes that can be undone */
+	static final int MAX_UNDO = 100;
+	
+	/** This is a catalog of all activities in one schedule. Each change makes a new version */
+	private ScheduleVersion schedule;
+	
+	/** The schedule and title before each change that can be undone, oldest first */
+	private final ArrayDeque<HistoryEntry> undoHistory;
+	
+	/** The schedule and title before each undo that can be redone, oldest first */
+	private final ArrayDeque<HistoryEntry> redoHistory;
+	
+	/** Minutes of the week taken by the schedule, for finding conflicts */
+	private ScheduleOccupancy occupancy;
+	
+	/** The names of the scheduled courses and titles of the scheduled events, from duplicateKey, for finding duplicates */
+	private final HashSet<String> scheduledKeys;
+	
+	/** Seats taken in each section across the schedules sharing it, or null if sections never fill */
+	private final SeatLedger seats;
+	
+	/** The log every change to the schedule is written to before it is made, or null if changes are not logged */
+	private ScheduleLog log;
+	
+	/** The id of the schedule in the log */
+	private String logId;
+	
+	/** Told about each change to the schedule, title, and catalog */
+	private final CopyOnWriteArrayList<ScheduleListener> listeners;
+	
+	/** Gives the current time in nanoseconds for lastUsed, or null if use is not tracked */
+	private final LongSupplier clock;
+	
+	/** When the schedule was last used, in clock nanoseconds */
+	private volatile long lastUsed;
+	
+	/** Whether the schedule's session has ended, after which the schedule cannot be changed. Guarded by this */
+	private boolean closed;
+	
+	/**
+	 * A version of the schedule and its title
+	 */
+	private static class HistoryEntry {
+		/** The activities */
+		private final ScheduleVersion schedule;
+		/** The title */
+		private final String title;
+		
+		/**
+		 * Creates an entry
+		 * @param schedule the activities
+		 * @param title the title
+		 */
+		private HistoryEntry(ScheduleVersion schedule, String title) {
+			this.schedule = schedule;
+			this.title = title;
+		}
+	}
 	
 	/**
 	 * This is the constructor that will take the file of activities
-	 * and create a schedule
+	 * and create a schedule. The file can either be a course records file
+	 * or a catalog snapshot written by exportCatalogSnapshot, which loads
+	 * faster since it does not need to be parsed
 	 * @param fileName the name of the file that contains the list
 	 * of courses that will be used to make the schedule
 	 * @throws IllegalArgumentException if the FileNotFoundException is caught
+	 * or the catalog snapshot cannot be read
 	 */
 	public WolfScheduler(String fileName) {
-		schedule = new ArrayList<Activity>();
-		this.title = "My Schedule";		
+		this(CourseCatalog.read(fileName), fileName, null);
+	}
+	
+	/**
+	 * Creates a schedule that uses a catalog that has already been read, so that many
+	 * schedules can share one catalog and one count of the seats taken in each section
+	 * @param catalog the catalog of courses
+	 * @param catalogFileName the file the catalog was read from
+	 * @param seats the seats taken in each section, or null if sections never fill
+	 */
+	WolfScheduler(CourseCatalog catalog, String catalogFileName, SeatLedger seats) {
+		this(catalog, catalogFileName, seats, null);
+	}
+	
+	/**
+	 * Creates a schedule for a session, which records when it was last used so the
+	 * session can expire once it goes unused
+	 * @param catalog the catalog of courses
+	 * @param catalogFileName the file the catalog was read from
+	 * @param seats the seats taken in each section, or null if sections never fill
+	 * @param clock gives the current time in nanoseconds, or null if use is not tracked
+	 */
+	WolfScheduler(CourseCatalog catalog, String catalogFileName, SeatLedger seats, LongSupplier clock) {
+		schedule = ScheduleVersion.EMPTY;
+		undoHistory = new ArrayDeque<HistoryEntry>();
+		redoHistory = new ArrayDeque<HistoryEntry>();
+		listeners = new CopyOnWriteArrayList<ScheduleListener>();
+		occupancy = new ScheduleOccupancy();
+		scheduledKeys = new HashSet<String>();
+		this.title = "My Schedule";
+		this.catalog = catalog;
+		this.catalogLock = new Object();
+		this.catalogFileName = catalogFileName;
+		this.seats = seats;
+		this.clock = clock;
+		this.lastUsed = clock == null ? 0 : clock.getAsLong();
+	}
+	
+	/**
+	 * Reads the catalog file again and swaps in the new catalog. Anything reading the
+	 * old catalog keeps working with it and is never blocked. Scheduled courses whose
+	 * section was removed or changed can be found with needsRevalidation. Reloads are
+	 * made one at a time, so the catalog swapped in last is always the newest one read.
+	 * @return the sections added, removed, and changed by the reload
+	 * @throws IllegalArgumentException if the catalog file cannot be found or read
+	 */
+	public CatalogDiff reloadCatalog() {
+		synchronized (catalogLock)	{
+			CourseCatalog newer = CourseCatalog.read(catalogFileName);
+			CatalogDiff diff = catalog.diff(newer);
+			setCatalog(newer, diff);
+			return diff;
+		}
+	}
+	
+	/**
+	 * Swaps in a catalog that has already been read, such as one shared by many schedules
+	 * @param catalog the catalog to use from now on
+	 * @param diff the sections added, removed, and changed since the old catalog
+	 */
+	void setCatalog(CourseCatalog catalog, CatalogDiff diff) {
+		synchronized (catalogLock)	{
+			this.catalog = catalog;
+			for (ScheduleListener listener : listeners)	{
+				listener.catalogReloaded(diff);
+			}
+		}
+	}
+	
+	/**
+	 * Adds a listener that is told about each change to the schedule, its title, and the
+	 * catalog from now on
+	 * @param listener the listener
+	 * @throws IllegalArgumentException if listener is null
+	 */
+	public void addScheduleListener(ScheduleListener listener) {
+		if (listener == null)	{
+			throw new IllegalArgumentException("Invalid listener.");
+		}
+		listeners.add(listener);
+	}
+	
+	/**
+	 * Removes a listener added with addScheduleListener
+	 * @param listener the listener
+	 * @return true if the listener had been added
+	 */
+	public boolean removeScheduleListener(ScheduleListener listener) {
+		return listeners.remove(listener);
+	}
+	
+	/**
+	 * Gets the catalog the schedule is using
+	 * @return the catalog
+	 */
+	CourseCatalog getCatalog() {
+		return catalog;
+	}
+	
+	/**
+	 * Sets the log that changes to the schedule are written to, as done by
+	 * ScheduleLog.attach
+	 * @param log the log, or null to stop logging changes
+	 * @param logId the id of the schedule in the log
+	 */
+	void setLog(ScheduleLog log, String logId) {
+		this.log = log;
+		this.logId = logId;
+	}
+	
+	/**
+	 * Gets when the schedule was last used
+	 * @return the time of the last use, in nanoseconds of the clock the schedule was
+	 * created with
+	 */
+	long getLastUsed() {
+		return lastUsed;
+	}
+	
+	/**
+	 * Records that the schedule was used at the given time, such as when its session is
+	 * looked up
+	 * @param now the current time in clock nanoseconds
+	 */
+	void markUsed(long now) {
+		lastUsed = now;
+	}
+	
+	/**
+	 * Records that the schedule is being used now, if use is tracked
+	 */
+	private void markUsed() {
+		if (clock != null)	{
+			lastUsed = clock.getAsLong();
+		}
+	}
+	
+	/**
+	 * Checks that the schedule can still be changed and records that it is being used.
+	 * The caller must hold the schedule's lock.
+	 * @throws IllegalArgumentException if the schedule's session has ended
+	 */
+	private void startChange() {
+		if (closed)	{
+			throw new IllegalArgumentException("The session has ended.");
+		}
+		markUsed();
+	}
+	
+	/**
+	 * Checks if the schedule's session has ended
+	 * @return true if the session has ended and the schedule can no longer be changed
+	 */
+	synchronized boolean isClosed() {
+		return closed;
+	}
+	
+	/**
+	 * Ends the schedule's session, giving back the seats of every course in it,
+	 * forgetting the changes that could be undone or redone, and detaching it from its
+	 * log. The reset is logged before the schedule is detached, so the log never holds a
+	 * schedule whose seats were given back. From then on every change, undo, and redo is
+	 * rejected, so nothing can take a seat that no session will ever give back.
+	 * @throws IllegalArgumentException if the reset cannot be logged, in which case the
+	 * schedule keeps its courses and seats and is not closed
+	 */
+	synchronized void close() {
+		resetSchedule();
+		undoHistory.clear();
+		redoHistory.clear();
+		setLog(null, null);
+		closed = true;
+	}
+	
+	/**
+	 * Gets the activities in the schedule as it is now. The list is a read only view of
+	 * this version of the schedule, and does not change when the schedule does, so it
+	 * can be kept without copying.
+	 * @return the scheduled activities, in schedule order
+	 */
+	public List<Activity> getScheduleSnapshot() {
+		return schedule;
+	}
+	
+	/**
+	 * Replaces the schedule and title with ones read back from a log, without logging
+	 * them again
+	 * @param title the logged title, or null to keep the current title
+	 * @param activities the logged activities
+	 * @throws IllegalArgumentException if the activities have duplicates or conflicts, or
+	 * a section is full
+	 */
+	synchronized void restoreSchedule(String title, ArrayList<Activity> activities) {
+		replaceSchedule(activities, title == null ? this.title : title, false);
+		undoHistory.clear();
+		redoHistory.clear();
+	}
+	
+	/**
+	 * Starts watching the catalog file, reloading the catalog whenever the file changes.
+	 * Does nothing if the catalog is already being watched.
+	 * @throws IllegalArgumentException if the catalog file cannot be watched
+	 */
+	public synchronized void startCatalogWatch() {
+		if (catalogWatcher != null)	{
+			return;
+		}
 		try	{
-			catalog = CourseRecordIO.readCourseRecords(fileName);
-
-		} catch	(FileNotFoundException e){
-			throw new IllegalArgumentException("Cannot find file.");
-			
+			catalogWatcher = new CatalogWatcher(this, catalogFileName);
+		} catch (IOException e)	{
+			throw new IllegalArgumentException("Cannot watch file.");
 		}
-		
-		
+	}
+	
+	/**
+	 * Stops watching the catalog file
+	 */
+	public synchronized void stopCatalogWatch() {
+		if (catalogWatcher != null)	{
+			catalogWatcher.stop();
+			catalogWatcher = null;
+		}
+	}
+	
+	/**
+	 * Checks whether the scheduled activity at the given index is a course whose section
+	 * was removed from the catalog or changed since it was added to the schedule.
+	 * @param idx the index of the activity in the schedule
+	 * @return true if the activity is a course that should be checked again, false if it
+	 * is up to date, is an event, or idx is not in the schedule
+	 */
+	public boolean needsRevalidation(int idx) {
+		if (idx < 0 || idx >= schedule.size())	{
+			return false;
+		}
+		Activity activity = schedule.get(idx);
+		if (!(activity instanceof Course))	{
+			return false;
+		}
+		Course scheduled = (Course) activity;
+		Course current = catalog.getCourse(scheduled.getName(), scheduled.getSection());
+		return current == null || !current.equals(scheduled);
 	}
 	/**
 	 * This is a method that takes the courses in the catalog and puts
@@ -54,6 +364,7 @@ public class WolfScheduler {
 	 * and the name, section and title in the next columns
 	 */
 	public String[][] getCourseCatalog() {
+		CourseCatalog catalog = this.catalog;
 		
 		if (catalog.size() == 0)	{
 			String [][] empty = new String[0][0];
@@ -69,6 +380,34 @@ public class WolfScheduler {
 		
 		return catalogArray;
 	}
+	
+	/**
+	 * Gets a page of the catalog, with only the rows from offset up to limit, and the
+	 * number of courses in the whole catalog. The fields of each row are formatted only
+	 * when they are read.
+	 * 
+	 * @param offset the index of the first course on the page
+	 * @param limit the most courses on the page
+	 * @return the page of courses, in catalog order
+	 * @throws IllegalArgumentException if offset or limit is negative
+	 */
+	public ActivityPage getCourseCatalog(int offset, int limit) {
+		return new ActivityPage(catalog.getCourses(), offset, limit);
+	}
+	
+	/**
+	 * Searches the catalog for courses whose name starts with the query, such as "CSC 2",
+	 * or whose title has every word of it. The catalog's search indexes are built when
+	 * it is read, so a search only reads them.
+	 * 
+	 * @param query the name prefix or title words to find
+	 * @param limit the most courses to find
+	 * @return the courses found, with name matches first and then title matches
+	 * @throws IllegalArgumentException if query is null or limit is negative
+	 */
+	public List<Course> searchCatalog(String query, int limit) {
+		return catalog.search(query, limit);
+	}
 
 	/**
 	 * This is a method that takes the activities in the schedule and puts
@@ -78,20 +417,35 @@ public class WolfScheduler {
 	 * and the name, section and title in the next columns
 	 */
 	public String[][] getScheduledActivities() {
-		
+		markUsed();
 		if (schedule.size() == 0)	{
 			String [][] empty = new String[0][0];
 			
 			return empty;
 		}
         String [][] scheduleArray = new String[schedule.size()][3];
-        for (int i = 0; i < schedule.size(); i++) {
-            Activity a = schedule.get(i);
-            scheduleArray[i] = a.getShortDisplayArray();
+        int i = 0;
+        for (Activity a : schedule) {
+            scheduleArray[i++] = a.getShortDisplayArray();
         }
         return scheduleArray;
 	}
 	
+	/**
+	 * Gets a page of the schedule, with only the rows from offset up to limit, and the
+	 * number of activities in the whole schedule. The page is of the schedule as it is
+	 * now, and does not change when the schedule does.
+	 * 
+	 * @param offset the index of the first activity on the page
+	 * @param limit the most activities on the page
+	 * @return the page of activities, in schedule order
+	 * @throws IllegalArgumentException if offset or limit is negative
+	 */
+	public ActivityPage getScheduledActivities(int offset, int limit) {
+		markUsed();
+		return new ActivityPage(schedule, offset, limit);
+	}
+	
 	/**
 	 * This is a method that takes the courses in the schedule and puts
 	 * the name, section, title, credits, instructorId, and meeting days into a 2d string array
@@ -100,16 +454,16 @@ public class WolfScheduler {
 	 * and the name, section, title, credits, instructorId, and meetingString in the next columns
 	 */
 	public String[][] getFullScheduledActivities() {
-		
+		markUsed();
 		if (schedule.size() == 0)	{
 			String [][] empty = new String[0][0];
 			
 			return empty;
 		}
         String [][] scheduleArray = new String[schedule.size()][3];
-        for (int i = 0; i < schedule.size(); i++) {
-            Activity a = schedule.get(i);
-            scheduleArray[i] = a.getLongDisplayArray();
+        int i = 0;
+        for (Activity a : schedule) {
+            scheduleArray[i++] = a.getLongDisplayArray();
         }
         return scheduleArray;
 		
@@ -120,7 +474,7 @@ public class WolfScheduler {
 	 * @return the title of the schedule
 	 */
 	public String getScheduleTitle() {
-		
+		markUsed();
 		return title;
 	}
 
@@ -128,14 +482,307 @@ public class WolfScheduler {
 	 * This is a method that saves the schedule to a location writing to a file
 	 * 
 	 * @param fileName the name of the file to save the schedule to
-	 * @throws IllegalArgumentException if FileNotFound exception is caught
+	 * @throws IllegalArgumentException if the file cannot be written
 	 */
 	public void exportSchedule(String fileName) {
-		
+		markUsed();
 		try	{
 			ActivityRecordIO.writeActivityRecords(fileName, schedule);
 		}
-		catch(FileNotFoundException e)	{
+		catch(IOException e)	{
+			throw new IllegalArgumentException("The file cannot be saved.");
+		}
+	}
+	
+	/**
+	 * Replaces the schedule with one saved by exportSchedule. Courses that are unchanged
+	 * in the catalog are taken from the catalog, and any others are kept as saved so
+	 * needsRevalidation reports them. The saved schedule is checked for duplicates and
+	 * conflicts before anything is replaced, so the current schedule is kept if the file
+	 * cannot be imported.
+	 * 
+	 * @param fileName the name of the file to load the schedule from
+	 * @throws IllegalArgumentException if the file cannot be found or read, has a record
+	 * that is not a valid course or event, has duplicate or conflicting activities, has a
+	 * section that is full, or cannot be logged, or the schedule's session has ended
+	 */
+	public synchronized void importSchedule(String fileName) {
+		startChange();
+		ArrayList<Activity> imported;
+		try	{
+			imported = ActivityRecordIO.readActivityRecords(fileName);
+		} catch	(FileNotFoundException e)	{
+			throw new IllegalArgumentException("Cannot find file.");
+		} catch (IOException e)	{
+			throw new IllegalArgumentException("Cannot read file.");
+		} catch (IllegalArgumentException e)	{
+			throw new IllegalArgumentException("The schedule cannot be imported because it has an invalid record.");
+		}
+		replaceSchedule(imported, title, true);
+	}
+	
+	/**
+	 * Replaces the schedule after checking the new activities for duplicates and
+	 * conflicts. Courses that are unchanged in the catalog are taken from the catalog.
+	 * @param imported the new activities
+	 * @param newTitle the title of the new schedule
+	 * @param logged whether to write the new schedule to the log
+	 * @throws IllegalArgumentException if the activities have duplicates or conflicts, a
+	 * section is full, or the new schedule cannot be logged
+	 */
+	private void replaceSchedule(ArrayList<Activity> imported, String newTitle, boolean logged) {
+		HashSet<String> courseNames = new HashSet<String>();
+		HashSet<String> eventTitles = new HashSet<String>();
+		for (int i = 0; i < imported.size(); i++)	{
+			Activity a = imported.get(i);
+			if (a instanceof Course)	{
+				Course saved = (Course) a;
+				Course current = catalog.getCourse(saved.getName(), saved.getSection());
+				if (saved.equals(current))	{
+					imported.set(i, current);
+				}
+				if (!courseNames.add(saved.getName()))	{
+					throw new IllegalArgumentException("The schedule cannot be imported because it has duplicate activities.");
+				}
+			} else if (!eventTitles.add(a.getTitle()))	{
+				throw new IllegalArgumentException("The schedule cannot be imported because it has duplicate activities.");
+			}
+		}
+		if (hasConflict(imported))	{
+			throw new IllegalArgumentException("The schedule cannot be imported due to a conflict.");
+		}
+		
+		HistoryEntry before = new HistoryEntry(schedule, title);
+		moveTo(ScheduleVersion.of(imported), newTitle, logged, "The schedule cannot be imported because a section is full.");
+		remember(before);
+	}
+	
+	/**
+	 * Undoes the last change to the schedule or its title that has not been undone. Seats
+	 * are given back or taken again to match the schedule being returned to.
+	 * @return true if a change was undone, false if there is nothing to undo
+	 * @throws IllegalArgumentException if a section the earlier schedule had is now full,
+	 * or the change cannot be logged, in which case nothing changes, or if the
+	 * schedule's session has ended
+	 */
+	public synchronized boolean undo() {
+		startChange();
+		if (undoHistory.isEmpty())	{
+			return false;
+		}
+		HistoryEntry current = new HistoryEntry(schedule, title);
+		HistoryEntry earlier = undoHistory.peekLast();
+		moveTo(earlier.schedule, earlier.title, true, "The change cannot be undone because a section is full.");
+		undoHistory.removeLast();
+		redoHistory.addLast(current);
+		return true;
+	}
+	
+	/**
+	 * Makes the last undone change again. Making any other change clears the changes
+	 * that can be redone.
+	 * @return true if a change was redone, false if there is nothing to redo
+	 * @throws IllegalArgumentException if a section the later schedule had is now full,
+	 * or the change cannot be logged, in which case nothing changes, or if the
+	 * schedule's session has ended
+	 */
+	public synchronized boolean redo() {
+		startChange();
+		if (redoHistory.isEmpty())	{
+			return false;
+		}
+		HistoryEntry current = new HistoryEntry(schedule, title);
+		HistoryEntry later = redoHistory.peekLast();
+		moveTo(later.schedule, later.title, true, "The change cannot be redone because a section is full.");
+		redoHistory.removeLast();
+		undoHistory.addLast(current);
+		return true;
+	}
+	
+	/**
+	 * Checks if there is a change to undo
+	 * @return true if undo would change the schedule or title
+	 */
+	public synchronized boolean canUndo() {
+		return !undoHistory.isEmpty();
+	}
+	
+	/**
+	 * Checks if there is a change to redo
+	 * @return true if redo would change the schedule or title
+	 */
+	public synchronized boolean canRedo() {
+		return !redoHistory.isEmpty();
+	}
+	
+	/**
+	 * Saves the schedule and title from before a change so the change can be undone, and
+	 * forgets the changes that could be redone. Only the newest MAX_UNDO changes are
+	 * kept, so the oldest is dropped once there are more.
+	 * @param before the schedule and title before the change
+	 */
+	private void remember(HistoryEntry before) {
+		if (undoHistory.size() == MAX_UNDO)	{
+			undoHistory.removeFirst();
+		}
+		undoHistory.addLast(before);
+		redoHistory.clear();
+	}
+	
+	/**
+	 * Replaces the schedule and title with another version. Sections in both keep their
+	 * seats, new sections take a seat, and sections left behind give theirs back.
+	 * @param target the activities to change to
+	 * @param targetTitle the title to change to
+	 * @param logged whether to write the change to the log
+	 * @param fullMessage message for the exception if a new section is full
+	 * @throws IllegalArgumentException if a new section is full or the change cannot be
+	 * logged, in which case nothing changes
+	 */
+	private void moveTo(ScheduleVersion target, String targetTitle, boolean logged, String fullMessage) {
+		ArrayList<Course> reserved = reserveSeats(target, sectionKeys(schedule), fullMessage);
+		if (logged)	{
+			try	{
+				if (target != schedule)	{
+					String[] records = new String[target.size()];
+					int i = 0;
+					for (Activity a : target)	{
+						records[i++] = ScheduleLog.record(a);
+					}
+					log(ScheduleLog.SCHEDULE, records);
+				}
+				if (!targetTitle.equals(title))	{
+					log(ScheduleLog.TITLE, targetTitle);
+				}
+			} catch (IllegalArgumentException e)	{
+				releaseSeats(reserved, null);
+				throw e;
+			}
+		}
+		releaseSeats(schedule, sectionKeys(target));
+		boolean retitled = !targetTitle.equals(title);
+		boolean replaced = target != schedule;
+		schedule = target;
+		title = targetTitle;
+		occupancy.clear();
+		scheduledKeys.clear();
+		for (Activity a : schedule)	{
+			occupancy.add(a);
+			scheduledKeys.add(duplicateKey(a));
+		}
+		for (ScheduleListener listener : listeners)	{
+			if (replaced)	{
+				listener.scheduleReplaced(target);
+			}
+			if (retitled)	{
+				listener.titleChanged(targetTitle);
+			}
+		}
+	}
+	
+	/**
+	 * Takes seats for the courses in the new activities whose sections are not already
+	 * held, so sections in both the current and new schedule keep the seat they have
+	 * @param activities the new activities
+	 * @param held the sections already held, from sectionKeys
+	 * @param fullMessage message for the exception if a section is full
+	 * @return the courses a seat was taken for
+	 * @throws IllegalArgumentException if a section is full, in which case no seats change
+	 */
+	private ArrayList<Course> reserveSeats(List<Activity> activities, HashSet<String> held, String fullMessage) {
+		ArrayList<Course> reserved = new ArrayList<Course>();
+		if (seats == null)	{
+			return reserved;
+		}
+		for (Activity a : activities)	{
+			if (!(a instanceof Course))	{
+				continue;
+			}
+			Course c = (Course) a;
+			if (held.contains(c.getName() + "," + c.getSection()))	{
+				continue;
+			}
+			if (!seats.reserve(c))	{
+				releaseSeats(reserved, null);
+				throw new IllegalArgumentException(fullMessage);
+			}
+			reserved.add(c);
+		}
+		return reserved;
+	}
+	
+	/**
+	 * Gives back the seats of courses whose sections are not kept
+	 * @param activities the activities leaving the schedule
+	 * @param kept the sections that stay in the schedule, from sectionKeys, or null to give
+	 * back every seat
+	 */
+	private void releaseSeats(List<? extends Activity> activities, HashSet<String> kept) {
+		for (Activity a : activities)	{
+			if (a instanceof Course)	{
+				Course c = (Course) a;
+				if (kept == null || !kept.contains(c.getName() + "," + c.getSection()))	{
+					releaseSeat(c);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gets the name and section of every course in a list of activities
+	 * @param activities the activities
+	 * @return the sections, as name and section separated by a comma
+	 */
+	private static HashSet<String> sectionKeys(List<Activity> activities) {
+		HashSet<String> keys = new HashSet<String>();
+		for (Activity a : activities)	{
+			if (a instanceof Course)	{
+				Course c = (Course) a;
+				keys.add(c.getName() + "," + c.getSection());
+			}
+		}
+		return keys;
+	}
+	
+	/**
+	 * Checks a list of activities for any two that conflict with one sweep per day. The
+	 * activities meeting on a day are sorted by start time, and each one conflicts with an
+	 * earlier one exactly when it starts no later than the latest end time seen so far.
+	 * @param activities the activities to check
+	 * @return true if any two of the activities conflict
+	 */
+	private static boolean hasConflict(List<Activity> activities) {
+		Activity[] meetings = new Activity[activities.size()];
+		for (int day = 0; day < Activity.WEEK_DAYS.length(); day++)	{
+			int count = 0;
+			for (int i = 0; i < activities.size(); i++)	{
+				if ((activities.get(i).getMeetingDaysMask() & (1 << day)) != 0)	{
+					meetings[count++] = activities.get(i);
+				}
+			}
+			Arrays.sort(meetings, 0, count, Comparator.comparingInt(Activity::getStartTime));
+			int latestEnd = -1;
+			for (int i = 0; i < count; i++)	{
+				if (meetings[i].getStartTime() <= latestEnd)	{
+					return true;
+				}
+				latestEnd = Math.max(latestEnd, meetings[i].getEndTime());
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * This is a method that saves the catalog as a catalog snapshot so that
+	 * it can be loaded again without parsing the course records file
+	 * 
+	 * @param fileName the name of the file to save the catalog snapshot to
+	 * @throws IllegalArgumentException if the snapshot cannot be written
+	 */
+	public void exportCatalogSnapshot(String fileName) {
+		try	{
+			CatalogSnapshotIO.writeCatalogSnapshot(fileName, catalog.getCourses());
+		} catch (IOException e)	{
 			throw new IllegalArgumentException("The file cannot be saved.");
 		}
 	}
@@ -149,13 +796,37 @@ public class WolfScheduler {
 	 * @return the course with the matching name and section
 	 */
 	public Course getCourseFromCatalog(String name, String section) {
-		for (int i = 0; i < catalog.size(); i++) {
-			if (catalog.get(i).getName().equals(name) && catalog.get(i).getSection().equals(section))	{
-				return catalog.get(i);
-			}
-			
-		}
-		return null;
+		return catalog.getCourse(name, section);
+	}
+	
+	/**
+	 * Generates every combination of catalog sections of the named courses that has no
+	 * conflicts, such as every way to take "CSC 216" and "MA 241" together. Schedules are
+	 * found as the stream is read rather than all at once, and the search is split across
+	 * the fork join pool. The current schedule is not changed.
+	 * 
+	 * @param courseNames the names of the courses to take
+	 * @return a lazy parallel stream of conflict free schedules, each listing one section
+	 * of each named course in the order the names were given
+	 */
+	public Stream<List<Course>> generateSchedules(List<String> courseNames) {
+		return ScheduleGenerator.generate(catalog, courseNames);
+	}
+
+	/**
+	 * Finds the best conflict free schedules of the named courses, ranked by the given
+	 * score, such as ScheduleScore.fewestCampusDays(). Parts of the search that cannot beat
+	 * the schedules already found are skipped. The current schedule is not changed.
+	 *
+	 * @param courseNames the names of the courses to take
+	 * @param score the score to rank schedules by, where higher is better
+	 * @param k the most schedules to return
+	 * @return up to k schedules, best first, each listing one section of each named course
+	 * in the order the names were given
+	 * @throws IllegalArgumentException if score is null or k is negative
+	 */
+	public List<List<Course>> findBestSchedules(List<String> courseNames, ScheduleScore score, int k) {
+		return ScheduleSearch.findBest(catalog, courseNames, score, k);
 	}
 	
 	/**
@@ -167,36 +838,33 @@ public class WolfScheduler {
 	 * @param section the section of the course that is looking to be added
 	 * @return returns true if the course is in the catalog and not in the schedule
 	 * returns false if not in the catalog, or in the schedule
-	 * @throws IllegalArgumentException if the schedule already has the class
+	 * @throws IllegalArgumentException if the schedule already has the class, it conflicts,
+	 * the section is full, or the schedule's session has ended
 	 */
-	public Boolean addCourseToSchedule(String name, String section) {
-		
-		Boolean inCatalog = false;
-		int numInCatalog = 0;
-		
-		for (int i = 0; i < catalog.size(); i++) {
-			if (catalog.get(i).getName().equals(name) && catalog.get(i).getSection().equals(section))	{
-				inCatalog = true;
-				numInCatalog = i;
-			}
-		}
-		if (!inCatalog)	{
+	public synchronized Boolean addCourseToSchedule(String name, String section) {
+		startChange();
+		Course c = getCourseFromCatalog(name, section);
+		if (c == null)	{
 			return false;
 		}
-		Course c = catalog.get(numInCatalog);
-		for (int i = 0; i < schedule.size(); i++)	{
-			if (c.isDuplicate(schedule.get(i)))	{
-				throw new IllegalArgumentException("You are already enrolled in " + name);
-			}
-			try	{
-				c.checkConflict(schedule.get(i));
-			} catch (ConflictException e)	{
-				throw new IllegalArgumentException("The course cannot be added due to a conflict.");
-				
-			}
+		checkCanAdd(c, "You are already enrolled in " + name, "The course cannot be added due to a conflict.");
+		if (seats != null && !seats.reserve(c))	{
+			throw new IllegalArgumentException("The course cannot be added because the section is full.");
+		}
+		try	{
+			log(ScheduleLog.ADD, ScheduleLog.record(c));
+		} catch (IllegalArgumentException e)	{
+			releaseSeat(c);
+			throw e;
 		}
 		
-		schedule.add(c);
+		remember(new HistoryEntry(schedule, title));
+		schedule = schedule.append(c);
+		occupancy.add(c);
+		scheduledKeys.add(duplicateKey(c));
+		for (ScheduleListener listener : listeners)	{
+			listener.activityInserted(schedule.size() - 1, c);
+		}
 		
 		
 		return true;
@@ -205,38 +873,92 @@ public class WolfScheduler {
 	/**
 	 * The method removes activities from the schedule if they exist, and returns true 
 	 * if so, and returns false if the activity does not exist
-	 * @param idx TODO
+	 * @param idx the index of the activity to remove
 	 * @return returns true if the activity can be removed and false if it can not
+	 * @throws IllegalArgumentException if the schedule's session has ended
 	 */
-	public Boolean removeActivityFromSchedule(int idx) {
-		
-		try	{
-			schedule.remove(idx);
-		} catch(IndexOutOfBoundsException e)	{
+	public synchronized Boolean removeActivityFromSchedule(int idx) {
+		startChange();
+		if (idx < 0 || idx >= schedule.size())	{
 			return false;
 		}
+		log(ScheduleLog.REMOVE, Integer.toString(idx));
+		Activity removed = schedule.get(idx);
+		remember(new HistoryEntry(schedule, title));
+		schedule = schedule.removeAt(idx);
+		occupancy.remove(removed);
+		scheduledKeys.remove(duplicateKey(removed));
+		releaseSeat(removed);
+		for (ScheduleListener listener : listeners)	{
+			listener.activityRemoved(idx, removed);
+		}
 		
 		return true;
 	}
 	
 	/**
-	 * Resets the schedule ArrayList
+	 * Resets the schedule, giving back the seats of every course in it
+	 * @throws IllegalArgumentException if the schedule's session has ended
+	 */
+	public synchronized void resetSchedule() {
+		startChange();
+		log(ScheduleLog.RESET);
+		releaseSeats(schedule, null);
+		remember(new HistoryEntry(schedule, title));
+		schedule = ScheduleVersion.EMPTY;
+		occupancy.clear();
+		scheduledKeys.clear();
+		for (ScheduleListener listener : listeners)	{
+			listener.scheduleReplaced(schedule);
+		}
+	}
+	
+	/**
+	 * Writes a change to the log, if the schedule is attached to one, and waits until it
+	 * is on disk
+	 * @param op the kind of change
+	 * @param values the values of the change
+	 * @throws IllegalArgumentException if the change cannot be written
 	 */
-	public void resetSchedule() {
-		schedule = new ArrayList<Activity>();
+	private void log(char op, String... values) {
+		if (log == null)	{
+			return;
+		}
+		try	{
+			log.append(logId, op, values);
+		} catch (IOException e)	{
+			throw new IllegalArgumentException("The schedule cannot be saved.");
+		}
+	}
+	
+	/**
+	 * Gives back the seat of an activity leaving the schedule if it is a course
+	 * @param activity the activity leaving the schedule
+	 */
+	private void releaseSeat(Activity activity) {
+		if (seats != null && activity instanceof Course)	{
+			seats.release((Course) activity);
+		}
 	}
 
 	/**
 	 * Sets the title for the schedule
 	 * 
 	 * @param title the title of the wanted schedule
-	 * @throws IllegalArgumentException if the title provided is null
+	 * @throws IllegalArgumentException if the title provided is null or the schedule's
+	 * session has ended
 	 */
-	public void setScheduleTitle(String title) {
+	public synchronized void setScheduleTitle(String title) {
+		startChange();
 		if (title == null)	{
 			throw new IllegalArgumentException("Title cannot be null.");
 		}
+		log(ScheduleLog.TITLE, title);
+		remember(new HistoryEntry(schedule, this.title));
 		this.title = title;
+		for (ScheduleListener listener : listeners)	{
+			listener.titleChanged(title);
+		}
 		
 	}
 	/**
@@ -246,27 +968,62 @@ public class WolfScheduler {
 	 * @param eventStartTime the start time of the event
 	 * @param eventEndTime the end time of the event
 	 * @param eventDetails the details behind the event
-	 * @throws IllegalArgumentException if the event is already in the schedule
+	 * @throws IllegalArgumentException if the event is already in the schedule or the
+	 * schedule's session has ended
 	 */
-	public void addEventToSchedule(String eventTitle, String eventMeetingDays, int eventStartTime, int eventEndTime, String eventDetails)	{
+	public synchronized void addEventToSchedule(String eventTitle, String eventMeetingDays, int eventStartTime, int eventEndTime, String eventDetails)	{
+		startChange();
 		Event event = new Event(eventTitle, eventMeetingDays, eventStartTime, eventEndTime, eventDetails);
 		
-		for (int i = 0; i < schedule.size(); i++)	{
-			if (event.isDuplicate(schedule.get(i)))	{
-				throw new IllegalArgumentException("You have already created an event called " + eventTitle);
-				
-			}
-			
-			try	{
-				event.checkConflict(schedule.get(i));
-			} catch (ConflictException e)	{
-				throw new IllegalArgumentException("The event cannot be added due to a conflict.");
-				
-			}
-		}
+		checkCanAdd(event, "You have already created an event called " + eventTitle, "The event cannot be added due to a conflict.");
+		log(ScheduleLog.ADD, ScheduleLog.record(event));
 		
-		schedule.add(event);
+		remember(new HistoryEntry(schedule, title));
+		schedule = schedule.append(event);
+		occupancy.add(event);
+		scheduledKeys.add(duplicateKey(event));
+		for (ScheduleListener listener : listeners)	{
+			listener.activityInserted(schedule.size() - 1, event);
+		}
 		
 	}
+	
+	/**
+	 * Checks that the activity is not a duplicate of and does not conflict with anything in
+	 * the schedule. If the activity has both problems, the one with the activity earliest in
+	 * the schedule is reported. Duplicates are found with the set of scheduled names and
+	 * titles and conflicts with the occupancy grid, so neither check looks at every
+	 * scheduled activity. Only a duplicate walks the schedule, to find which problem comes
+	 * first.
+	 * @param activity the activity that is going to be added
+	 * @param duplicateMessage message for the exception if the activity is a duplicate
+	 * @param conflictMessage message for the exception if the activity conflicts
+	 * @throws IllegalArgumentException if the activity is a duplicate or conflicts
+	 */
+	private void checkCanAdd(Activity activity, String duplicateMessage, String conflictMessage) {
+		if (scheduledKeys.contains(duplicateKey(activity)))	{
+			for (Activity scheduled : schedule)	{
+				if (activity.isDuplicate(scheduled))	{
+					throw new IllegalArgumentException(duplicateMessage);
+				}
+				if (activity.conflictsWith(scheduled))	{
+					throw new IllegalArgumentException(conflictMessage);
+				}
+			}
+		}
+		if (occupancy.conflicts(activity))	{
+			throw new IllegalArgumentException(conflictMessage);
+		}
+	}
+
+	/**
+	 * Gets the key that an activity shares with its duplicates, which is the name of a
+	 * course or the title of an event, as compared by isDuplicate
+	 * @param activity the activity
+	 * @return the key, which is never the same for a course and an event
+	 */
+	private static String duplicateKey(Activity activity) {
+		return (activity instanceof Course ? "C," + ((Course) activity).getName() : "E," + activity.getTitle());
+	}
 
 }
@@ -9,6 +9,9 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -23,6 +26,7 @@ import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
 import javax.swing.border.Border;
 import javax.swing.border.EtchedBorder;
 import javax.swing.border.TitledBorder;
@@ -30,7 +34,11 @@ import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.table.AbstractTableModel;
 
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.ActivityPage;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.CatalogDiff;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.ScheduleListener;
 import edu.ncsu.csc216.wolf_scheduler.scheduler.WolfScheduler;
 
 /**
@@ -337,8 +345,6 @@ public class WolfSchedulerGUI extends JFrame {
 			scrollSchedule.setBorder(borderSchedule);
 			scrollSchedule.setToolTipText(scheduler.getScheduleTitle());
 			
-			updateTables();
-			
 			//Set up the course details panel
 			pnlCourseDetails = new JPanel();
 			pnlCourseDetails.setLayout(new GridLayout(4, 1));
@@ -525,7 +531,6 @@ public class WolfSchedulerGUI extends JFrame {
 						JOptionPane.showMessageDialog(WolfSchedulerGUI.this, iae.getMessage());
 					}
 				}
-				updateTables();
 			} else if (e.getSource() == btnRemoveCourse) {
 				int row = tableSchedule.getSelectedRow();
 				if (row == -1 || row == tableSchedule.getRowCount()) {
@@ -533,10 +538,8 @@ public class WolfSchedulerGUI extends JFrame {
 				} else {
 					scheduler.removeActivityFromSchedule(row);
 				}
-				updateTables();
 			} else if (e.getSource() == btnReset) {
 				scheduler.resetSchedule();
-				updateTables();
 			} else if (e.getSource() == btnDisplay) {
 				cardLayout.show(panel, SCHEDULE_PANEL);
 				pnlSchedule.updateFinalizedTable();
@@ -623,7 +626,6 @@ public class WolfSchedulerGUI extends JFrame {
 					scheduler.addEventToSchedule(txtEventTitle.getText(), eventMeetingDays, eventStartTime, eventEndTime, txtDetails.getText());
 					
 					resetEvent();
-					updateTables();
 				} catch (IllegalArgumentException iae) {
 					String message = iae.getMessage();
 					if (message == null || "".equals(message)) {
@@ -658,14 +660,6 @@ public class WolfSchedulerGUI extends JFrame {
 			txtDetails.setText("");
 		}
 		
-		/**
-		 * Updates the catalog and schedule tables.
-		 */
-		private void updateTables() {
-			catalogTableModel.updateData();
-			scheduleTableModel.updateData();
-		}
-		
 		/**
 		 * Updates the pnlCourseDetails with full information about the most
 		 * recently selected course.
@@ -684,17 +678,20 @@ public class WolfSchedulerGUI extends JFrame {
 		
 		/**
 		 * {@link CourseTableModel} is the object underlying the {@link JTable} object that displays
-		 * the list of {@link Course}s to the user.
+		 * the list of {@link Course}s to the user. It listens to the {@link WolfScheduler} so
+		 * only the rows that change are updated.
 		 * @author Sarah Heckman
 		 */
-		private class CourseTableModel extends AbstractTableModel {
+		private class CourseTableModel extends AbstractTableModel implements ScheduleListener {
 			
 			/** ID number used for object serialization. */
 			private static final long serialVersionUID = 1L;
 			/** Column names for the table */
 			private String [] columnNames = {"Name", "Section", "Title", "Meeting Information"};
-			/** Data stored in the table */
-			private Object [][] data;
+			/** Data stored in the table, one array per row */
+			private ArrayList<Object[]> data;
+			/** Rows of the catalog, which are only formatted as the table shows them */
+			private ActivityPage catalogRows;
 			/** Boolean flag if the model applies to the catalog or schedule */
 			private boolean catalog;
 			
@@ -706,6 +703,7 @@ public class WolfSchedulerGUI extends JFrame {
 			public CourseTableModel(boolean catalog) {
 				this.catalog = catalog;
 				updateData();
+				scheduler.addScheduleListener(this);
 			}
 
 			/**
@@ -721,9 +719,11 @@ public class WolfSchedulerGUI extends JFrame {
 			 * @return the number of rows in the table.
 			 */
 			public int getRowCount() {
+				if (catalog)
+					return catalogRows == null ? 0 : catalogRows.size();
 				if (data == null) 
 					return 0;
-				return data.length;
+				return data.size();
 			}
 			
 			/**
@@ -742,23 +742,28 @@ public class WolfSchedulerGUI extends JFrame {
 			 * @return the data at the given location.
 			 */
 			public Object getValueAt(int row, int col) {
-				if (data == null)
+				if (catalog ? catalogRows == null : data == null)
 					return null;
 				try {
-					return data[row][col];
-				} catch (ArrayIndexOutOfBoundsException e) {
+					if (catalog) {
+						return catalogRows.get(row).getShortField(col);
+					}
+					return data.get(row)[col];
+				} catch (IndexOutOfBoundsException e) {
 					return null;
 				}
 			}
 			
 			/**
-			 * Sets the given value to the given {row, col} location.
+			 * Sets the given value to the given {row, col} location. Catalog rows cannot be changed.
 			 * @param value Object to modify in the data.
 			 * @param row location to modify the data.
 			 * @param col location to modify the data.
 			 */
 			public void setValueAt(Object value, int row, int col) {
-				data[row][col] = value;
+				if (catalog)
+					return;
+				data.get(row)[col] = value;
 				fireTableCellUpdated(row, col);
 			}
 			
@@ -767,9 +772,64 @@ public class WolfSchedulerGUI extends JFrame {
 			 */
 			private void updateData() {
 				if (catalog) {
-					data = scheduler.getCourseCatalog();
+					catalogRows = scheduler.getCourseCatalog(0, Integer.MAX_VALUE);
 				} else {
-					data = scheduler.getScheduledActivities();
+					data = new ArrayList<Object[]>(Arrays.asList(scheduler.getScheduledActivities()));
+				}
+			}
+			
+			/**
+			 * Adds the row of an activity added to the schedule.
+			 * @param idx index of the activity
+			 * @param activity the activity
+			 */
+			@Override
+			public void activityInserted(int idx, Activity activity) {
+				if (!catalog) {
+					data.add(idx, activity.getShortDisplayArray());
+					fireTableRowsInserted(idx, idx);
+				}
+			}
+			
+			/**
+			 * Removes the row of an activity removed from the schedule.
+			 * @param idx index of the activity
+			 * @param activity the activity
+			 */
+			@Override
+			public void activityRemoved(int idx, Activity activity) {
+				if (!catalog) {
+					data.remove(idx);
+					fireTableRowsDeleted(idx, idx);
+				}
+			}
+			
+			/**
+			 * Replaces every row when the whole schedule is replaced.
+			 * @param schedule the new schedule
+			 */
+			@Override
+			public void scheduleReplaced(List<Activity> schedule) {
+				if (!catalog) {
+					data = new ArrayList<Object[]>(schedule.size());
+					for (Activity a : schedule) {
+						data.add(a.getShortDisplayArray());
+					}
+					fireTableDataChanged();
+				}
+			}
+			
+			/**
+			 * Rebuilds the catalog rows on the event dispatch thread when the catalog is reloaded.
+			 * @param diff the sections added, removed, and changed
+			 */
+			@Override
+			public void catalogReloaded(CatalogDiff diff) {
+				if (catalog) {
+					SwingUtilities.invokeLater(() -> {
+						updateData();
+						fireTableDataChanged();
+					});
 				}
 			}
 		}
@@ -866,27 +926,27 @@ public class WolfSchedulerGUI extends JFrame {
 		}
 		
 		/**
-		 * Updates the finalized schedule table
+		 * Updates the title of the finalized schedule table. The rows keep themselves up to date.
 		 */
 		public void updateFinalizedTable() {
-			scheduleTableModel.updateData();
 			borderSchedule.setTitle(scheduler.getScheduleTitle());
 			scrollSchedule.setToolTipText(scheduler.getScheduleTitle());
 		}
 		
 		/**
 		 * {@link FullCourseTableModel} is the object underlying the {@link JTable} object that displays
-		 * the list of {@link Course}s, and all their data, to the user.
+		 * the list of {@link Course}s, and all their data, to the user. It listens to the
+		 * {@link WolfScheduler} so only the rows that change are updated.
 		 * @author Sarah Heckman
 		 */
-		private class FullCourseTableModel extends AbstractTableModel {
+		private class FullCourseTableModel extends AbstractTableModel implements ScheduleListener {
 			
 			/** ID number used for object serialization. */
 			private static final long serialVersionUID = 1L;
 			/** Column names for the table */
 			private String [] columnNames = {"Name", "Section", "Title", "Credits", "Instructor", "Meeting Information", "Details"};
-			/** Data stored in the table */
-			private Object [][] data;
+			/** Data stored in the table, one array per row */
+			private ArrayList<Object[]> data;
 			
 			/**
 			 * Constructs the {@link CourseTableModel} by requesting the latest information
@@ -894,6 +954,7 @@ public class WolfSchedulerGUI extends JFrame {
 			 */
 			public FullCourseTableModel() {
 				updateData();
+				scheduler.addScheduleListener(this);
 			}
 
 			/**
@@ -911,7 +972,7 @@ public class WolfSchedulerGUI extends JFrame {
 			public int getRowCount() {
 				if (data == null) 
 					return 0;
-				return data.length;
+				return data.size();
 			}
 			
 			/**
@@ -933,8 +994,8 @@ public class WolfSchedulerGUI extends JFrame {
 				if (data == null)
 					return null;
 				try {
-					return data[row][col];
-				} catch (ArrayIndexOutOfBoundsException e) {
+					return data.get(row)[col];
+				} catch (IndexOutOfBoundsException e) {
 					return null;
 				}
 			}
@@ -946,7 +1007,7 @@ public class WolfSchedulerGUI extends JFrame {
 			 * @param col location to modify the data.
 			 */
 			public void setValueAt(Object value, int row, int col) {
-				data[row][col] = value;
+				data.get(row)[col] = value;
 				fireTableCellUpdated(row, col);
 			}
 			
@@ -954,7 +1015,42 @@ public class WolfSchedulerGUI extends JFrame {
 			 * Updates the given model with {@link Course} information from the {@link WolfScheduler}.
 			 */
 			private void updateData() {
-				data = scheduler.getFullScheduledActivities();
+				data = new ArrayList<Object[]>(Arrays.asList(scheduler.getFullScheduledActivities()));
+			}
+			
+			/**
+			 * Adds the row of an activity added to the schedule.
+			 * @param idx index of the activity
+			 * @param activity the activity
+			 */
+			@Override
+			public void activityInserted(int idx, Activity activity) {
+				data.add(idx, activity.getLongDisplayArray());
+				fireTableRowsInserted(idx, idx);
+			}
+			
+			/**
+			 * Removes the row of an activity removed from the schedule.
+			 * @param idx index of the activity
+			 * @param activity the activity
+			 */
+			@Override
+			public void activityRemoved(int idx, Activity activity) {
+				data.remove(idx);
+				fireTableRowsDeleted(idx, idx);
+			}
+			
+			/**
+			 * Replaces every row when the whole schedule is replaced.
+			 * @param schedule the new schedule
+			 */
+			@Override
+			public void scheduleReplaced(List<Activity> schedule) {
+				data = new ArrayList<Object[]>(schedule.size());
+				for (Activity a : schedule) {
+					data.add(a.getLongDisplayArray());
+				}
+				fireTableDataChanged();
 			}
 		}
 		
@@ -63,4 +63,46 @@ class ActivityTest {
 	    assertEquals("Schedule conflict.", e6.getMessage());
 	}
 
+	/**
+	 * Tests that the meeting days mask has one bit for each meeting day and
+	 * that conflicts between courses and events use it.
+	 */
+	@Test
+	public void testMeetingDaysMask() {
+		Activity a1 = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 1330, 1445);
+		Activity a2 = new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A");
+		Activity a3 = new Event("Exercise", "UWS", 1400, 1500, "");
+		Activity a4 = new Event("Lunch", "UTHS", 1400, 1500, "");
+		
+		assertEquals(0b0001010, a1.getMeetingDaysMask());
+		assertEquals(0, a2.getMeetingDaysMask());
+		assertEquals(0b1001001, a3.getMeetingDaysMask());
+		
+		assertThrows(ConflictException.class, () -> a1.checkConflict(a3));
+		assertThrows(ConflictException.class, () -> a3.checkConflict(a1));
+		assertDoesNotThrow(() -> a1.checkConflict(a4));
+		assertDoesNotThrow(() -> a2.checkConflict(a3));
+		assertDoesNotThrow(() -> a3.checkConflict(a2));
+	}
+	
+	/**
+	 * Tests that conflictsWith agrees with checkConflict, including activities that
+	 * only share their first or last minute.
+	 */
+	@Test
+	public void testConflictsWith() {
+		Activity a1 = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 1330, 1445);
+		Activity a2 = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445);
+		Activity a3 = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "M", 1445, 1600);
+		Activity a4 = new Event("Lunch", "W", 1200, 1330, "");
+		Activity a5 = new Event("Dinner", "W", 1800, 1900, "");
+		
+		assertFalse(a1.conflictsWith(a2));
+		assertTrue(a1.conflictsWith(a3));
+		assertTrue(a3.conflictsWith(a1));
+		assertTrue(a4.conflictsWith(a1));
+		assertFalse(a5.conflictsWith(a1));
+		assertFalse(a3.conflictsWith(a4));
+	}
+
 }
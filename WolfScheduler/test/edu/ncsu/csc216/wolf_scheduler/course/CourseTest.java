@@ -491,4 +491,24 @@ public class CourseTest {
 		assertEquals(s2, c2.toString());
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Tests that isValid agrees with the constructor on valid and invalid values.
+	 */
+	@Test
+	public void testIsValid() {
+		assertTrue(Course.isValid(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME));
+		assertTrue(Course.isValid(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "A", 0, 0));
+		
+		assertFalse(Course.isValid("CSC216", TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME));
+		assertFalse(Course.isValid(NAME, "", SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME));
+		assertFalse(Course.isValid(NAME, TITLE, "01", CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME));
+		assertFalse(Course.isValid(NAME, TITLE, SECTION, 6, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME));
+		assertFalse(Course.isValid(NAME, TITLE, SECTION, CREDITS, null, MEETING_DAYS, START_TIME, END_TIME));
+		assertFalse(Course.isValid(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "MWM", START_TIME, END_TIME));
+		assertFalse(Course.isValid(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "", START_TIME, END_TIME));
+		assertFalse(Course.isValid(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "A", START_TIME, END_TIME));
+		assertFalse(Course.isValid(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, END_TIME, START_TIME));
+		assertFalse(Course.isValid(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, 1360, END_TIME));
+	}
+
+}
@@ -1,11 +1,18 @@
 package edu.ncsu.csc216.wolf_scheduler.io;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.Scanner;
 
 import org.junit.Test;
@@ -60,6 +67,146 @@ public class ActivityRecordIOTest {
 		checkFiles("test-files/expected_activity_records.txt", "test-files/actual_activity_records.txt");
 	}
 
+	/**
+	 * Tests writeActivityRecords() to a stream, and that appendRecord() matches toString().
+	 */
+	@Test
+	public void testWriteActivityRecordsToStream() {
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Course("CSC 116", "Intro to Programming - Java", "003", 3, "spbalik", "MW", 1250, 1440));
+		activities.add(new Event("Exercise", "UMTHFS", 800, 900, "Cardio with rest day on Wednesday."));
+		activities.add(new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A"));
+		activities.add(new Event("Lunch", "S", 1200, 1230, ""));
+		
+		StringBuilder expected = new StringBuilder();
+		for (Activity a : activities) {
+			StringBuilder record = new StringBuilder();
+			try {
+				a.appendRecord(record);
+			} catch (IOException e) {
+				fail("Cannot append to a StringBuilder");
+			}
+			assertEquals(a.toString(), record.toString());
+			expected.append(a.toString()).append(System.lineSeparator());
+		}
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			ActivityRecordIO.writeActivityRecords(out, activities);
+		} catch (IOException e) {
+			fail("Cannot write to stream");
+		}
+		assertEquals(expected.toString(), out.toString());
+	}
+	
+	/**
+	 * Tests that writeActivityRecords() leaves the old file in place when writing fails
+	 * partway through, and leaves no temporary file behind.
+	 * @throws IOException if the test directory cannot be used
+	 */
+	@Test
+	public void testWriteActivityRecordsFailure() throws IOException {
+		Path dir = Files.createTempDirectory("activity_records");
+		Path file = dir.resolve("schedule.txt");
+		try {
+			Files.write(file, "old schedule".getBytes());
+			Activity course = new Course("CSC 116", "Intro to Programming - Java", "003", 3, "spbalik", "MW", 1250, 1440);
+			Iterable<Activity> failing = () -> new Iterator<Activity>() {
+				private int count;
+				
+				@Override
+				public boolean hasNext() {
+					return true;
+				}
+				
+				@Override
+				public Activity next() {
+					if (count++ == 1000) {
+						throw new IllegalStateException("Export failed");
+					}
+					return course;
+				}
+			};
+			try {
+				ActivityRecordIO.writeActivityRecords(file.toString(), failing);
+				fail("Export should fail");
+			} catch (IllegalStateException e) {
+				assertEquals("Export failed", e.getMessage());
+			}
+			assertEquals("old schedule", new String(Files.readAllBytes(file)));
+			assertEquals(1, dir.toFile().list().length);
+			
+			try {
+				ActivityRecordIO.writeActivityRecords(dir.resolve("missing").resolve("schedule.txt").toString(), new ArrayList<Activity>());
+				fail("Export to a missing directory should fail");
+			} catch (IOException e) {
+				assertEquals(1, dir.toFile().list().length);
+			}
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(dir);
+		}
+	}
+
+	/**
+	 * Tests readActivityRecords() on a file written by writeActivityRecords(), with
+	 * event details holding commas, blank lines, and lines that are not activities.
+	 * @throws IOException if the test file cannot be written
+	 */
+	@Test
+	public void testReadActivityRecords() throws IOException {
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		try {
+			activities = ActivityRecordIO.readActivityRecords("test-files/expected_activity_records.txt");
+		} catch (IOException e) {
+			fail("Cannot read activity records file");
+		}
+		assertEquals(4, activities.size());
+		assertTrue(activities.get(0) instanceof Course);
+		assertTrue(activities.get(1) instanceof Event);
+		assertEquals("Exercise,UMTHFS,800,900,Cardio with rest day on Wednesday.", activities.get(1).toString());
+		assertEquals(new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A"), activities.get(3));
+		
+		Path file = Files.createTempFile("activity_records", ".txt");
+		try {
+			ArrayList<Activity> written = new ArrayList<Activity>();
+			written.add(new Event("Lunch", "S", 1200, 1230, ""));
+			written.add(new Event("Study", "MW", 1800, 2000, "Library, third floor, by the windows"));
+			written.add(new Course("CSC 230", "C and Software Tools", "001", 3, "dbsturgi", "MW", 1145, 1300));
+			ActivityRecordIO.writeActivityRecords(file.toString(), written);
+			Files.write(file, "\n".getBytes(), StandardOpenOption.APPEND);
+			
+			ArrayList<Activity> read = ActivityRecordIO.readActivityRecords(file.toString());
+			assertEquals(written.size(), read.size());
+			for (int i = 0; i < written.size(); i++) {
+				assertEquals(written.get(i).toString(), read.get(i).toString());
+				assertEquals(written.get(i).getClass(), read.get(i).getClass());
+			}
+			
+			String[] invalid = {"not an activity", "CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330",
+					"Gym,MX,800,900,Cardio", "Gym,M,800,nine,Cardio", "Lunch, break,MW,1200,1300,Cafe"};
+			for (String record : invalid) {
+				ActivityRecordIO.writeActivityRecords(file.toString(), written);
+				Files.write(file, (record + "\n").getBytes(), StandardOpenOption.APPEND);
+				try {
+					ActivityRecordIO.readActivityRecords(file.toString());
+					fail("Reading an invalid record should fail: " + record);
+				} catch (IllegalArgumentException e) {
+					assertEquals("Invalid activity record.", e.getMessage());
+				}
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+		
+		try {
+			ActivityRecordIO.readActivityRecords("test-files/no_file.txt");
+			fail("Reading a missing file should fail");
+		} catch (FileNotFoundException e) {
+			//Expected
+		}
+	}
+
 	/**
 	 * Helper method to compare two files for the same contents
 	 * @param expFile expected output
@@ -0,0 +1,112 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests CatalogSnapshotIO.
+ * @author William Krajcovic
+ *
+ */
+public class CatalogSnapshotIOTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/starter_course_records.txt";
+	
+	/**
+	 * Tests that a catalog written with writeCatalogSnapshot() reads back the same
+	 * Courses in the same order.
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	@Test
+	public void testWriteAndReadCatalogSnapshot() throws IOException {
+		ArrayList<Course> catalog = CourseRecordIO.readCourseRecords(validTestFile);
+		Path snapshot = Files.createTempFile("catalog", ".snapshot");
+		try	{
+			CatalogSnapshotIO.writeCatalogSnapshot(snapshot.toString(), catalog);
+			assertTrue(CatalogSnapshotIO.isCatalogSnapshot(snapshot.toString()));
+			
+			ArrayList<Course> read = CatalogSnapshotIO.readCatalogSnapshot(snapshot.toString());
+			assertEquals(catalog.size(), read.size());
+			for (int i = 0; i < catalog.size(); i++)	{
+				assertEquals(catalog.get(i), read.get(i));
+				assertEquals(catalog.get(i).toString(), read.get(i).toString());
+			}
+		} finally	{
+			Files.deleteIfExists(snapshot);
+		}
+	}
+	
+	/**
+	 * Tests that course records files are not mistaken for snapshots and that bad
+	 * snapshots are rejected.
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	@Test
+	public void testReadInvalidCatalogSnapshot() throws IOException {
+		assertFalse(CatalogSnapshotIO.isCatalogSnapshot(validTestFile));
+		assertFalse(CatalogSnapshotIO.isCatalogSnapshot("test-files/expected_empty_export.txt"));
+		assertThrows(IOException.class, () -> CatalogSnapshotIO.readCatalogSnapshot(validTestFile));
+		
+		Path snapshot = Files.createTempFile("catalog", ".snapshot");
+		try	{
+			CatalogSnapshotIO.writeCatalogSnapshot(snapshot.toString(), CourseRecordIO.readCourseRecords(validTestFile));
+			byte[] bytes = Files.readAllBytes(snapshot);
+			
+			//Cut off the last record
+			byte[] truncated = new byte[bytes.length - 4];
+			System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+			Files.write(snapshot, truncated);
+			Exception e = assertThrows(IOException.class, () -> CatalogSnapshotIO.readCatalogSnapshot(snapshot.toString()));
+			assertEquals("Catalog snapshot is truncated.", e.getMessage());
+		} finally	{
+			Files.deleteIfExists(snapshot);
+		}
+	}
+
+	/**
+	 * Tests that counts and lengths too big for the file are rejected before anything is
+	 * allocated for them.
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	@Test
+	public void testReadCatalogSnapshotHugeCounts() throws IOException {
+		Path snapshot = Files.createTempFile("catalog", ".snapshot");
+		try	{
+			int[][] headers = {
+				{Integer.MAX_VALUE},
+				{1, Integer.MAX_VALUE},
+				{0, Integer.MAX_VALUE},
+				{0, 1},
+				{-1}
+			};
+			for (int[] header : headers)	{
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				try (DataOutputStream out = new DataOutputStream(bytes))	{
+					out.writeInt(0xFF574353);
+					out.writeInt(1);
+					for (int value : header)	{
+						out.writeInt(value);
+					}
+				}
+				Files.write(snapshot, bytes.toByteArray());
+				Exception e = assertThrows(IOException.class, () -> CatalogSnapshotIO.readCatalogSnapshot(snapshot.toString()));
+				assertEquals(header[header.length - 1] < 0 ? "Invalid count in catalog snapshot." : "Catalog snapshot is truncated.",
+						e.getMessage());
+			}
+		} finally	{
+			Files.deleteIfExists(snapshot);
+		}
+	}
+
+}
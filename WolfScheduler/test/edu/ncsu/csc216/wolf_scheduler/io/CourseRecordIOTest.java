@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -16,6 +17,7 @@ import java.util.Scanner;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.load.CatalogGenerator;
 
 /**
  * Tests CouresRecordIO.
@@ -108,6 +110,125 @@ public class CourseRecordIOTest {
 		}
 	}
 	
+	/**
+	 * Tests that readCourseRecordsParallel() gives the same Courses in the same order as
+	 * readCourseRecords(), including when lines are spread over many small chunks.
+	 */
+	@Test
+	public void testReadCourseRecordsParallel() {
+		try {
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecordsParallel(validTestFile);
+			assertEquals(13, courses.size());
+			for (int i = 0; i < validCourses.length; i++) {
+				assertEquals(validCourses[i], courses.get(i).toString());
+			}
+			
+			assertEquals(0, CourseRecordIO.readCourseRecordsParallel(invalidTestFile).size());
+			
+			//Chunks smaller than a line still split on line boundaries
+			for (int chunkSize = 1; chunkSize < 200; chunkSize += 37) {
+				assertEquals(CourseRecordIO.readCourseRecords(validTestFile).toString(), 
+						CourseRecordIO.readCourseRecordsParallel(validTestFile, chunkSize).toString());
+			}
+		} catch (IOException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+		
+		assertThrows(FileNotFoundException.class, () -> CourseRecordIO.readCourseRecordsParallel("test-files/not_a_file.txt"));
+	}
+	
+	/**
+	 * Tests that readCourseRecords() keeps the first of several records with the same
+	 * name and section. How load time grows with the file is checked by
+	 * testReadCourseRecordsScaling and measured by the readCourseRecords benchmarks.
+	 */
+	@Test
+	public void testReadCourseRecordsDuplicates() {
+		Path file = null;
+		try {
+			file = Files.createTempFile("course_records", ".txt");
+			int lines = 20000;
+			int unique = 0;
+			try (PrintStream out = new PrintStream(file.toFile())) {
+				//Every tenth line repeats the name and section of the line before it
+				for (int i = 0; i < lines; i++) {
+					int id = i % 10 == 9 ? unique - 1 : unique++;
+					out.println("CSC " + String.format("%03d", id / 1000) + ",Title " + i + ","
+							+ String.format("%03d", id % 1000) + ",3,instr" + i + ",MW,1330,1445");
+				}
+			}
+			
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(file.toString());
+			assertEquals(unique, courses.size());
+			assertEquals(lines - lines / 10, courses.size());
+			//Line 9 repeats line 8, so line 8 must be the one kept
+			assertEquals("Title 8", courses.get(8).getTitle());
+			assertEquals("Title 10", courses.get(9).getTitle());
+			
+			//Generated catalogs mix duplicates and invalid lines in among the rest
+			CatalogGenerator generator = new CatalogGenerator(216, 0.2, 0.05);
+			generator.write(file.toString(), lines);
+			assertTrue(generator.getDuplicateLines() > 0);
+			assertEquals(generator.getValidLines(), CourseRecordIO.readCourseRecords(file.toString()).size());
+			assertEquals(generator.getValidLines(), CourseRecordIO.readCourseRecordsParallel(file.toString()).size());
+		} catch (IOException e) {
+			fail("Unable to create duplicate course records file");
+		} finally {
+			if (file != null) {
+				file.toFile().delete();
+			}
+		}
+	}
+	
+	/**
+	 * Tests that readCourseRecords() time per line stays about the same from 2k to 200k
+	 * lines. The bound is loose so a busy machine does not fail it, but a duplicate check
+	 * that looks at every earlier course would be around 100 times slower per line.
+	 */
+	@Test
+	public void testReadCourseRecordsScaling() {
+		Path small = null;
+		Path large = null;
+		try {
+			small = Files.createTempFile("course_records", ".txt");
+			large = Files.createTempFile("course_records", ".txt");
+			new CatalogGenerator(216, 0.1, 0.05).write(small.toString(), 2000);
+			new CatalogGenerator(216, 0.1, 0.05).write(large.toString(), 200000);
+			
+			//Warm up so the small file isn't paying for class loading and JIT
+			fastestRead(small);
+			double perLineSmall = fastestRead(small) / 2000.0;
+			double perLineLarge = fastestRead(large) / 200000.0;
+			assertTrue(perLineLarge < perLineSmall * 10, "Load time per line grew from " + perLineSmall + "ns to " + perLineLarge + "ns");
+		} catch (IOException e) {
+			fail("Unable to create scaling course records file");
+		} finally {
+			if (small != null) {
+				small.toFile().delete();
+			}
+			if (large != null) {
+				large.toFile().delete();
+			}
+		}
+	}
+	
+	/**
+	 * Reads a course records file a few times and gives the fastest time, so one slow
+	 * read on a busy machine does not count
+	 * @param file the file to read
+	 * @return the fewest nanoseconds readCourseRecords() took
+	 * @throws IOException if the file cannot be read
+	 */
+	private long fastestRead(Path file) throws IOException {
+		long fastest = Long.MAX_VALUE;
+		for (int i = 0; i < 3; i++) {
+			long start = System.nanoTime();
+			CourseRecordIO.readCourseRecords(file.toString());
+			fastest = Math.min(fastest, System.nanoTime() - start);
+		}
+		return fastest;
+	}
+	
 	/**
 	 * Tests writeCourseRecords()
 	 */
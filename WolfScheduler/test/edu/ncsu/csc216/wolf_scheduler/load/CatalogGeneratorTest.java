@@ -0,0 +1,96 @@
+package edu.ncsu.csc216.wolf_scheduler.load;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+
+/**
+ * Tests CatalogGenerator.
+ * @author William Krajcovic
+ *
+ */
+public class CatalogGeneratorTest {
+
+	/**
+	 * Tests that the reader keeps exactly the valid lines that are not duplicates.
+	 * @throws IOException if the generated file cannot be written or read
+	 */
+	@Test
+	public void testWrite() throws IOException {
+		Path file = Files.createTempFile("generated_course_records", ".txt");
+		try	{
+			CatalogGenerator generator = new CatalogGenerator(216, 0.1, 0.2);
+			generator.write(file.toString(), 50_000);
+			assertEquals(50_000, generator.getValidLines() + generator.getDuplicateLines() + generator.getInvalidLines());
+			assertEquals(0.1, generator.getDuplicateLines() / 50_000.0, 0.01);
+			assertEquals(0.2, generator.getInvalidLines() / 50_000.0, 0.01);
+			
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(file.toString());
+			assertEquals(generator.getValidLines(), courses.size());
+			HashSet<String> sections = new HashSet<String>();
+			boolean arranged = false;
+			for (Course c : courses)	{
+				assertTrue(sections.add(c.getName() + "," + c.getSection()));
+				arranged |= "A".equals(c.getMeetingDays());
+			}
+			assertTrue(arranged);
+			
+			//The same seed writes the same file
+			Path again = Files.createTempFile("generated_course_records", ".txt");
+			try	{
+				new CatalogGenerator(216, 0.1, 0.2).write(again.toString(), 50_000);
+				assertEquals(-1, Files.mismatch(file, again));
+			} finally	{
+				Files.deleteIfExists(again);
+			}
+		} finally	{
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	/**
+	 * Tests that each kind of line is what it claims to be.
+	 * @throws IOException if a line cannot be written or read
+	 */
+	@Test
+	public void testNextLine() throws IOException {
+		CatalogGenerator invalid = new CatalogGenerator(216, 0, 1);
+		CatalogGenerator valid = new CatalogGenerator(216, 0, 0);
+		for (int i = 0; i < 1000; i++)	{
+			assertNull(readLine(invalid.nextLine()));
+			assertNotNull(readLine(valid.nextLine()));
+		}
+		assertEquals(1000, invalid.getInvalidLines());
+		assertEquals(1000, valid.getValidLines());
+		
+		assertThrows(IllegalArgumentException.class, () -> new CatalogGenerator(216, 0.6, 0.6));
+		assertThrows(IllegalArgumentException.class, () -> new CatalogGenerator(216, -0.1, 0));
+	}
+	
+	/**
+	 * Reads a single line with CourseRecordIO
+	 * @param line the line to read
+	 * @return the Course read, or null if the line was rejected
+	 * @throws IOException if the line cannot be written or read
+	 */
+	private Course readLine(String line) throws IOException {
+		Path file = Files.createTempFile("generated_course_record", ".txt");
+		try	{
+			Files.write(file, line.getBytes());
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(file.toString());
+			return courses.isEmpty() ? null : courses.get(0);
+		} finally	{
+			Files.deleteIfExists(file);
+		}
+	}
+
+}
@@ -0,0 +1,60 @@
+package edu.ncsu.csc216.wolf_scheduler.load;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.load.RegistrationRush.Action;
+import edu.ncsu.csc216.wolf_scheduler.load.RegistrationRush.Report;
+
+/**
+ * Tests RegistrationRush.
+ * @author William Krajcovic
+ *
+ */
+public class RegistrationRushTest {
+	
+	/** Valid course records */
+	private final String validTestFile = "test-files/starter_course_records.txt";
+
+	/**
+	 * Tests running a small rush.
+	 * @throws InterruptedException if interrupted while waiting for the students
+	 */
+	@Test
+	public void testRun() throws InterruptedException {
+		Report report = new RegistrationRush(validTestFile, 50, 40, 5, 216).run();
+		assertEquals(50 * 40, report.getTotalCount());
+		assertTrue(report.getElapsedNanos() > 0);
+		assertTrue(report.getThroughput() > 0);
+		
+		int total = 0;
+		for (Action action : Action.values())	{
+			assertTrue(report.getCount(action) > 0);
+			assertTrue(report.getRejected(action) <= report.getCount(action));
+			long p50 = report.getLatencyNanos(action, 50);
+			long p99 = report.getLatencyNanos(action, 99);
+			long p999 = report.getLatencyNanos(action, 99.9);
+			assertTrue(p50 <= p99);
+			assertTrue(p99 <= p999);
+			assertTrue(p999 <= report.getLatencyNanos(action, 100));
+			total += report.getCount(action);
+		}
+		assertEquals(report.getTotalCount(), total);
+		assertEquals(0, report.getRejected(Action.RESET));
+		//5 seats per section cannot hold 50 students
+		assertTrue(report.getRejected(Action.ADD_COURSE) > 0);
+		assertTrue(report.toString().contains("ADD_COURSE"));
+		
+		//The same seed runs the same scripts
+		Report again = new RegistrationRush(validTestFile, 50, 40, 5, 216).run();
+		for (Action action : Action.values())	{
+			assertEquals(report.getCount(action), again.getCount(action));
+		}
+		
+		assertThrows(IllegalArgumentException.class, () -> report.getLatencyNanos(Action.REMOVE, 0));
+		assertThrows(IllegalArgumentException.class, () -> new RegistrationRush(validTestFile, 0, 40, 5, 216));
+		assertThrows(IllegalArgumentException.class, () -> new RegistrationRush("test-files/no_file.txt", 1, 1, 1, 216).run());
+	}
+
+}
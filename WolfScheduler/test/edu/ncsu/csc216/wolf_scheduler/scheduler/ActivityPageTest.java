@@ -0,0 +1,100 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests ActivityPage and ActivityRow.
+ * @author William Krajcovic
+ *
+ */
+public class ActivityPageTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/starter_course_records.txt";
+
+	/**
+	 * Tests paging through the catalog and that each row's fields match the display
+	 * arrays.
+	 */
+	@Test
+	public void testCatalogPages() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		String[][] catalog = ws.getCourseCatalog();
+		
+		int seen = 0;
+		for (int offset = 0; offset < catalog.length; offset += 5)	{
+			ActivityPage page = ws.getCourseCatalog(offset, 5);
+			assertEquals(offset, page.getOffset());
+			assertEquals(13, page.getTotal());
+			assertEquals(Math.min(5, 13 - offset), page.size());
+			assertEquals(offset + 5 < 13, page.hasMore());
+			for (int i = 0; i < page.size(); i++)	{
+				ActivityRow row = page.get(i);
+				for (int col = 0; col < ActivityRow.SHORT_FIELDS; col++)	{
+					assertEquals(catalog[offset + i][col], row.getShortField(col));
+				}
+				assertArrayEquals(row.getActivity().getLongDisplayArray(), longFields(row));
+				seen++;
+			}
+		}
+		assertEquals(13, seen);
+		
+		assertEquals(0, ws.getCourseCatalog(13, 5).size());
+		assertEquals(0, ws.getCourseCatalog(50, 5).size());
+		assertFalse(ws.getCourseCatalog(50, 5).hasMore());
+		assertEquals(13, ws.getCourseCatalog(1, Integer.MAX_VALUE).getTotal());
+		assertEquals(12, ws.getCourseCatalog(1, Integer.MAX_VALUE).size());
+		assertEquals(0, ws.getCourseCatalog(0, 0).size());
+		assertTrue(ws.getCourseCatalog(0, 0).hasMore());
+		assertThrows(IllegalArgumentException.class, () -> ws.getCourseCatalog(-1, 5));
+		assertThrows(IllegalArgumentException.class, () -> ws.getCourseCatalog(0, -1));
+		assertThrows(IndexOutOfBoundsException.class, () -> ws.getCourseCatalog(0, 5).get(5));
+		assertThrows(IndexOutOfBoundsException.class, () -> ws.getCourseCatalog(0, 5).get(0).getShortField(4));
+		assertThrows(IndexOutOfBoundsException.class, () -> ws.getCourseCatalog(0, 5).get(0).getLongField(7));
+	}
+
+	/**
+	 * Tests that a page of the schedule has event and course rows and does not change
+	 * when the schedule does.
+	 */
+	@Test
+	public void testSchedulePages() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		ws.addCourseToSchedule("CSC 216", "001");
+		ws.addEventToSchedule("Exercise", "MWF", 800, 900, "Gym, then lunch");
+		ws.addCourseToSchedule("CSC 226", "001");
+		
+		ActivityPage page = ws.getScheduledActivities(1, 2);
+		assertEquals(3, page.getTotal());
+		assertEquals(2, page.size());
+		assertFalse(page.hasMore());
+		ActivityRow event = page.get(0);
+		assertEquals("", event.getName());
+		assertEquals("", event.getCredits());
+		assertEquals("Gym, then lunch", event.getDetails());
+		assertArrayEquals(ws.getFullScheduledActivities()[1], longFields(event));
+		assertEquals("3", page.get(1).getCredits());
+		assertEquals("", page.get(1).getDetails());
+		
+		ws.resetSchedule();
+		assertEquals(3, page.getTotal());
+		assertEquals("CSC 226", page.get(1).getName());
+		assertEquals(0, ws.getScheduledActivities(0, 10).getTotal());
+	}
+
+	/**
+	 * Gets every long field of a row
+	 * @param row the row
+	 * @return the fields, in getLongDisplayArray order
+	 */
+	private String[] longFields(ActivityRow row) {
+		String[] fields = new String[ActivityRow.LONG_FIELDS];
+		for (int col = 0; col < fields.length; col++)	{
+			fields[col] = row.getLongField(col);
+		}
+		return fields;
+	}
+
+}
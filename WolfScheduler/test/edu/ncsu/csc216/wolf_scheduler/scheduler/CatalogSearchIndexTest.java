@@ -0,0 +1,184 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests CatalogSearchIndex and the searches of CourseCatalog.
+ * @author William Krajcovic
+ *
+ */
+public class CatalogSearchIndexTest {
+
+	/** Sections searched by the tests */
+	private static final List<Course> SECTIONS = Arrays.asList(
+			new Course("CSC 216", "Software Development Fundamentals", "002", 3, "sesmith5", "TH", 1330, 1445),
+			new Course("CSC 226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes", "MWF", 935, 1025),
+			new Course("CSC 217", "Software Development Fundamentals Lab", "601", 1, "sesmith5", "A"),
+			new Course("CSC 216", "Software Development Fundamentals", "001", 3, "jdyoung2", "MW", 1330, 1445),
+			new Course("MA 241", "Calculus II", "001", 4, "mamath", "MWF", 800, 850),
+			new Course("CSC 116", "Intro to Programming - Java", "001", 3, "jdyoung2", "TH", 1445, 1600),
+			new Course("CSC 230", "C and Software Tools", "001", 3, "dbsturgi", "MW", 1000, 1115));
+
+	/**
+	 * Tests finding sections by the start of their name.
+	 */
+	@Test
+	public void testFindByNamePrefix() {
+		CourseCatalog catalog = new CourseCatalog(SECTIONS);
+
+		assertEquals(Arrays.asList(SECTIONS.get(3), SECTIONS.get(0), SECTIONS.get(2), SECTIONS.get(1), SECTIONS.get(6)),
+				catalog.findByNamePrefix("CSC 2", 10));
+		assertEquals(Arrays.asList(SECTIONS.get(3), SECTIONS.get(0)), catalog.findByNamePrefix("csc 216", 10));
+		assertEquals(Arrays.asList(SECTIONS.get(3), SECTIONS.get(0)), catalog.findByNamePrefix("CSC 2", 2));
+		assertEquals(Arrays.asList(SECTIONS.get(4)), catalog.findByNamePrefix("MA", 10));
+		assertEquals(SECTIONS.size(), catalog.findByNamePrefix("", 10).size());
+		assertTrue(catalog.findByNamePrefix("CSC 3", 10).isEmpty());
+		assertTrue(catalog.findByNamePrefix("ZZ", 10).isEmpty());
+		assertTrue(catalog.findByNamePrefix("CSC", 0).isEmpty());
+
+		Exception e = assertThrows(IllegalArgumentException.class, () -> catalog.findByNamePrefix(null, 10));
+		assertEquals("Invalid search.", e.getMessage());
+		e = assertThrows(IllegalArgumentException.class, () -> catalog.findByNamePrefix("CSC", -1));
+		assertEquals("Invalid search.", e.getMessage());
+	}
+
+	/**
+	 * Tests finding sections by the words of their title, ranked by title length.
+	 */
+	@Test
+	public void testFindByTitle() {
+		CourseCatalog catalog = new CourseCatalog(SECTIONS);
+
+		//The three word titles rank before the four word titles
+		assertEquals(Arrays.asList(SECTIONS.get(0), SECTIONS.get(3), SECTIONS.get(2)),
+				catalog.findByTitle("software development", 10));
+		assertEquals(Arrays.asList(SECTIONS.get(0), SECTIONS.get(3), SECTIONS.get(2), SECTIONS.get(6)),
+				catalog.findByTitle("Software", 10));
+		assertEquals(Arrays.asList(SECTIONS.get(2)), catalog.findByTitle("LAB  fundamentals", 10));
+		assertEquals(Arrays.asList(SECTIONS.get(5)), catalog.findByTitle("java", 10));
+		assertEquals(Arrays.asList(SECTIONS.get(4)), catalog.findByTitle("ii", 10));
+		assertEquals(Arrays.asList(SECTIONS.get(0)), catalog.findByTitle("software", 1));
+		assertTrue(catalog.findByTitle("software calculus", 10).isEmpty());
+		assertTrue(catalog.findByTitle("soft", 10).isEmpty());
+		assertTrue(catalog.findByTitle(" - ", 10).isEmpty());
+
+		Exception e = assertThrows(IllegalArgumentException.class, () -> catalog.findByTitle(null, 10));
+		assertEquals("Invalid search.", e.getMessage());
+	}
+
+	/**
+	 * Tests searching by name and title together.
+	 */
+	@Test
+	public void testSearch() {
+		CourseCatalog catalog = new CourseCatalog(SECTIONS);
+
+		assertEquals(Arrays.asList(SECTIONS.get(3), SECTIONS.get(0)), catalog.search(" CSC 216 ", 10));
+		assertEquals(Arrays.asList(SECTIONS.get(5)), catalog.search("java", 10));
+		assertTrue(catalog.search("   ", 10).isEmpty());
+
+		//A title with a name in it is only listed once
+		ArrayList<Course> named = new ArrayList<Course>(SECTIONS);
+		named.add(new Course("JAVA 101", "Java Programming", "001", 3, "instr", "A"));
+		CourseCatalog withNamed = new CourseCatalog(named);
+		assertEquals(Arrays.asList(named.get(7), named.get(5)), withNamed.search("java", 10));
+		assertEquals(Arrays.asList(named.get(7)), withNamed.search("Java", 1));
+
+		WolfScheduler scheduler = new WolfScheduler("test-files/starter_course_records.txt");
+		assertEquals(catalogNames(scheduler.getCatalog().findByNamePrefix("CSC 2", 20)),
+				catalogNames(scheduler.searchCatalog("CSC 2", 20)));
+		assertFalse(scheduler.searchCatalog("CSC 2", 20).isEmpty());
+	}
+
+	/**
+	 * Builds random catalogs and checks both searches against scanning every section.
+	 */
+	@Test
+	public void testSearchMatchesScan() {
+		Random random = new Random(216);
+		String[] words = {"Software", "Development", "Intro", "to", "Programming", "Java", "C", "Lab", "Data", "Systems"};
+		String[] prefixes = {"CSC", "CSC 1", "CSC 2", "csc 21", "MA 1", "E", "E 1", "Z"};
+		String[] subjects = {"CSC", "MA", "E", "ECE"};
+		for (int round = 0; round < 20; round++)	{
+			ArrayList<Course> sections = new ArrayList<Course>();
+			for (int i = 0; i < 300; i++)	{
+				StringBuilder title = new StringBuilder();
+				int length = 1 + random.nextInt(5);
+				for (int w = 0; w < length; w++)	{
+					title.append(w == 0 ? "" : random.nextBoolean() ? " " : " - ").append(words[random.nextInt(words.length)]);
+				}
+				String name = subjects[random.nextInt(subjects.length)] + " " + (100 + random.nextInt(200));
+				sections.add(new Course(name, title.toString(), String.format("%03d", random.nextInt(50)), 3, "instr", "A"));
+			}
+			CourseCatalog catalog = new CourseCatalog(sections);
+
+			for (String prefix : prefixes)	{
+				ArrayList<Integer> expected = new ArrayList<Integer>();
+				for (int i = 0; i < sections.size(); i++)	{
+					if (sections.get(i).getName().startsWith(prefix.toUpperCase(Locale.ROOT)))	{
+						expected.add(i);
+					}
+				}
+				expected.sort(Comparator.<Integer, String>comparing(i -> sections.get(i).getName())
+						.thenComparing(i -> sections.get(i).getSection()).thenComparing(i -> i));
+				assertEquals(courses(sections, expected, 25), catalog.findByNamePrefix(prefix, 25));
+			}
+
+			for (int q = 0; q < 20; q++)	{
+				String query = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]
+						+ (random.nextBoolean() ? "" : " " + words[random.nextInt(words.length)]);
+				List<String> queryWords = Arrays.asList(CatalogSearchIndex.words(query));
+				ArrayList<Integer> expected = new ArrayList<Integer>();
+				for (int i = 0; i < sections.size(); i++)	{
+					if (Arrays.asList(CatalogSearchIndex.words(sections.get(i).getTitle())).containsAll(queryWords))	{
+						expected.add(i);
+					}
+				}
+				expected.sort(Comparator.<Integer>comparingInt(i -> CatalogSearchIndex.words(sections.get(i).getTitle()).length)
+						.thenComparing(i -> i));
+				assertEquals(courses(sections, expected, sections.size()), catalog.findByTitle(query, sections.size()));
+				assertEquals(courses(sections, expected, 5), catalog.findByTitle(query, 5));
+			}
+		}
+	}
+
+	/**
+	 * Gets the sections at some positions
+	 * @param sections the sections
+	 * @param positions the positions, in order
+	 * @param limit the most sections to get
+	 * @return the sections at the first positions, up to limit
+	 */
+	private static List<Course> courses(List<Course> sections, List<Integer> positions, int limit) {
+		ArrayList<Course> found = new ArrayList<Course>();
+		for (int i = 0; i < positions.size() && i < limit; i++)	{
+			found.add(sections.get(positions.get(i)));
+		}
+		return found;
+	}
+
+	/**
+	 * Gets the names and sections of courses
+	 * @param courses the courses
+	 * @return the name and section of each course
+	 */
+	private static List<String> catalogNames(List<Course> courses) {
+		ArrayList<String> names = new ArrayList<String>();
+		for (Course c : courses)	{
+			names.add(c.getName() + " " + c.getSection());
+		}
+		return names;
+	}
+
+}
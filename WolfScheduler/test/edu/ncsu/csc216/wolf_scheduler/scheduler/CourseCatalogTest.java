@@ -0,0 +1,74 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests CourseCatalog.
+ * @author William Krajcovic
+ *
+ */
+public class CourseCatalogTest {
+	
+	/** CSC 216 section 001 */
+	private final Course csc216001 = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445);
+	/** CSC 216 section 002 */
+	private final Course csc216002 = new Course("CSC 216", "Software Development Fundamentals", "002", 3, "ixdoming", "MW", 1330, 1445);
+	/** CSC 226 section 001 */
+	private final Course csc226001 = new Course("CSC 226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes", "MWF", 935, 1025);
+
+	/**
+	 * Tests looking up courses by name and section.
+	 */
+	@Test
+	public void testGetCourse() {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(csc216001);
+		courses.add(csc216002);
+		courses.add(new Course("CSC 216", "Duplicate", "001", 3, "jctetter", "A"));
+		CourseCatalog catalog = new CourseCatalog(courses);
+		
+		assertEquals(3, catalog.size());
+		assertSame(csc216002, catalog.get(1));
+		assertSame(csc216001, catalog.getCourse("CSC 216", "001"));
+		assertSame(csc216002, catalog.getCourse("CSC 216", "002"));
+		assertNull(catalog.getCourse("CSC 216", "003"));
+		assertNull(catalog.getCourse("CSC 226", "001"));
+		
+		//Changing the list afterwards doesn't change the catalog
+		courses.clear();
+		assertEquals(3, catalog.size());
+		assertThrows(UnsupportedOperationException.class, () -> catalog.getCourses().clear());
+	}
+	
+	/**
+	 * Tests finding the added, removed, and changed sections between two catalogs.
+	 */
+	@Test
+	public void testDiff() {
+		ArrayList<Course> oldCourses = new ArrayList<Course>();
+		oldCourses.add(csc216001);
+		oldCourses.add(csc216002);
+		ArrayList<Course> newCourses = new ArrayList<Course>();
+		Course moved = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 800, 915);
+		newCourses.add(moved);
+		newCourses.add(csc226001);
+		
+		CatalogDiff diff = new CourseCatalog(oldCourses).diff(new CourseCatalog(newCourses));
+		assertFalse(diff.isEmpty());
+		assertEquals(1, diff.getAdded().size());
+		assertSame(csc226001, diff.getAdded().get(0));
+		assertEquals(1, diff.getRemoved().size());
+		assertSame(csc216002, diff.getRemoved().get(0));
+		assertEquals(1, diff.getChanged().size());
+		assertSame(moved, diff.getChanged().get(0));
+		
+		assertTrue(new CourseCatalog(oldCourses).diff(new CourseCatalog(oldCourses)).isEmpty());
+	}
+
+}
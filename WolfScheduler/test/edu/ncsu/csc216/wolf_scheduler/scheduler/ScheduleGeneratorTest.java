@@ -0,0 +1,112 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests ScheduleGenerator.
+ * @author William Krajcovic
+ *
+ */
+public class ScheduleGeneratorTest {
+	
+	/** Valid course records */
+	private final String validTestFile = "test-files/starter_course_records.txt";
+
+	/**
+	 * Tests generating schedules from the course records file.
+	 */
+	@Test
+	public void testGenerate() {
+		CourseCatalog catalog = CourseCatalog.read(validTestFile);
+		List<String> names = Arrays.asList("CSC 216", "CSC 116", "CSC 217");
+		
+		List<List<Course>> schedules = ScheduleGenerator.generate(catalog, names).collect(Collectors.toList());
+		assertEquals(bruteForce(catalog, names), new HashSet<List<Course>>(schedules));
+		assertEquals(schedules.size(), new HashSet<List<Course>>(schedules).size());
+		for (List<Course> schedule : schedules)	{
+			assertEquals("CSC 216", schedule.get(0).getName());
+			assertEquals("CSC 116", schedule.get(1).getName());
+			assertEquals("CSC 217", schedule.get(2).getName());
+		}
+		
+		//Sequential and parallel searches find the same schedules in the same order
+		assertEquals(schedules, ScheduleGenerator.generate(catalog, names).sequential().collect(Collectors.toList()));
+		
+		assertEquals(0, ScheduleGenerator.generate(catalog, Arrays.asList("CSC 216", "CSC 492")).count());
+		assertEquals(0, ScheduleGenerator.generate(catalog, new ArrayList<String>()).count());
+		assertEquals(3, ScheduleGenerator.generate(catalog, Arrays.asList("CSC 216", "CSC 216")).count());
+	}
+	
+	/**
+	 * Tests generating schedules from a larger random catalog against trying every combination.
+	 */
+	@Test
+	public void testGenerateMatchesBruteForce() {
+		Random random = new Random(216);
+		ArrayList<Course> courses = new ArrayList<Course>();
+		String[] days = {"MW", "TH", "MWF", "F", "A"};
+		List<String> names = new ArrayList<String>();
+		for (int i = 0; i < 5; i++)	{
+			String name = "CSC " + (100 + i);
+			names.add(name);
+			for (int section = 0; section < 2 + random.nextInt(6); section++)	{
+				String meetingDays = days[random.nextInt(days.length)];
+				int start = "A".equals(meetingDays) ? 0 : (8 + random.nextInt(8)) * 100;
+				int end = "A".equals(meetingDays) ? 0 : start + 115;
+				courses.add(new Course(name, "Title", String.format("%03d", section), 3, "instr", meetingDays, start, end));
+			}
+		}
+		CourseCatalog catalog = new CourseCatalog(courses);
+		
+		assertEquals(bruteForce(catalog, names), ScheduleGenerator.generate(catalog, names).collect(Collectors.toSet()));
+	}
+	
+	/**
+	 * Finds every conflict free schedule by trying every combination of sections
+	 * @param catalog the catalog to take sections from
+	 * @param names the courses to schedule
+	 * @return the conflict free schedules
+	 */
+	private HashSet<List<Course>> bruteForce(CourseCatalog catalog, List<String> names) {
+		HashSet<List<Course>> schedules = new HashSet<List<Course>>();
+		addSchedules(catalog, names, new ArrayList<Course>(), schedules);
+		return schedules;
+	}
+	
+	/**
+	 * Adds every conflict free way to finish the partial schedule
+	 * @param catalog the catalog to take sections from
+	 * @param names the courses to schedule
+	 * @param partial sections of the first courses
+	 * @param schedules the conflict free schedules found so far
+	 */
+	private void addSchedules(CourseCatalog catalog, List<String> names, ArrayList<Course> partial, HashSet<List<Course>> schedules) {
+		if (partial.size() == names.size())	{
+			schedules.add(new ArrayList<Course>(partial));
+			return;
+		}
+		for (Course c : catalog.getSections(names.get(partial.size())))	{
+			boolean conflict = false;
+			for (Course placed : partial)	{
+				conflict |= c.conflictsWith(placed);
+			}
+			if (!conflict)	{
+				partial.add(c);
+				addSchedules(catalog, names, partial, schedules);
+				partial.remove(partial.size() - 1);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,275 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests ScheduleLog.
+ * @author William Krajcovic
+ *
+ */
+public class ScheduleLogTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/starter_course_records.txt";
+
+	/** Log file written by the tests */
+	private final String logFile = "test-files/actual_schedule_log.txt";
+
+	/**
+	 * Deletes the log file written by a test
+	 * @throws IOException if the file cannot be deleted
+	 */
+	@AfterEach
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(Paths.get(logFile));
+	}
+
+	/**
+	 * Tests that every kind of change is replayed when the log is opened again.
+	 * @throws IOException if the log cannot be written
+	 */
+	@Test
+	public void testReplay() throws IOException {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		ws.addCourseToSchedule("CSC 116", "001");
+		try (ScheduleLog log = new ScheduleLog(logFile))	{
+			log.attach("alice", ws);
+			assertTrue(log.getScheduleIds().contains("alice"));
+			ws.addCourseToSchedule("CSC 216", "001");
+			ws.addEventToSchedule("Gym", "MW", 1600, 1700, "Tabs\tand\nbreaks, \\ too");
+			ws.addCourseToSchedule("CSC 230", "001");
+			assertTrue(ws.removeActivityFromSchedule(0));
+			assertFalse(ws.removeActivityFromSchedule(5));
+			ws.setScheduleTitle("Fall\tSchedule");
+			ws.setScheduleTitle("Spring");
+			assertTrue(ws.undo());
+			ws.removeActivityFromSchedule(0);
+			assertTrue(ws.undo());
+
+			WolfScheduler other = new WolfScheduler(validTestFile);
+			log.attach("bob", other);
+			other.addCourseToSchedule("CSC 116", "001");
+			other.resetSchedule();
+			other.addCourseToSchedule("CSC 230", "001");
+		}
+
+		try (ScheduleLog log = new ScheduleLog(logFile))	{
+			assertEquals(List.of("alice", "bob"), new ArrayList<String>(log.getScheduleIds()));
+			WolfScheduler restored = new WolfScheduler(validTestFile);
+			log.attach("alice", restored);
+			assertEquals(ws.getScheduleTitle(), restored.getScheduleTitle());
+			assertArrayEquals(ws.getFullScheduledActivities(), restored.getFullScheduledActivities());
+			assertSame(restored.getCourseFromCatalog("CSC 216", "001"), restored.getScheduleSnapshot().get(0));
+
+			WolfScheduler other = new WolfScheduler(validTestFile);
+			log.attach("bob", other);
+			assertEquals(1, other.getScheduledActivities().length);
+			assertEquals("CSC 230", other.getScheduledActivities()[0][0]);
+
+			//The restored schedule keeps logging
+			restored.removeActivityFromSchedule(1);
+		}
+
+		try (ScheduleLog log = new ScheduleLog(logFile))	{
+			WolfScheduler restored = new WolfScheduler(validTestFile);
+			log.attach("alice", restored);
+			assertEquals(2, restored.getScheduledActivities().length);
+		}
+	}
+
+	/**
+	 * Tests that activities with commas in their titles are logged in full, so later
+	 * removals line up with the right activity, and that a logged activity that cannot
+	 * be read stops attach rather than being left out.
+	 * @throws IOException if the log cannot be written
+	 */
+	@Test
+	public void testCommaInTitle() throws IOException {
+		try (ScheduleLog log = new ScheduleLog(logFile))	{
+			WolfScheduler ws = new WolfScheduler(validTestFile);
+			log.attach("alice", ws);
+			ws.addEventToSchedule("Lunch, break", "MW", 1200, 1300, "Cafe, \\ upstairs");
+			ws.addCourseToSchedule("CSC 216", "001");
+		}
+		try (ScheduleLog log = new ScheduleLog(logFile))	{
+			WolfScheduler ws = new WolfScheduler(validTestFile);
+			log.attach("alice", ws);
+			assertEquals(2, ws.getScheduledActivities().length);
+			assertEquals("Lunch, break", ws.getScheduledActivities()[0][2]);
+			assertEquals("Cafe, \\ upstairs", ws.getFullScheduledActivities()[0][6]);
+			ws.removeActivityFromSchedule(1);
+		}
+		try (ScheduleLog log = new ScheduleLog(logFile))	{
+			WolfScheduler ws = new WolfScheduler(validTestFile);
+			log.attach("alice", ws);
+			assertEquals(1, ws.getScheduledActivities().length);
+			assertEquals("Lunch, break", ws.getScheduledActivities()[0][2]);
+
+			log.append("bob", ScheduleLog.ADD, "CSC 216,Software Development Fundamentals,001,3,sesmith5,TH,1330,1445");
+			WolfScheduler bob = new WolfScheduler(validTestFile);
+			Exception e = assertThrows(IllegalArgumentException.class, () -> log.attach("bob", bob));
+			assertEquals("Invalid logged activity.", e.getMessage());
+			assertEquals(0, bob.getScheduledActivities().length);
+		}
+	}
+
+	/**
+	 * Tests that a record cut off or damaged at the end of the log is dropped along with
+	 * everything after it, and that the log can be written to again afterwards.
+	 * @throws IOException if the log cannot be written
+	 */
+	@Test
+	public void testDamagedTail() throws IOException {
+		try (ScheduleLog log = new ScheduleLog(logFile))	{
+			WolfScheduler ws = new WolfScheduler(validTestFile);
+			log.attach("alice", ws);
+			ws.addCourseToSchedule("CSC 216", "001");
+		}
+		Path path = Paths.get(logFile);
+		long length = Files.size(path);
+		Files.write(path, "0\talice\tA\tCSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,910,1100\n123"
+				.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+		try (ScheduleLog log = new ScheduleLog(logFile))	{
+			assertEquals(length, Files.size(path));
+			WolfScheduler ws = new WolfScheduler(validTestFile);
+			log.attach("alice", ws);
+			assertEquals(1, ws.getScheduledActivities().length);
+			ws.addCourseToSchedule("CSC 116", "001");
+		}
+		try (ScheduleLog log = new ScheduleLog(logFile))	{
+			WolfScheduler ws = new WolfScheduler(validTestFile);
+			log.attach("alice", ws);
+			assertEquals(2, ws.getScheduledActivities().length);
+		}
+	}
+
+	/**
+	 * Tests that a whole record that cannot be applied is skipped and counted, keeping
+	 * the records after it.
+	 * @throws IOException if the log cannot be written
+	 */
+	@Test
+	public void testSkippedRecord() throws IOException {
+		try (ScheduleLog log = new ScheduleLog(logFile))	{
+			WolfScheduler alice = new WolfScheduler(validTestFile);
+			log.attach("alice", alice);
+			alice.addCourseToSchedule("CSC 216", "001");
+			log.append("alice", ScheduleLog.REMOVE, "7");
+			WolfScheduler bob = new WolfScheduler(validTestFile);
+			log.attach("bob", bob);
+			bob.addCourseToSchedule("CSC 116", "001");
+			alice.setScheduleTitle("Spring");
+			assertEquals(0, log.getSkippedRecords());
+		}
+		long length = Files.size(Paths.get(logFile));
+
+		try (ScheduleLog log = new ScheduleLog(logFile))	{
+			assertEquals(length, Files.size(Paths.get(logFile)));
+			assertEquals(1, log.getSkippedRecords());
+			WolfScheduler alice = new WolfScheduler(validTestFile);
+			log.attach("alice", alice);
+			assertEquals("Spring", alice.getScheduleTitle());
+			assertEquals(1, alice.getScheduledActivities().length);
+			WolfScheduler bob = new WolfScheduler(validTestFile);
+			log.attach("bob", bob);
+			assertEquals(1, bob.getScheduledActivities().length);
+		}
+	}
+
+	/**
+	 * Tests that checkpoints compact the log without changing what it replays to, and
+	 * that a closed log cannot be written to.
+	 * @throws IOException if the log cannot be written
+	 */
+	@Test
+	public void testCheckpoint() throws IOException {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		ScheduleLog log = new ScheduleLog(logFile, 10);
+		log.attach("alice", ws);
+		for (int i = 0; i < 100; i++)	{
+			ws.addEventToSchedule("Event " + i, "M", 800, 801, "");
+			ws.removeActivityFromSchedule(0);
+		}
+		ws.addCourseToSchedule("CSC 216", "001");
+		ws.setScheduleTitle("Spring");
+		assertTrue(Files.readAllLines(Paths.get(logFile)).size() <= 12);
+
+		log.checkpoint();
+		assertEquals(2, Files.readAllLines(Paths.get(logFile)).size());
+		ws.addCourseToSchedule("CSC 116", "001");
+		log.close();
+		log.close();
+		assertThrows(IllegalArgumentException.class, () -> ws.setScheduleTitle("Fall"));
+		assertThrows(IOException.class, () -> log.checkpoint());
+		assertEquals("Spring", ws.getScheduleTitle());
+
+		try (ScheduleLog reopened = new ScheduleLog(logFile, 0))	{
+			WolfScheduler restored = new WolfScheduler(validTestFile);
+			reopened.attach("alice", restored);
+			assertEquals("Spring", restored.getScheduleTitle());
+			assertArrayEquals(ws.getFullScheduledActivities(), restored.getFullScheduledActivities());
+		}
+		assertThrows(IllegalArgumentException.class, () -> new ScheduleLog(logFile, -1));
+	}
+
+	/**
+	 * Tests that changes from many threads sharing one log are all replayed, in order for
+	 * each schedule.
+	 * @throws Exception if a thread fails or the log cannot be written
+	 */
+	@Test
+	public void testGroupCommit() throws Exception {
+		int schedules = 16;
+		ExecutorService pool = Executors.newFixedThreadPool(schedules);
+		try (ScheduleLog log = new ScheduleLog(logFile, 50))	{
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int s = 0; s < schedules; s++)	{
+				String id = "student " + s;
+				futures.add(pool.submit(() -> {
+					WolfScheduler ws = new WolfScheduler(validTestFile);
+					log.attach(id, ws);
+					for (int i = 0; i < 40; i++)	{
+						ws.addEventToSchedule("Event " + i, "MTWHF", 600 + i, 600 + i, id);
+					}
+					ws.removeActivityFromSchedule(0);
+					return null;
+				}));
+			}
+			for (Future<?> f : futures)	{
+				f.get();
+			}
+		} finally	{
+			pool.shutdown();
+		}
+
+		try (ScheduleLog log = new ScheduleLog(logFile))	{
+			assertEquals(schedules, log.getScheduleIds().size());
+			for (int s = 0; s < schedules; s++)	{
+				WolfScheduler ws = new WolfScheduler(validTestFile);
+				log.attach("student " + s, ws);
+				String[][] activities = ws.getFullScheduledActivities();
+				assertEquals(39, activities.length);
+				for (int i = 0; i < activities.length; i++)	{
+					assertEquals("Event " + (i + 1), activities[i][2]);
+				}
+			}
+		}
+	}
+
+}
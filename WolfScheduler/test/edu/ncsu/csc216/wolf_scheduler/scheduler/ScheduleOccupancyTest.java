@@ -0,0 +1,112 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Tests ScheduleOccupancy.
+ * @author William Krajcovic
+ *
+ */
+public class ScheduleOccupancyTest {
+
+	/**
+	 * Tests finding conflicts, including activities that only share an end minute
+	 * and activities that start or end on a word boundary.
+	 */
+	@Test
+	public void testConflicts() {
+		ScheduleOccupancy occupancy = new ScheduleOccupancy();
+		Activity c1 = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445);
+		Activity c2 = new Course("CSC 226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes", "MWF", 935, 1025);
+		Activity arranged = new Course("CSC 217", "Software Development Fundamentals Lab", "601", 1, "sesmith5", "A");
+		occupancy.add(c1);
+		occupancy.add(c2);
+		occupancy.add(arranged);
+		
+		assertTrue(occupancy.conflicts(new Event("Gym", "H", 1445, 1500, "")));
+		assertTrue(occupancy.conflicts(new Event("Gym", "UT", 1200, 1330, "")));
+		assertTrue(occupancy.conflicts(new Event("Gym", "F", 800, 2000, "")));
+		assertFalse(occupancy.conflicts(new Event("Gym", "H", 1446, 1500, "")));
+		assertFalse(occupancy.conflicts(new Event("Gym", "MW", 1330, 1445, "")));
+		assertFalse(occupancy.conflicts(arranged));
+		
+		occupancy.remove(c1);
+		assertFalse(occupancy.conflicts(new Event("Gym", "H", 1445, 1500, "")));
+		assertTrue(occupancy.conflicts(new Event("Gym", "M", 1000, 1100, "")));
+		
+		//Minute 64 is the first minute of the second word
+		Activity boundary = new Event("Early", "S", 0, 104, "");
+		occupancy.add(boundary);
+		assertTrue(occupancy.conflicts(new Event("Gym", "S", 104, 200, "")));
+		assertFalse(occupancy.conflicts(new Event("Gym", "S", 105, 2359, "")));
+		occupancy.remove(boundary);
+		assertFalse(occupancy.conflicts(new Event("Gym", "S", 0, 2359, "")));
+		
+		occupancy.clear();
+		assertFalse(occupancy.conflicts(new Event("Gym", "M", 1000, 1100, "")));
+	}
+	
+	/**
+	 * Builds random schedules and checks that the grid finds a conflict exactly when
+	 * checking every scheduled activity with conflictsWith does.
+	 */
+	@Test
+	public void testConflictsMatchesConflictsWith() {
+		Random random = new Random(216);
+		for (int round = 0; round < 200; round++)	{
+			ScheduleOccupancy occupancy = new ScheduleOccupancy();
+			ArrayList<Activity> schedule = new ArrayList<Activity>();
+			
+			for (int i = 0; i < 100; i++)	{
+				Activity candidate = randomEvent(random, i);
+				boolean expected = false;
+				for (int j = 0; j < schedule.size(); j++)	{
+					expected |= candidate.conflictsWith(schedule.get(j));
+				}
+				assertEquals(expected, occupancy.conflicts(candidate));
+				
+				if (!expected)	{
+					schedule.add(candidate);
+					occupancy.add(candidate);
+				}
+				if (!schedule.isEmpty() && random.nextInt(4) == 0)	{
+					occupancy.remove(schedule.remove(random.nextInt(schedule.size())));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Creates an event on random days with random start and end times
+	 * @param random the random number generator
+	 * @param id used to give the event a unique title
+	 * @return the event
+	 */
+	private Activity randomEvent(Random random, int id) {
+		StringBuilder days = new StringBuilder();
+		for (int d = 0; d < Activity.WEEK_DAYS.length(); d++)	{
+			if (random.nextInt(3) == 0)	{
+				days.append(Activity.WEEK_DAYS.charAt(d));
+			}
+		}
+		if (days.length() == 0)	{
+			days.append('M');
+		}
+		int start = random.nextInt(24) * 100 + random.nextInt(60);
+		int end = Math.min(2359, start + random.nextInt(300));
+		if (end % 100 >= 60)	{
+			end = end - end % 100 + 59;
+		}
+		return new Event("Event " + id, days.toString(), start, end, "");
+	}
+
+}
@@ -0,0 +1,119 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests ScheduleSearch and the ScheduleScore factories.
+ * @author William Krajcovic
+ *
+ */
+public class ScheduleSearchTest {
+	
+	/** Valid course records */
+	private final String validTestFile = "test-files/starter_course_records.txt";
+
+	/**
+	 * Tests the built in scores on hand made schedules.
+	 */
+	@Test
+	public void testScores() {
+		Course early = new Course("CSC 116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100);
+		Course late = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 1330, 1445);
+		Course friday = new Course("CSC 226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes", "F", 1200, 1300);
+		Course online = new Course("CSC 217", "Software Development Fundamentals Lab", "211", 1, "sesmith5", "A", 0, 0);
+		List<Course> schedule = Arrays.asList(early, late, friday, online);
+		
+		assertEquals(-2 * 150, ScheduleScore.fewestIdleGaps().score(schedule), 0);
+		assertEquals(910, ScheduleScore.latestStart().score(schedule), 0);
+		assertEquals(2400, ScheduleScore.latestStart().score(Arrays.asList(online)), 0);
+		assertEquals(-3, ScheduleScore.fewestCampusDays().score(schedule), 0);
+		assertEquals(2, ScheduleScore.preferredInstructors(new HashSet<String>(Arrays.asList("sesmith5"))).score(schedule), 0);
+	}
+	
+	/**
+	 * Tests finding the best schedules from the course records file.
+	 */
+	@Test
+	public void testFindBest() {
+		CourseCatalog catalog = CourseCatalog.read(validTestFile);
+		List<String> names = Arrays.asList("CSC 216", "CSC 116", "CSC 217");
+		
+		List<List<Course>> best = ScheduleSearch.findBest(catalog, names, ScheduleScore.latestStart(), 2);
+		assertEquals(expected(catalog, names, ScheduleScore.latestStart(), 2), best);
+		assertEquals(2, best.size());
+		assertEquals("CSC 216", best.get(0).get(0).getName());
+		
+		assertEquals(0, ScheduleSearch.findBest(catalog, names, ScheduleScore.latestStart(), 0).size());
+		assertEquals(0, ScheduleSearch.findBest(catalog, new ArrayList<String>(), ScheduleScore.latestStart(), 3).size());
+		assertEquals(0, ScheduleSearch.findBest(catalog, Arrays.asList("CSC 216", "CSC 492"), ScheduleScore.latestStart(), 3).size());
+		assertThrows(IllegalArgumentException.class, () -> ScheduleSearch.findBest(catalog, names, null, 3));
+		assertThrows(IllegalArgumentException.class, () -> ScheduleSearch.findBest(catalog, names, ScheduleScore.latestStart(), -1));
+	}
+	
+	/**
+	 * Tests that pruning with each built in score finds the same schedules as ranking
+	 * every schedule, on random catalogs.
+	 */
+	@Test
+	public void testFindBestMatchesRankingEverySchedule() {
+		Random random = new Random(216);
+		String[] days = {"MW", "TH", "MWF", "F", "A"};
+		String[] instructors = {"sesmith5", "jdyoung2", "tmbarnes"};
+		for (int trial = 0; trial < 20; trial++)	{
+			ArrayList<Course> courses = new ArrayList<Course>();
+			List<String> names = new ArrayList<String>();
+			for (int i = 0; i < 5; i++)	{
+				String name = "CSC " + (100 + i);
+				names.add(name);
+				for (int section = 0; section < 2 + random.nextInt(5); section++)	{
+					String meetingDays = days[random.nextInt(days.length)];
+					int startMinute = (8 + random.nextInt(8)) * 60 + 5 * random.nextInt(12);
+					int endMinute = startMinute + 50 + 25 * random.nextInt(2);
+					int start = "A".equals(meetingDays) ? 0 : startMinute / 60 * 100 + startMinute % 60;
+					int end = "A".equals(meetingDays) ? 0 : endMinute / 60 * 100 + endMinute % 60;
+					courses.add(new Course(name, "Title", String.format("%03d", section), 3,
+							instructors[random.nextInt(instructors.length)], meetingDays, start, end));
+				}
+			}
+			CourseCatalog catalog = new CourseCatalog(courses);
+			
+			ScheduleScore[] scores = {ScheduleScore.fewestIdleGaps(), ScheduleScore.latestStart(),
+					ScheduleScore.fewestCampusDays(),
+					ScheduleScore.preferredInstructors(new HashSet<String>(Arrays.asList("jdyoung2"))),
+					schedule -> schedule.get(0).getSection().hashCode()};
+			for (ScheduleScore score : scores)	{
+				for (int k : new int[] {1, 3, 1000})	{
+					assertEquals(expected(catalog, names, score, k), ScheduleSearch.findBest(catalog, names, score, k));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Ranks every schedule ScheduleGenerator finds, keeping schedules with the same score
+	 * in the order they were generated
+	 * @param catalog the catalog to take sections from
+	 * @param names the courses to schedule
+	 * @param score the score to rank by
+	 * @param k the most schedules to keep
+	 * @return the k best schedules, best first
+	 */
+	private List<List<Course>> expected(CourseCatalog catalog, List<String> names, ScheduleScore score, int k) {
+		return ScheduleGenerator.generate(catalog, names).sequential()
+				.sorted(Comparator.comparingDouble((List<Course> s) -> score.score(s)).reversed())
+				.limit(k).collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,70 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Tests ScheduleVersion.
+ * @author William Krajcovic
+ *
+ */
+public class ScheduleVersionTest {
+
+	/**
+	 * Tests appending and removing against an ArrayList, that every earlier version is
+	 * left as it was, and that the tree stays within the AVL height bound.
+	 */
+	@Test
+	public void testMatchesArrayList() {
+		Random random = new Random(216);
+		ScheduleVersion version = ScheduleVersion.EMPTY;
+		ArrayList<Activity> expected = new ArrayList<Activity>();
+		List<ScheduleVersion> versions = new ArrayList<ScheduleVersion>();
+		List<List<Activity>> contents = new ArrayList<List<Activity>>();
+		
+		for (int i = 0; i < 2000; i++)	{
+			if (!expected.isEmpty() && random.nextInt(3) == 0)	{
+				int idx = random.nextInt(expected.size());
+				expected.remove(idx);
+				version = version.removeAt(idx);
+			} else	{
+				Activity a = new Event("Event " + i, "M", 800, 900, "");
+				expected.add(a);
+				version = version.append(a);
+			}
+			assertEquals(expected, version);
+			assertTrue(version.height() <= 1.44 * Math.log(version.size() + 2) / Math.log(2),
+					"Height " + version.height() + " for " + version.size() + " activities");
+			if (i % 100 == 0)	{
+				versions.add(version);
+				contents.add(new ArrayList<Activity>(expected));
+			}
+		}
+		for (int i = 0; i < versions.size(); i++)	{
+			assertEquals(contents.get(i), versions.get(i));
+		}
+		
+		assertEquals(expected, ScheduleVersion.of(expected));
+		assertEquals(0, ScheduleVersion.EMPTY.height());
+		
+		//Appending only is the worst case for an unbalanced tree
+		version = ScheduleVersion.EMPTY;
+		for (int i = 0; i < 4096; i++)	{
+			version = version.append(new Event("Event " + i, "M", 800, 900, ""));
+		}
+		assertTrue(version.height() <= 1.44 * Math.log(version.size() + 2) / Math.log(2));
+		assertSame(ScheduleVersion.EMPTY, ScheduleVersion.of(new ArrayList<Activity>()));
+		assertThrows(IndexOutOfBoundsException.class, () -> ScheduleVersion.EMPTY.get(0));
+		assertThrows(IndexOutOfBoundsException.class, () -> ScheduleVersion.EMPTY.removeAt(0));
+		assertThrows(UnsupportedOperationException.class, () -> ScheduleVersion.EMPTY.add(null));
+	}
+
+}
@@ -0,0 +1,285 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests SchedulerSessions.
+ * @author William Krajcovic
+ *
+ */
+public class SchedulerSessionsTest {
+	
+	/** Valid course records */
+	private final String validTestFile = "test-files/starter_course_records.txt";
+
+	/**
+	 * Tests opening, looking up, and closing sessions that share one catalog.
+	 */
+	@Test
+	public void testSessions() {
+		SchedulerSessions sessions = new SchedulerSessions(validTestFile, 30, TimeUnit.MINUTES);
+		assertEquals(13, sessions.getCatalog().size());
+		
+		WolfScheduler alice = sessions.openSession("alice");
+		WolfScheduler bob = sessions.openSession("bob");
+		assertNotSame(alice, bob);
+		assertSame(alice, sessions.openSession("alice"));
+		assertSame(alice, sessions.getSession("alice"));
+		assertNull(sessions.getSession("carol"));
+		assertNull(sessions.getSession(null));
+		assertEquals(2, sessions.size());
+		
+		//Sessions share the catalog but not their schedules
+		assertSame(sessions.getCatalog(), alice.getCatalog());
+		assertSame(alice.getCourseFromCatalog("CSC 216", "001"), bob.getCourseFromCatalog("CSC 216", "001"));
+		assertTrue(alice.addCourseToSchedule("CSC 216", "001"));
+		assertEquals(1, alice.getScheduledActivities().length);
+		assertEquals(0, bob.getScheduledActivities().length);
+		
+		assertTrue(sessions.closeSession("alice"));
+		assertFalse(sessions.closeSession("alice"));
+		assertNull(sessions.getSession("alice"));
+		assertEquals(0, sessions.openSession("alice").getScheduledActivities().length);
+		
+		assertThrows(IllegalArgumentException.class, () -> sessions.openSession(""));
+		assertThrows(IllegalArgumentException.class, () -> sessions.openSession(null));
+		assertThrows(IllegalArgumentException.class, () -> new SchedulerSessions(validTestFile, 0, TimeUnit.MINUTES));
+		assertThrows(IllegalArgumentException.class, () -> new SchedulerSessions("test-files/no_file.txt", 1, TimeUnit.MINUTES));
+	}
+	
+	/**
+	 * Tests that sessions expire once they go unused for longer than the timeout.
+	 */
+	@Test
+	public void testExpiry() {
+		AtomicLong now = new AtomicLong();
+		SchedulerSessions sessions = new SchedulerSessions(validTestFile, 10, TimeUnit.SECONDS, SeatLedger.UNLIMITED, now::get);
+		WolfScheduler alice = sessions.openSession("alice");
+		sessions.openSession("bob");
+		
+		now.set(TimeUnit.SECONDS.toNanos(8));
+		assertSame(alice, sessions.getSession("alice"));
+		assertEquals(0, sessions.expireIdleSessions());
+		
+		now.set(TimeUnit.SECONDS.toNanos(15));
+		assertEquals(1, sessions.expireIdleSessions());
+		assertEquals(1, sessions.size());
+		assertNull(sessions.getSession("bob"));
+		assertSame(alice, sessions.getSession("alice"));
+		
+		now.set(TimeUnit.SECONDS.toNanos(30));
+		assertNull(sessions.getSession("alice"));
+		assertEquals(0, sessions.size());
+		sessions.openSession("carol");
+		now.set(TimeUnit.SECONDS.toNanos(41));
+		assertNotSame(alice, sessions.openSession("carol"));
+	}
+	
+	/**
+	 * Tests that working with a session's schedule keeps it open without looking it up
+	 * again, and that the schedule of an ended session cannot be changed.
+	 */
+	@Test
+	public void testEndedSession() {
+		AtomicLong now = new AtomicLong();
+		SchedulerSessions sessions = new SchedulerSessions(validTestFile, 10, TimeUnit.SECONDS, SeatLedger.UNLIMITED, now::get);
+		WolfScheduler alice = sessions.openSession("alice");
+		
+		now.set(TimeUnit.SECONDS.toNanos(8));
+		assertTrue(alice.addCourseToSchedule("CSC 216", "001"));
+		now.set(TimeUnit.SECONDS.toNanos(16));
+		assertEquals(1, alice.getScheduledActivities().length);
+		now.set(TimeUnit.SECONDS.toNanos(24));
+		assertEquals(0, sessions.expireIdleSessions());
+		assertSame(alice, sessions.getSession("alice"));
+		
+		now.set(TimeUnit.SECONDS.toNanos(40));
+		assertEquals(1, sessions.expireIdleSessions());
+		assertEquals(0, alice.getScheduledActivities().length);
+		Exception e = assertThrows(IllegalArgumentException.class, () -> alice.addCourseToSchedule("CSC 116", "001"));
+		assertEquals("The session has ended.", e.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> alice.addEventToSchedule("Lunch", "MWF", 1200, 1300, ""));
+		assertThrows(IllegalArgumentException.class, () -> alice.setScheduleTitle("Alice's Schedule"));
+		assertThrows(IllegalArgumentException.class, () -> alice.removeActivityFromSchedule(0));
+		assertThrows(IllegalArgumentException.class, () -> alice.resetSchedule());
+		assertThrows(IllegalArgumentException.class, () -> alice.undo());
+		assertThrows(IllegalArgumentException.class, () -> alice.redo());
+		assertEquals(0, alice.getScheduledActivities().length);
+		assertFalse(sessions.closeSession("alice"));
+		assertNotSame(alice, sessions.openSession("alice"));
+	}
+	
+	/**
+	 * Tests that threads opening the same sessions at once get the same schedules.
+	 * @throws Exception if a thread fails
+	 */
+	@Test
+	public void testConcurrentOpen() throws Exception {
+		SchedulerSessions sessions = new SchedulerSessions(validTestFile, 30, TimeUnit.MINUTES);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try	{
+			List<Future<List<WolfScheduler>>> results = new ArrayList<Future<List<WolfScheduler>>>();
+			for (int t = 0; t < 4; t++)	{
+				results.add(pool.submit(() -> {
+					List<WolfScheduler> opened = new ArrayList<WolfScheduler>();
+					for (int i = 0; i < 1000; i++)	{
+						opened.add(sessions.openSession("student" + i));
+					}
+					return opened;
+				}));
+			}
+			List<WolfScheduler> first = results.get(0).get();
+			for (Future<List<WolfScheduler>> result : results)	{
+				List<WolfScheduler> opened = result.get();
+				for (int i = 0; i < opened.size(); i++)	{
+					assertSame(first.get(i), opened.get(i));
+				}
+			}
+			assertEquals(1000, sessions.size());
+		} finally	{
+			pool.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Tests that reloading the catalog gives the new catalog to every session.
+	 * @throws IOException if the catalog file cannot be written
+	 */
+	@Test
+	public void testReloadCatalog() throws IOException {
+		Path catalogFile = Files.createTempFile("course_records", ".txt");
+		try	{
+			Files.copy(Path.of(validTestFile), catalogFile, StandardCopyOption.REPLACE_EXISTING);
+			SchedulerSessions sessions = new SchedulerSessions(catalogFile.toString(), 30, TimeUnit.MINUTES);
+			WolfScheduler alice = sessions.openSession("alice");
+			assertTrue(alice.addCourseToSchedule("CSC 216", "001"));
+			
+			Files.write(catalogFile, (new String(Files.readAllBytes(catalogFile))
+					+ "\nCSC 492,Senior Design Project,001,3,dbsturgi,A").getBytes());
+			CatalogDiff diff = sessions.reloadCatalog();
+			assertEquals(1, diff.getAdded().size());
+			assertSame(sessions.getCatalog(), alice.getCatalog());
+			assertSame(sessions.getCatalog(), sessions.openSession("bob").getCatalog());
+			assertNotNull(alice.getCourseFromCatalog("CSC 492", "001"));
+			assertEquals(1, alice.getScheduledActivities().length);
+		} finally	{
+			Files.deleteIfExists(catalogFile);
+		}
+	}
+
+	/**
+	 * Tests that sessions in the log are opened again with their schedules and seats,
+	 * and that closed sessions are dropped from the log.
+	 * @throws IOException if the log cannot be written
+	 */
+	@Test
+	public void testLog() throws IOException {
+		Path logFile = Files.createTempFile("schedule_log", ".txt");
+		try	{
+			try (ScheduleLog log = new ScheduleLog(logFile.toString()))	{
+				SchedulerSessions sessions = new SchedulerSessions(validTestFile, 30, TimeUnit.MINUTES, 2, log);
+				WolfScheduler alice = sessions.openSession("alice");
+				assertTrue(alice.addCourseToSchedule("CSC 216", "001"));
+				alice.setScheduleTitle("Alice's Schedule");
+				assertTrue(sessions.openSession("bob").addCourseToSchedule("CSC 216", "001"));
+				assertTrue(sessions.openSession("carol").addCourseToSchedule("CSC 116", "001"));
+				assertTrue(sessions.closeSession("carol"));
+				sessions.openSession("dave");
+				assertEquals(List.of("alice", "bob"), new ArrayList<String>(log.getScheduleIds()));
+			}
+			
+			try (ScheduleLog log = new ScheduleLog(logFile.toString()))	{
+				SchedulerSessions sessions = new SchedulerSessions(validTestFile, 30, TimeUnit.MINUTES, 2, log);
+				assertEquals(2, sessions.size());
+				WolfScheduler alice = sessions.getSession("alice");
+				assertEquals("Alice's Schedule", alice.getScheduleTitle());
+				assertEquals(1, alice.getScheduledActivities().length);
+				assertEquals(1, sessions.getSession("bob").getScheduledActivities().length);
+				assertNull(sessions.getSession("carol"));
+				assertEquals(2, sessions.getSeats().getEnrolled("CSC 216", "001"));
+				assertEquals(0, sessions.getSeats().getEnrolled("CSC 116", "001"));
+				assertThrows(IllegalArgumentException.class, () -> sessions.openSession("carol").addCourseToSchedule("CSC 216", "001"));
+			}
+		} finally	{
+			Files.deleteIfExists(logFile);
+		}
+	}
+	
+	/**
+	 * Tests that a session whose reset cannot be logged stays open with its seats, since
+	 * the log would still restore its schedule.
+	 * @throws IOException if the log cannot be used
+	 */
+	@Test
+	public void testCloseUnlogged() throws IOException {
+		Path logFile = Files.createTempFile("schedule_log", ".txt");
+		try	{
+			ScheduleLog log = new ScheduleLog(logFile.toString());
+			SchedulerSessions sessions = new SchedulerSessions(validTestFile, 30, TimeUnit.MINUTES, 1, log);
+			WolfScheduler alice = sessions.openSession("alice");
+			assertTrue(alice.addCourseToSchedule("CSC 216", "001"));
+			log.close();
+			
+			Exception e = assertThrows(IllegalArgumentException.class, () -> sessions.closeSession("alice"));
+			assertEquals("The schedule cannot be saved.", e.getMessage());
+			assertSame(alice, sessions.getSession("alice"));
+			assertEquals(1, alice.getScheduledActivities().length);
+			assertEquals(1, sessions.getSeats().getEnrolled("CSC 216", "001"));
+			
+			try (ScheduleLog reopened = new ScheduleLog(logFile.toString()))	{
+				assertEquals(List.of("alice"), new ArrayList<String>(reopened.getScheduleIds()));
+			}
+		} finally	{
+			Files.deleteIfExists(logFile);
+		}
+	}
+	
+	/**
+	 * Tests that a session opened in place of an expired one keeps its logged changes,
+	 * since the expired schedule is dropped from the log before the new session exists.
+	 * @throws IOException if the log cannot be used
+	 */
+	@Test
+	public void testExpiredSessionLog() throws IOException {
+		Path logFile = Files.createTempFile("schedule_log", ".txt");
+		try	{
+			AtomicLong now = new AtomicLong();
+			try (ScheduleLog log = new ScheduleLog(logFile.toString()))	{
+				SchedulerSessions sessions = new SchedulerSessions(validTestFile, 10, TimeUnit.SECONDS, 2, now::get, log);
+				WolfScheduler alice = sessions.openSession("alice");
+				assertTrue(alice.addCourseToSchedule("CSC 216", "001"));
+				
+				now.set(TimeUnit.SECONDS.toNanos(15));
+				WolfScheduler reopened = sessions.openSession("alice");
+				assertNotSame(alice, reopened);
+				assertEquals(0, sessions.getSeats().getEnrolled("CSC 216", "001"));
+				assertTrue(reopened.addCourseToSchedule("CSC 116", "001"));
+				assertEquals(1, sessions.size());
+			}
+			
+			try (ScheduleLog log = new ScheduleLog(logFile.toString()))	{
+				SchedulerSessions sessions = new SchedulerSessions(validTestFile, 10, TimeUnit.SECONDS, 2, now::get, log);
+				String[][] restored = sessions.getSession("alice").getScheduledActivities();
+				assertEquals(1, restored.length);
+				assertEquals("CSC 116", restored[0][0]);
+			}
+		} finally	{
+			Files.deleteIfExists(logFile);
+		}
+	}
+
+}
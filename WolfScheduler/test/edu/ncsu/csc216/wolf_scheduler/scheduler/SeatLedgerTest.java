@@ -0,0 +1,242 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests SeatLedger and seat limits in WolfScheduler.
+ * @author William Krajcovic
+ *
+ */
+public class SeatLedgerTest {
+	
+	/** Valid course records */
+	private final String validTestFile = "test-files/starter_course_records.txt";
+
+	/**
+	 * Tests taking and giving back seats.
+	 */
+	@Test
+	public void testReserve() {
+		SeatLedger seats = new SeatLedger(2);
+		Course c = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445);
+		assertEquals(2, seats.getCapacity("CSC 216", "001"));
+		assertEquals(0, seats.getEnrolled("CSC 216", "001"));
+		
+		assertTrue(seats.reserve(c));
+		assertTrue(seats.reserve(c));
+		assertFalse(seats.reserve(c));
+		assertEquals(2, seats.getEnrolled("CSC 216", "001"));
+		seats.release(c);
+		assertEquals(1, seats.getEnrolled("CSC 216", "001"));
+		
+		seats.setCapacity("CSC 216", "001", 0);
+		assertFalse(seats.reserve(c));
+		assertEquals(1, seats.getEnrolled("CSC 216", "001"));
+		seats.setCapacity("CSC 216", "001", SeatLedger.UNLIMITED);
+		assertTrue(seats.reserve(c));
+		
+		assertThrows(IllegalArgumentException.class, () -> new SeatLedger(-1));
+		assertThrows(IllegalArgumentException.class, () -> seats.setCapacity("CSC 216", "001", -1));
+	}
+	
+	/**
+	 * Tests that sessions take seats when courses are added and give them back when
+	 * courses are removed and sessions close.
+	 */
+	@Test
+	public void testSessionSeats() {
+		SchedulerSessions sessions = new SchedulerSessions(validTestFile, 30, TimeUnit.MINUTES, 1);
+		SeatLedger seats = sessions.getSeats();
+		WolfScheduler alice = sessions.openSession("alice");
+		WolfScheduler bob = sessions.openSession("bob");
+		
+		assertTrue(alice.addCourseToSchedule("CSC 216", "001"));
+		Exception e = assertThrows(IllegalArgumentException.class, () -> bob.addCourseToSchedule("CSC 216", "001"));
+		assertEquals("The course cannot be added because the section is full.", e.getMessage());
+		assertEquals(0, bob.getScheduledActivities().length);
+		
+		//A duplicate is reported before a full section and takes no seat
+		e = assertThrows(IllegalArgumentException.class, () -> alice.addCourseToSchedule("CSC 216", "001"));
+		assertEquals("You are already enrolled in CSC 216", e.getMessage());
+		assertEquals(1, seats.getEnrolled("CSC 216", "001"));
+		
+		assertTrue(alice.removeActivityFromSchedule(0));
+		assertEquals(0, seats.getEnrolled("CSC 216", "001"));
+		assertTrue(bob.addCourseToSchedule("CSC 216", "001"));
+		bob.addEventToSchedule("Exercise", "MWF", 800, 900, "Gym");
+		assertTrue(bob.addCourseToSchedule("CSC 116", "001"));
+		
+		bob.resetSchedule();
+		assertEquals(0, seats.getEnrolled("CSC 216", "001"));
+		assertEquals(0, seats.getEnrolled("CSC 116", "001"));
+		
+		assertTrue(alice.addCourseToSchedule("CSC 216", "001"));
+		assertTrue(sessions.closeSession("alice"));
+		assertEquals(0, seats.getEnrolled("CSC 216", "001"));
+		
+		//A standalone schedule has no seat limits
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+	}
+	
+	/**
+	 * Tests that importing a schedule takes seats for new sections, keeps the seats of
+	 * sections already held, and changes nothing when a section is full.
+	 * @throws IOException if the schedule file cannot be written
+	 */
+	@Test
+	public void testImportSeats() throws IOException {
+		SchedulerSessions sessions = new SchedulerSessions(validTestFile, 30, TimeUnit.MINUTES, 1);
+		SeatLedger seats = sessions.getSeats();
+		WolfScheduler alice = sessions.openSession("alice");
+		WolfScheduler bob = sessions.openSession("bob");
+		Path file = Files.createTempFile("schedule_export", ".txt");
+		try	{
+			assertTrue(alice.addCourseToSchedule("CSC 216", "001"));
+			assertTrue(alice.addCourseToSchedule("CSC 116", "001"));
+			alice.exportSchedule(file.toString());
+			
+			alice.importSchedule(file.toString());
+			assertEquals(1, seats.getEnrolled("CSC 216", "001"));
+			assertEquals(1, seats.getEnrolled("CSC 116", "001"));
+			
+			assertTrue(bob.addCourseToSchedule("CSC 226", "001"));
+			Exception e = assertThrows(IllegalArgumentException.class, () -> bob.importSchedule(file.toString()));
+			assertEquals("The schedule cannot be imported because a section is full.", e.getMessage());
+			assertEquals(1, bob.getScheduledActivities().length);
+			assertEquals(1, seats.getEnrolled("CSC 226", "001"));
+			
+			Files.write(file, "CSC 116,Intro to Programming - Java,002,3,spbalik,MW,1120,1310\n".getBytes());
+			alice.importSchedule(file.toString());
+			assertEquals(0, seats.getEnrolled("CSC 216", "001"));
+			assertEquals(0, seats.getEnrolled("CSC 116", "001"));
+			assertEquals(1, seats.getEnrolled("CSC 116", "002"));
+		} finally	{
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	/**
+	 * Tests that undo and redo give back and take seats, and cannot bring back a section
+	 * that has filled since.
+	 */
+	@Test
+	public void testUndoSeats() {
+		SchedulerSessions sessions = new SchedulerSessions(validTestFile, 30, TimeUnit.MINUTES, 1);
+		SeatLedger seats = sessions.getSeats();
+		WolfScheduler alice = sessions.openSession("alice");
+		WolfScheduler bob = sessions.openSession("bob");
+		
+		assertTrue(alice.addCourseToSchedule("CSC 216", "001"));
+		assertTrue(alice.undo());
+		assertEquals(0, seats.getEnrolled("CSC 216", "001"));
+		assertTrue(alice.redo());
+		assertEquals(1, seats.getEnrolled("CSC 216", "001"));
+		
+		assertTrue(alice.removeActivityFromSchedule(0));
+		assertTrue(bob.addCourseToSchedule("CSC 216", "001"));
+		Exception e = assertThrows(IllegalArgumentException.class, () -> alice.undo());
+		assertEquals("The change cannot be undone because a section is full.", e.getMessage());
+		assertEquals(0, alice.getScheduledActivities().length);
+		assertTrue(alice.canUndo());
+		
+		assertTrue(bob.removeActivityFromSchedule(0));
+		assertTrue(alice.undo());
+		assertEquals(1, alice.getScheduledActivities().length);
+		assertEquals(1, seats.getEnrolled("CSC 216", "001"));
+	}
+	
+	/**
+	 * Tests that a closed session's history cannot bring back the seats it gave back.
+	 */
+	@Test
+	public void testUndoAfterClose() {
+		SchedulerSessions sessions = new SchedulerSessions(validTestFile, 30, TimeUnit.MINUTES, 1);
+		SeatLedger seats = sessions.getSeats();
+		WolfScheduler alice = sessions.openSession("alice");
+		
+		assertTrue(alice.addCourseToSchedule("CSC 216", "001"));
+		assertTrue(alice.addCourseToSchedule("CSC 116", "001"));
+		assertTrue(alice.removeActivityFromSchedule(1));
+		assertTrue(alice.undo());
+		assertTrue(alice.canUndo());
+		assertTrue(alice.canRedo());
+		
+		assertTrue(sessions.closeSession("alice"));
+		assertEquals(0, seats.getEnrolled("CSC 216", "001"));
+		assertEquals(0, seats.getEnrolled("CSC 116", "001"));
+		assertFalse(alice.canUndo());
+		assertFalse(alice.canRedo());
+		assertThrows(IllegalArgumentException.class, () -> alice.undo());
+		assertThrows(IllegalArgumentException.class, () -> alice.redo());
+		assertEquals(0, seats.getEnrolled("CSC 216", "001"));
+		assertEquals(0, seats.getEnrolled("CSC 116", "001"));
+		assertEquals(0, alice.getScheduledActivities().length);
+	}
+	
+	/**
+	 * Tests that students enrolling and dropping from many threads at once never
+	 * oversubscribe a section.
+	 * @throws Exception if a thread fails
+	 */
+	@Test
+	public void testConcurrentEnrollment() throws Exception {
+		int capacity = 25;
+		int students = 200;
+		SchedulerSessions sessions = new SchedulerSessions(validTestFile, 30, TimeUnit.MINUTES, capacity);
+		SeatLedger seats = sessions.getSeats();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		try	{
+			List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for (int t = 0; t < 8; t++)	{
+				int thread = t;
+				results.add(pool.submit(() -> {
+					start.await();
+					int enrolled = 0;
+					for (int i = thread; i < students; i += 8)	{
+						WolfScheduler ws = sessions.openSession("student" + i);
+						for (int round = 0; round < 20; round++)	{
+							try	{
+								ws.addCourseToSchedule("CSC 216", "001");
+							} catch (IllegalArgumentException e)	{
+								//Full or already enrolled
+							}
+							assertTrue(seats.getEnrolled("CSC 216", "001") <= capacity);
+							if (round % 3 == 0)	{
+								ws.resetSchedule();
+							}
+						}
+						enrolled += ws.getScheduledActivities().length;
+					}
+					return enrolled;
+				}));
+			}
+			start.countDown();
+			int enrolled = 0;
+			for (Future<Integer> result : results)	{
+				enrolled += result.get();
+			}
+			assertTrue(enrolled <= capacity);
+			assertEquals(enrolled, seats.getEnrolled("CSC 216", "001"));
+		} finally	{
+			pool.shutdownNow();
+		}
+	}
+
+}
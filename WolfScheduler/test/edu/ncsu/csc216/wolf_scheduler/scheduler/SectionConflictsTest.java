@@ -0,0 +1,120 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Tests SectionConflicts.
+ * @author William Krajcovic
+ *
+ */
+public class SectionConflictsTest {
+	
+	/**
+	 * Tests finding conflicts between a few sections, including sections that only share
+	 * an end minute, sections that meet on more than one common day, sections that share
+	 * a slot, and arranged sections.
+	 */
+	@Test
+	public void testConflicts() {
+		List<Course> sections = Arrays.asList(
+				new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445),
+				new Course("CSC 226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes", "MWF", 935, 1025),
+				new Course("CSC 217", "Software Development Fundamentals Lab", "601", 1, "sesmith5", "A"),
+				new Course("CSC 116", "Intro to Programming - Java", "001", 3, "jdyoung2", "TH", 1445, 1600),
+				new Course("CSC 230", "C and Software Tools", "001", 3, "dbsturgi", "MW", 1000, 1115),
+				new Course("CSC 216", "Software Development Fundamentals", "002", 3, "jdyoung2", "TH", 1330, 1445),
+				new Course("CSC 316", "Data Structures and Algorithms", "001", 3, "jtking", "A"));
+		SectionConflicts conflicts = new SectionConflicts(sections);
+		int[] slots = conflicts.slots(sections);
+		
+		//Sections meeting at the same times share a slot
+		assertEquals(slots[0], slots[5]);
+		assertEquals(slots[2], slots[6]);
+		assertEquals(5, Arrays.stream(slots).distinct().count());
+		
+		assertTrue(conflicts.conflicts(slots[0], slots[3]));
+		assertTrue(conflicts.conflicts(slots[3], slots[0]));
+		assertTrue(conflicts.conflicts(slots[1], slots[4]));
+		assertTrue(conflicts.conflicts(slots[0], slots[5]));
+		assertFalse(conflicts.conflicts(slots[0], slots[1]));
+		assertFalse(conflicts.conflicts(slots[2], slots[6]));
+		assertFalse(conflicts.conflicts(slots[2], slots[0]));
+		
+		assertTrue(conflicts.conflictsWithAny(new int[] {slots[1], slots[3]}, 2, slots[0]));
+		assertFalse(conflicts.conflictsWithAny(new int[] {slots[1], slots[3]}, 1, slots[0]));
+		assertFalse(conflicts.conflictsWithAny(new int[0], 0, slots[0]));
+		
+		assertEquals(slots[1], conflicts.slot(new Event("Lunch", "MWF", 935, 1025, "")));
+		assertEquals(-1, conflicts.slot(new Event("Lunch", "MWF", 1200, 1300, "")));
+	}
+	
+	/**
+	 * Builds random catalogs and checks every pair of sections against conflictsWith.
+	 */
+	@Test
+	public void testConflictsMatchesConflictsWith() {
+		Random random = new Random(216);
+		for (int round = 0; round < 20; round++)	{
+			ArrayList<Course> sections = randomSections(random, 200, 12);
+			SectionConflicts conflicts = new SectionConflicts(sections);
+			int[] slots = conflicts.slots(sections);
+			
+			for (int i = 0; i < sections.size(); i++)	{
+				for (int j = 0; j < sections.size(); j++)	{
+					assertEquals(sections.get(i).conflictsWith(sections.get(j)), conflicts.conflicts(slots[i], slots[j]));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Checks a catalog with more slots than the matrix is built for against conflictsWith.
+	 */
+	@Test
+	public void testConflictsWithoutMatrix() {
+		Random random = new Random(217);
+		ArrayList<Course> sections = randomSections(random, SectionConflicts.MAX_SLOTS * 2, 1);
+		SectionConflicts conflicts = new SectionConflicts(sections);
+		int[] slots = conflicts.slots(sections);
+		assertTrue(Arrays.stream(slots).distinct().count() > SectionConflicts.MAX_SLOTS);
+		
+		for (int k = 0; k < 100000; k++)	{
+			int i = random.nextInt(sections.size());
+			int j = random.nextInt(sections.size());
+			assertEquals(sections.get(i).conflictsWith(sections.get(j)), conflicts.conflicts(slots[i], slots[j]));
+		}
+	}
+	
+	/**
+	 * Creates sections meeting at random times
+	 * @param random the random numbers to use
+	 * @param count the number of sections
+	 * @param step the minutes between the possible start times
+	 * @return the sections
+	 */
+	private static ArrayList<Course> randomSections(Random random, int count, int step) {
+		String[] days = {"M", "T", "W", "H", "F", "MW", "TH", "MWF", "MTWHF", "A"};
+		ArrayList<Course> sections = new ArrayList<Course>();
+		for (int i = 0; i < count; i++)	{
+			String meetingDays = days[random.nextInt(days.length)];
+			int startMinute = 8 * 60 + step * random.nextInt(12 * 60 / step);
+			int endMinute = startMinute + random.nextInt(180);
+			int start = "A".equals(meetingDays) ? 0 : startMinute / 60 * 100 + startMinute % 60;
+			int end = "A".equals(meetingDays) ? 0 : endMinute / 60 * 100 + endMinute % 60;
+			sections.add(new Course("CSC " + (100 + i % 50), "Title", String.format("%03d", i % 1000), 3, "instr",
+					meetingDays, start, end));
+		}
+		return sections;
+	}
+
+}
@@ -7,6 +7,9 @@ import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 import org.junit.Before;
@@ -91,6 +94,109 @@ public class WolfSchedulerTest {
 		assertEquals(13, ws2.getCourseCatalog().length);		
 	}
 	
+	/**
+	 * Tests that a WolfScheduler created from a catalog snapshot has the same catalog
+	 * as one created from the course records file.
+	 */
+	@Test
+	public void testExportCatalogSnapshot() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		ws.exportCatalogSnapshot("test-files/actual_catalog_snapshot.bin");
+		
+		WolfScheduler fromSnapshot = new WolfScheduler("test-files/actual_catalog_snapshot.bin");
+		String [][] expected = ws.getCourseCatalog();
+		String [][] actual = fromSnapshot.getCourseCatalog();
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			for (int j = 0; j < expected[i].length; j++) {
+				assertEquals(expected[i][j], actual[i][j]);
+			}
+		}
+		assertTrue(fromSnapshot.addCourseToSchedule(NAME, SECTION));
+		
+		try {
+			new WolfScheduler("test-files/not_a_file.bin");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Cannot find file.", e.getMessage());
+		}
+	}
+	
+	/**
+	 * Tests reloading the catalog and finding scheduled courses whose sections changed.
+	 * @throws IOException if the catalog file cannot be written
+	 */
+	@Test
+	public void testReloadCatalog() throws IOException {
+		Path catalogFile = Files.createTempFile("course_records", ".txt");
+		try {
+			Files.copy(Path.of(validTestFile), catalogFile, StandardCopyOption.REPLACE_EXISTING);
+			WolfScheduler ws = new WolfScheduler(catalogFile.toString());
+			assertTrue(ws.addCourseToSchedule(NAME, SECTION));
+			assertTrue(ws.addCourseToSchedule("CSC 226", "001"));
+			ws.addEventToSchedule(EVENT_TITLE, EVENT_MEETING_DAYS, EVENT_START_TIME, EVENT_END_TIME, EVENT_DETAILS);
+			assertTrue(ws.addCourseToSchedule("CSC 230", "001"));
+			
+			//Nothing changed yet
+			assertTrue(ws.reloadCatalog().isEmpty());
+			assertFalse(ws.needsRevalidation(0));
+			
+			//Move CSC 216-001, drop CSC 226-001, and add CSC 492-001
+			String records = new String(Files.readAllBytes(catalogFile))
+					.replace("CSC 216,Software Development Fundamentals,001,3,sesmith5,TH,1330,1445", 
+							"CSC 216,Software Development Fundamentals,001,3,sesmith5,TH,1500,1615")
+					.replace("CSC 226,Discrete Mathematics for Computer Scientists,001,3,tmbarnes,MWF,935,1025\n", "")
+					+ "\nCSC 492,Senior Design Project,001,3,dbsturgi,A";
+			Files.write(catalogFile, records.getBytes());
+			
+			CatalogDiff diff = ws.reloadCatalog();
+			assertEquals(1, diff.getAdded().size());
+			assertEquals("CSC 492", diff.getAdded().get(0).getName());
+			assertEquals(1, diff.getRemoved().size());
+			assertEquals("CSC 226", diff.getRemoved().get(0).getName());
+			assertEquals(1, diff.getChanged().size());
+			assertEquals(1500, diff.getChanged().get(0).getStartTime());
+			
+			assertEquals(13, ws.getCourseCatalog().length);
+			assertEquals(1500, ws.getCourseFromCatalog(NAME, SECTION).getStartTime());
+			assertTrue(ws.needsRevalidation(0));
+			assertTrue(ws.needsRevalidation(1));
+			assertFalse(ws.needsRevalidation(2));
+			assertFalse(ws.needsRevalidation(3));
+			assertFalse(ws.needsRevalidation(4));
+		} finally {
+			Files.deleteIfExists(catalogFile);
+		}
+	}
+	
+	/**
+	 * Tests that a watched catalog is reloaded when the file changes.
+	 * @throws Exception if the catalog file cannot be written or the wait is interrupted
+	 */
+	@Test
+	public void testCatalogWatch() throws Exception {
+		Path dir = Files.createTempDirectory("catalog");
+		Path catalogFile = dir.resolve("course_records.txt");
+		try {
+			Files.copy(Path.of(validTestFile), catalogFile);
+			WolfScheduler ws = new WolfScheduler(catalogFile.toString());
+			ws.startCatalogWatch();
+			
+			Files.write(catalogFile, "CSC 492,Senior Design Project,001,3,dbsturgi,A".getBytes());
+			long deadline = System.currentTimeMillis() + 10000;
+			while (ws.getCourseCatalog().length != 1 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(20);
+			}
+			ws.stopCatalogWatch();
+			
+			assertEquals(1, ws.getCourseCatalog().length);
+			assertNotNull(ws.getCourseFromCatalog("CSC 492", "001"));
+		} finally {
+			Files.deleteIfExists(catalogFile);
+			Files.deleteIfExists(dir);
+		}
+	}
+	
 	/**
 	 * Test WolfScheduler.getCourseFromCatalog().
 	 */
@@ -101,6 +207,9 @@ public class WolfSchedulerTest {
 		//Attempt to get a course that doesn't exist
 		assertNull(ws.getCourseFromCatalog("CSC 492", "001"));
 		
+		//Attempt to get a section that doesn't exist for a course that does
+		assertNull(ws.getCourseFromCatalog("CSC 216", "003"));
+		
 		//Attempt to get a course that does exist
 		Activity c = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME);
 		assertEquals(c, ws.getCourseFromCatalog("CSC 216", "001"));
@@ -455,6 +564,228 @@ public class WolfSchedulerTest {
 		checkFiles("test-files/expected_schedule_export.txt", "test-files/actual_schedule_export.txt");
 	}
 	
+	/**
+	 * Test WolfScheduler.importSchedule().
+	 * @throws IOException if the test files cannot be written
+	 */
+	@Test
+	public void testImportSchedule() throws IOException {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		ws.addCourseToSchedule("CSC 216", "002");
+		ws.addEventToSchedule(EVENT_TITLE, EVENT_MEETING_DAYS, EVENT_START_TIME, EVENT_END_TIME, "Gym, then lunch");
+		ws.addCourseToSchedule("CSC 226", "001");
+		
+		Path file = Files.createTempFile("schedule_export", ".txt");
+		try {
+			ws.exportSchedule(file.toString());
+			WolfScheduler restored = new WolfScheduler(validTestFile);
+			restored.addCourseToSchedule("CSC 116", "001");
+			restored.importSchedule(file.toString());
+			assertArrayEquals(ws.getFullScheduledActivities(), restored.getFullScheduledActivities());
+			assertFalse(restored.needsRevalidation(0));
+			
+			//Conflicts are still found after an import
+			try {
+				restored.addCourseToSchedule("CSC 116", "001");
+				fail();
+			} catch (IllegalArgumentException e) {
+				assertEquals("The course cannot be added due to a conflict.", e.getMessage());
+			}
+			
+			//A conflicting or duplicated schedule leaves the current schedule alone
+			Files.write(file, ("CSC 216,Software Development Fundamentals,001,3,sesmith5,TH,1330,1445\n"
+					+ "Study,H,1445,1600,Library\n").getBytes());
+			try {
+				restored.importSchedule(file.toString());
+				fail();
+			} catch (IllegalArgumentException e) {
+				assertEquals("The schedule cannot be imported due to a conflict.", e.getMessage());
+			}
+			Files.write(file, ("Study,H,1500,1600,Library\nStudy,F,1500,1600,Library\n").getBytes());
+			try {
+				restored.importSchedule(file.toString());
+				fail();
+			} catch (IllegalArgumentException e) {
+				assertEquals("The schedule cannot be imported because it has duplicate activities.", e.getMessage());
+			}
+			assertArrayEquals(ws.getFullScheduledActivities(), restored.getFullScheduledActivities());
+			
+			//An event whose title has a comma exports but cannot be read back, so nothing is imported
+			WolfScheduler lunch = new WolfScheduler(validTestFile);
+			lunch.addCourseToSchedule("CSC 216", "001");
+			lunch.addEventToSchedule("Lunch, break", "MW", 1200, 1300, "Cafe");
+			lunch.exportSchedule(file.toString());
+			try {
+				restored.importSchedule(file.toString());
+				fail();
+			} catch (IllegalArgumentException e) {
+				assertEquals("The schedule cannot be imported because it has an invalid record.", e.getMessage());
+			}
+			assertArrayEquals(ws.getFullScheduledActivities(), restored.getFullScheduledActivities());
+			
+			//A course that changed in the catalog is kept as saved
+			Files.write(file, "CSC 216,Software Development Fundamentals,001,3,sesmith5,TH,1500,1615\n".getBytes());
+			restored.importSchedule(file.toString());
+			assertEquals(1, restored.getScheduledActivities().length);
+			assertTrue(restored.needsRevalidation(0));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+		
+		try {
+			ws.importSchedule("test-files/no_file.txt");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Cannot find file.", e.getMessage());
+		}
+	}
+	
+	/**
+	 * Test WolfScheduler.undo() and WolfScheduler.redo().
+	 */
+	@Test
+	public void testUndoRedo() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		assertFalse(ws.canUndo());
+		assertFalse(ws.undo());
+		assertFalse(ws.redo());
+		
+		ws.addCourseToSchedule("CSC 216", "001");
+		List<Activity> oneCourse = ws.getScheduleSnapshot();
+		ws.addEventToSchedule(EVENT_TITLE, EVENT_MEETING_DAYS, EVENT_START_TIME, EVENT_END_TIME, EVENT_DETAILS);
+		ws.setScheduleTitle("Fall");
+		ws.removeActivityFromSchedule(0);
+		assertEquals(1, oneCourse.size());
+		
+		//Undo each change in turn
+		assertTrue(ws.undo());
+		assertEquals(2, ws.getScheduledActivities().length);
+		assertTrue(ws.undo());
+		assertEquals("My Schedule", ws.getScheduleTitle());
+		assertTrue(ws.undo());
+		assertEquals(1, ws.getScheduledActivities().length);
+		assertSame(oneCourse, ws.getScheduleSnapshot());
+		assertTrue(ws.canRedo());
+		
+		//Conflicts are found against the schedule that was undone to
+		try {
+			ws.addCourseToSchedule("CSC 216", "002");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("You are already enrolled in CSC 216", e.getMessage());
+		}
+		
+		assertTrue(ws.redo());
+		assertTrue(ws.redo());
+		assertEquals("Fall", ws.getScheduleTitle());
+		assertEquals(2, ws.getScheduledActivities().length);
+		
+		//A new change clears what can be redone
+		ws.resetSchedule();
+		assertFalse(ws.canRedo());
+		assertFalse(ws.redo());
+		assertEquals(0, ws.getScheduledActivities().length);
+		assertTrue(ws.undo());
+		assertEquals(2, ws.getScheduledActivities().length);
+		
+		//Only the most recent changes are kept
+		for (int i = 0; i < WolfScheduler.MAX_UNDO + 5; i++) {
+			ws.setScheduleTitle("Title " + i);
+		}
+		int undone = 0;
+		while (ws.undo()) {
+			undone++;
+		}
+		assertEquals(WolfScheduler.MAX_UNDO, undone);
+		assertEquals("Title 4", ws.getScheduleTitle());
+	}
+	
+	/**
+	 * Test WolfScheduler.addScheduleListener() by keeping a copy of the schedule up to date
+	 * with only the changes it is told about.
+	 * @throws IOException if the catalog file cannot be written
+	 */
+	@Test
+	public void testScheduleListener() throws IOException {
+		Path catalogFile = Files.createTempFile("course_records", ".txt");
+		try {
+			Files.copy(Path.of(validTestFile), catalogFile, StandardCopyOption.REPLACE_EXISTING);
+			WolfScheduler ws = new WolfScheduler(catalogFile.toString());
+			List<String[]> rows = new ArrayList<String[]>();
+			String[] title = new String[1];
+			List<CatalogDiff> reloads = new ArrayList<CatalogDiff>();
+			ScheduleListener listener = new ScheduleListener() {
+				
+				@Override
+				public void activityInserted(int idx, Activity activity) {
+					rows.add(idx, activity.getShortDisplayArray());
+				}
+				
+				@Override
+				public void activityRemoved(int idx, Activity activity) {
+					assertArrayEquals(activity.getShortDisplayArray(), rows.remove(idx));
+				}
+				
+				@Override
+				public void scheduleReplaced(List<Activity> schedule) {
+					rows.clear();
+					for (Activity a : schedule) {
+						rows.add(a.getShortDisplayArray());
+					}
+				}
+				
+				@Override
+				public void titleChanged(String newTitle) {
+					title[0] = newTitle;
+				}
+				
+				@Override
+				public void catalogReloaded(CatalogDiff diff) {
+					reloads.add(diff);
+				}
+			};
+			ws.addScheduleListener(listener);
+			
+			ws.addCourseToSchedule("CSC 216", "001");
+			ws.addEventToSchedule(EVENT_TITLE, EVENT_MEETING_DAYS, EVENT_START_TIME, EVENT_END_TIME, EVENT_DETAILS);
+			ws.addCourseToSchedule("CSC 226", "001");
+			assertArrayEquals(ws.getScheduledActivities(), rows.toArray(new String[0][]));
+			ws.removeActivityFromSchedule(1);
+			assertArrayEquals(ws.getScheduledActivities(), rows.toArray(new String[0][]));
+			ws.setScheduleTitle("Fall");
+			assertEquals("Fall", title[0]);
+			ws.undo();
+			assertEquals("My Schedule", title[0]);
+			ws.undo();
+			assertArrayEquals(ws.getScheduledActivities(), rows.toArray(new String[0][]));
+			ws.resetSchedule();
+			assertEquals(0, rows.size());
+			ws.undo();
+			assertEquals(3, rows.size());
+			
+			//Failed changes are not heard
+			try {
+				ws.addCourseToSchedule("CSC 216", "002");
+				fail();
+			} catch (IllegalArgumentException e) {
+				assertArrayEquals(ws.getScheduledActivities(), rows.toArray(new String[0][]));
+			}
+			
+			Files.write(catalogFile, (new String(Files.readAllBytes(catalogFile))
+					+ "\nCSC 492,Senior Design Project,001,3,dbsturgi,A").getBytes());
+			ws.reloadCatalog();
+			assertEquals(1, reloads.size());
+			assertEquals(1, reloads.get(0).getAdded().size());
+			
+			assertTrue(ws.removeScheduleListener(listener));
+			assertFalse(ws.removeScheduleListener(listener));
+			ws.resetSchedule();
+			assertEquals(3, rows.size());
+		} finally {
+			Files.deleteIfExists(catalogFile);
+		}
+	}
+	
 	/**
 	 * Helper method to compare two files for the same contents
 	 * @param expFile expected output